@@ -0,0 +1,6 @@
+package com.grindsup.backend.DTO;
+
+import java.util.List;
+
+// Resumen combinado de alumnos: un período por fila (incluye los períodos sin movimiento) + totales del rango
+public record AlumnosResumenDTO(long totalAltas, long totalBajas, List<AlumnosResumenMesDTO> meses) {}
@@ -0,0 +1,3 @@
+package com.grindsup.backend.DTO;
+
+public record AlumnosResumenMesDTO(String month, long altas, long bajas, long activos) {}
@@ -0,0 +1,19 @@
+package com.grindsup.backend.DTO;
+
+import java.time.OffsetDateTime;
+
+// Una fila del benchmark de admin. Tasa y rating en null si el entrenador no tiene planes / evaluaciones.
+public record BenchmarkEntrenadorDTO(
+        Long idEntrenador,
+        String nombre,
+        String apellido,
+        long alumnosActivos,
+        long planes,
+        long planesCompletados,
+        Double tasaCompletado,   // 0..100
+        Double ratingPromedio,   // 0..5
+        long evaluaciones,
+        long sesiones,
+        long sesionesUltimos30Dias,
+        OffsetDateTime ultimoAcceso
+) {}
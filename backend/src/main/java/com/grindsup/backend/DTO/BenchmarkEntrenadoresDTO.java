@@ -0,0 +1,7 @@
+package com.grindsup.backend.DTO;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Benchmark de todos los entrenadores no eliminados, ordenados por id
+public record BenchmarkEntrenadoresDTO(OffsetDateTime generado, List<BenchmarkEntrenadorDTO> entrenadores) {}
@@ -0,0 +1,7 @@
+package com.grindsup.backend.DTO;
+
+import java.util.List;
+
+// Una cohorte (mes de alta): cuántos entraron y cuántos siguen activos al cierre de cada
+// mes pedido, alineado con RetencionCohortesDTO.meses (null si ese mes todavía no cerró)
+public record RetencionCohorteDTO(String month, long altas, List<Long> activos) {}
@@ -0,0 +1,6 @@
+package com.grindsup.backend.DTO;
+
+import java.util.List;
+
+// Triángulo de retención: meses = desplazamientos pedidos (ej. 1, 3, 6, 12), una fila por cohorte
+public record RetencionCohortesDTO(List<Integer> meses, List<RetencionCohorteDTO> cohortes) {}
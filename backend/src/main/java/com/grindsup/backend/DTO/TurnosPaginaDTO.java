@@ -0,0 +1,6 @@
+package com.grindsup.backend.DTO;
+
+import java.util.List;
+
+// Una página del listado de turnos; siguiente = cursor opaco para pedir la próxima (null si no hay más)
+public record TurnosPaginaDTO(List<TurnoResponseDTO> turnos, String siguiente) {}
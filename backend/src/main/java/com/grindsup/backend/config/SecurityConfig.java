@@ -56,6 +56,8 @@ public class SecurityConfig {
         c.setAllowedOrigins(List.of("http://localhost:5173"));
         c.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS","PATCH"));
         c.setAllowedHeaders(List.of("*"));
+        // Cursor de los listados paginados de turnos
+        c.setExposedHeaders(List.of("X-Next-Cursor"));
         c.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
@@ -7,8 +7,11 @@ import com.grindsup.backend.model.Estado;
 import com.grindsup.backend.repository.AlumnoRepository;
 import com.grindsup.backend.repository.EntrenadorRepository;
 import com.grindsup.backend.repository.EstadoRepository;
+import com.grindsup.backend.service.AlumnoResumenService;
+import com.grindsup.backend.service.AlumnoResumenService.Snapshot;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -24,15 +27,18 @@ public class AlumnoController {
     private final AlumnoRepository alumnoRepository;
     private final EntrenadorRepository entrenadorRepository;
     private final EstadoRepository estadoRepository;
+    private final AlumnoResumenService alumnoResumenService;
 
     public AlumnoController(
                 AlumnoRepository alumnoRepository,
                 EntrenadorRepository entrenadorRepository,
-                EstadoRepository estadoRepository
+                EstadoRepository estadoRepository,
+                AlumnoResumenService alumnoResumenService
     ) {
         this.alumnoRepository = alumnoRepository;
         this.entrenadorRepository = entrenadorRepository;
         this.estadoRepository = estadoRepository;
+        this.alumnoResumenService = alumnoResumenService;
     }
 
 
@@ -82,6 +88,7 @@ public class AlumnoController {
 
     /* ----------------- POST /api/alumnos ----------------- */
     @PostMapping
+    @Transactional
     public ResponseEntity<Alumno> create(@RequestBody Map<String, Object> body) {
 
         // Campos básicos
@@ -145,16 +152,19 @@ public class AlumnoController {
         a.setUpdated_at(OffsetDateTime.now());
 
         Alumno saved = alumnoRepository.save(a);
+        alumnoResumenService.registrarCambio(null, saved); // rollup mensual (misma transacción)
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
     
     
     /* ----------------- PUT /api/alumnos/{id} ----------------- */
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Alumno> update(@PathVariable Long id, @RequestBody Map<String, Object> body) {
         
         Alumno existing = alumnoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Alumno no encontrado"));
+        Snapshot antes = Snapshot.de(existing);
 
         // Campos básicos
         String nombre = str(body.get("nombre"));
@@ -206,15 +216,18 @@ public class AlumnoController {
         existing.setUpdated_at(OffsetDateTime.now());
 
         Alumno saved = alumnoRepository.save(existing);
+        alumnoResumenService.registrarCambio(antes, saved);
         return ResponseEntity.ok(saved);
     }
     
     /* ----------------- DELETE /api/alumnos/{id} ----------------- */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> delete(@PathVariable Long id, @RequestBody Map<String, Object> body) {
         
         Alumno alumno = alumnoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Alumno no encontrado"));
+        Snapshot antes = Snapshot.de(alumno);
                 
         String motivo = str(body.get("motivo"));
 
@@ -228,16 +241,19 @@ public class AlumnoController {
         alumno.setUpdated_at(OffsetDateTime.now());
 
         alumnoRepository.save(alumno);
+        alumnoResumenService.registrarCambio(antes, alumno);
         
         return ResponseEntity.ok(Map.of("message", "Alumno dado de baja correctamente"));
     }
     
     // Opcional: PATCH para informeMedico (si lo usas para la lista rápida)
     @PatchMapping("/{id}/informe")
+    @Transactional
     public ResponseEntity<?> updateInformeMedico(@PathVariable Long id, @RequestBody Map<String, Boolean> body) {
         
         Alumno alumno = alumnoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Alumno no encontrado"));
+        Snapshot antes = Snapshot.de(alumno);
                 
         Boolean informeMedico = body.get("informeMedico");
         if (informeMedico == null) {
@@ -247,6 +263,8 @@ public class AlumnoController {
         alumno.setInformeMedico(informeMedico);
         alumno.setUpdated_at(OffsetDateTime.now());
         alumnoRepository.save(alumno);
+        // Si está INACTIVO, su baja se mueve al mes de este updated_at
+        alumnoResumenService.registrarCambio(antes, alumno);
         
         return ResponseEntity.ok(Map.of("message", "Informe médico actualizado"));
     }
@@ -7,12 +7,18 @@ import com.grindsup.backend.DTO.PlanListDTO; // <-- Importación necesaria
 import com.grindsup.backend.repository.EntrenadorRepository;
 import com.grindsup.backend.repository.UsuarioRepository;
 import com.grindsup.backend.repository.EstadoRepository;
+import com.grindsup.backend.service.StatsCache;
+import com.grindsup.backend.service.ZonaHorariaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.DateTimeException;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/entrenadores")
@@ -28,6 +34,9 @@ public class EntrenadorController {
     @Autowired
     private EstadoRepository estadoRepository;
 
+    @Autowired
+    private StatsCache statsCache;
+
     // Inyección del PlanRepository para el endpoint de planes
     @Autowired
     private com.grindsup.backend.repository.PlanEntrenamientoRepository planRepository;
@@ -74,6 +83,13 @@ public class EntrenadorController {
             entrenador.setEstado(estado);
         }
 
+        // Zona horaria (opcional)
+        try {
+            entrenador.setZonaHoraria(ZonaHorariaService.normalizar(entrenador.getZonaHoraria()));
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().body("Zona horaria inválida");
+        }
+
         // Timestamps
         OffsetDateTime ahora = OffsetDateTime.now();
         entrenador.setCreated_at(ahora);
@@ -97,6 +113,20 @@ public class EntrenadorController {
         entrenador.setExperiencia(entrenadorDetails.getExperiencia());
         entrenador.setTelefono(entrenadorDetails.getTelefono());
 
+        // Zona horaria de sus estadísticas ("" = volver a la de la app)
+        boolean cambioZona = false;
+        if (entrenadorDetails.getZonaHoraria() != null) {
+            String zona;
+            try {
+                zona = ZonaHorariaService.normalizar(entrenadorDetails.getZonaHoraria());
+            } catch (DateTimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Zona horaria inválida: " + entrenadorDetails.getZonaHoraria());
+            }
+            cambioZona = !Objects.equals(zona, entrenador.getZonaHoraria());
+            entrenador.setZonaHoraria(zona);
+        }
+
         // Actualizar estado si se envía
         if (entrenadorDetails.getEstado() != null) {
             Estado estadoExistente = estadoRepository.findById(entrenadorDetails.getEstado().getIdEstado())
@@ -125,6 +155,8 @@ public class EntrenadorController {
         }
 
         entrenadorRepository.save(entrenador);
+        // Las series cacheadas están armadas en la zona anterior
+        if (cambioZona) statsCache.invalidarEntrenador(id);
         return ResponseEntity.ok(entrenador);
     }
 
@@ -5,6 +5,7 @@ import com.grindsup.backend.model.PlanEntrenamiento;
 import com.grindsup.backend.model.PlanEvaluacion;
 import com.grindsup.backend.repository.PlanEntrenamientoRepository;
 import com.grindsup.backend.repository.PlanEvaluacionRepository;
+import com.grindsup.backend.service.RatingResumenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.grindsup.backend.DTO.CrearPlanEvaluacionDTO;
@@ -20,13 +21,16 @@ public class PlanEvaluacionController {
 
     private final PlanEntrenamientoRepository planRepo;
     private final PlanEvaluacionRepository evalRepo;
+    private final RatingResumenService ratingResumenService;
 
     public PlanEvaluacionController(
             PlanEntrenamientoRepository planRepo,
-            PlanEvaluacionRepository evalRepo
+            PlanEvaluacionRepository evalRepo,
+            RatingResumenService ratingResumenService
     ) {
         this.planRepo = planRepo;
         this.evalRepo = evalRepo;
+        this.ratingResumenService = ratingResumenService;
     }
 
     // POST /api/planes/{idPlan}/evaluacion
@@ -57,7 +61,8 @@ public class PlanEvaluacionController {
         ev.setComentario(body.getComentario());
         ev.setCreated_at(new java.util.Date());
 
-        PlanEvaluacion saved = evalRepo.save(ev);
+        // Guarda y actualiza el rollup mensual de ratings en la misma transacción
+        PlanEvaluacion saved = ratingResumenService.guardar(ev);
         return ResponseEntity.ok(Map.of("evaluacion", saved));
     }
 
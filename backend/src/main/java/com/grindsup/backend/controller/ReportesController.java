@@ -1,21 +1,50 @@
 package com.grindsup.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.grindsup.backend.DTO.ReporteProgresoPlanesDTO;
+import com.grindsup.backend.repository.AlumnoRepository;
 import com.grindsup.backend.service.DynamicsReportService;
+import com.grindsup.backend.service.RenderBulkhead;
+import com.grindsup.backend.service.ReportJobService;
+import com.grindsup.backend.service.ReportJobService.ReportJob;
+import com.grindsup.backend.service.ReportPdfCache;
+import com.grindsup.backend.service.ReportPdfCache.Tipo;
 import com.grindsup.backend.service.ReporteService;
+import com.grindsup.backend.service.ReporteZipService;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import jakarta.persistence.EntityNotFoundException;
 
 @RestController
 @RequestMapping("/api/reportes")
@@ -25,6 +54,16 @@ public class ReportesController {
     private ReporteService reporteService;
     @Autowired
     private DynamicsReportService dynamicsReportService;
+    @Autowired
+    private ReportJobService reportJobService;
+    @Autowired
+    private ReportPdfCache reportPdfCache;
+    @Autowired
+    private ReporteZipService reporteZipService;
+    @Autowired
+    private RenderBulkhead renderBulkhead;
+    @Autowired
+    private AlumnoRepository alumnoRepository;
 
     @GetMapping("/planes/alumno/{idAlumno}")
     public ResponseEntity<ReporteProgresoPlanesDTO> obtenerReporteProgresoPlanesAlumno(@PathVariable Long idAlumno) {
@@ -33,34 +72,76 @@ public class ReportesController {
     }
 
     @GetMapping("/planes/alumno/{idAlumno}/pdf")
-    public ResponseEntity<byte[]> exportarReporteProgresoPlanesPDF(@PathVariable Long idAlumno) {
-        byte[] pdfBytes = dynamicsReportService.buildReporteProgresoPlanesPdf(idAlumno);
+    public ResponseEntity<StreamingResponseBody> exportarReporteProgresoPlanesPDF(@PathVariable Long idAlumno,
+                                                                                  WebRequest webRequest) {
+        ReportPdfCache.Key key = reportPdfCache.key(Tipo.PROGRESO_ALUMNO, idAlumno, null, null);
+        if (webRequest.checkNotModified(reportPdfCache.etag(key))) {
+            return null; // 304
+        }
+
+        StreamingResponseBody body = renderConCache(key, alumnoRepository.findEntrenadorIdByAlumnoId(idAlumno), webRequest,
+                () -> dynamicsReportService.prepararReporteProgresoPlanesPdf(idAlumno));
 
         return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reporte_planes_" + idAlumno + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(body);
+    }
+
+    /** Progreso de todos los alumnos activos del entrenador (dashboard), en una sola consulta. */
+    @GetMapping("/planes/entrenador/{entrenadorId}")
+    public ResponseEntity<List<ReporteProgresoPlanesDTO>> obtenerReporteProgresoPlanesEntrenador(
+            @PathVariable Long entrenadorId) {
+        return ResponseEntity.ok(reporteService.generarReporteProgresoPlanesDeEntrenador(entrenadorId));
+    }
+
+    /** Un PDF de progreso por cada alumno activo del entrenador, todos en un ZIP. */
+    @GetMapping("/planes/entrenador/{entrenadorId}/zip")
+    public ResponseEntity<StreamingResponseBody> exportarReportesProgresoPlanesZIP(@PathVariable Long entrenadorId,
+                                                                                   WebRequest webRequest) {
+        // Se consulta antes de empezar a escribir, así un entrenador inexistente no deja un ZIP a medias
+        List<ReporteProgresoPlanesDTO> alumnos = reporteZipService.cargarProgresoPlanesDeEntrenador(entrenadorId);
+
+        // Un solo lugar en el bulkhead para todo el ZIP
+        StreamingResponseBody body = conPermiso(entrenadorId, webRequest,
+                out -> reporteZipService.writeZipProgresoPlanes(alumnos, out));
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=reportes_planes_entrenador_" + entrenadorId + ".zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
     }
 
     @GetMapping("/planes/entrenador/{entrenadorId}/pdf")
-    public ResponseEntity<byte[]> exportarReporteEntrenadorPDF(
+    public ResponseEntity<StreamingResponseBody> exportarReporteEntrenadorPDF(
             @PathVariable Long entrenadorId,
             @RequestParam(name = "from", required = false) String from,
-            @RequestParam(name = "to", required = false) String to) {
+            @RequestParam(name = "to", required = false) String to,
+            WebRequest webRequest) {
 
         YearMonth desde = from != null && !from.isBlank() ? YearMonth.parse(from) : null;
         YearMonth hasta = to != null && !to.isBlank() ? YearMonth.parse(to) : null;
-        byte[] pdfBytes = dynamicsReportService.buildReporteRatingsEntrenadorPdf(entrenadorId, desde, hasta);
+        YearMonth desdeEf = desde != null ? desde : YearMonth.now().minusMonths(1);
+        YearMonth hastaEf = hasta != null ? hasta : YearMonth.now();
+
+        ReportPdfCache.Key key = reportPdfCache.key(Tipo.RATINGS, entrenadorId, desdeEf, hastaEf);
+        if (webRequest.checkNotModified(reportPdfCache.etag(key))) {
+            return null; // 304
+        }
+
+        StreamingResponseBody body = renderConCache(key, entrenadorId, webRequest,
+                () -> dynamicsReportService.prepararReporteRatingsEntrenadorPdf(entrenadorId, desde, hasta));
 
         String fileName = String.format("reporte_entrenador_%d_%s_%s.pdf",
-                entrenadorId,
-                (desde != null ? desde : YearMonth.now().minusMonths(1)),
-                (hasta != null ? hasta : YearMonth.now()));
+                entrenadorId, desdeEf, hastaEf);
 
         return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(body);
     }
 
         // import java.time.YearMonth;
@@ -70,27 +151,251 @@ public class ReportesController {
     // import org.springframework.http.ResponseEntity;
 
     @GetMapping("/alumnos/entrenador/{entrenadorId}/pdf")
-    public ResponseEntity<byte[]> exportAltasBajasPdf(
+    public ResponseEntity<StreamingResponseBody> exportAltasBajasPdf(
             @PathVariable Long entrenadorId,
             @RequestParam String from,   // "YYYY-MM"
-            @RequestParam String to      // "YYYY-MM"
+            @RequestParam String to,     // "YYYY-MM"
+            WebRequest webRequest
     ) {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
         YearMonth fromYm = YearMonth.parse(from, fmt);
         YearMonth toYm = YearMonth.parse(to, fmt);
 
-        byte[] pdf = dynamicsReportService
-                .buildReporteAltasBajasAlumnosPdf(entrenadorId, fromYm, toYm);
+        ReportPdfCache.Key key = reportPdfCache.key(Tipo.ALTAS_BAJAS, entrenadorId, fromYm, toYm);
+        if (webRequest.checkNotModified(reportPdfCache.etag(key))) {
+            return null; // 304
+        }
+
+        StreamingResponseBody pdf = renderConCache(key, entrenadorId, webRequest,
+                () -> dynamicsReportService.prepararReporteAltasBajasAlumnosPdf(entrenadorId, fromYm, toYm));
 
         String filename = String.format("reporte_alumnos_%d_%s_%s.pdf",
                 entrenadorId, from, to).replaceAll("\\W+", "_");
 
         return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + filename)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(pdf);
+    }
+
+    // Retención por cohorte. Sin ReportPdfCache: el resultado cambia al cerrar
+    // cada mes aunque no cambien los datos, y la versión no lo refleja.
+    @GetMapping("/alumnos/entrenador/{entrenadorId}/retencion/pdf")
+    public ResponseEntity<StreamingResponseBody> exportRetencionCohortesPdf(
+            @PathVariable Long entrenadorId,
+            @RequestParam(required = false) String from,   // "YYYY-MM"
+            @RequestParam(required = false) String to,     // "YYYY-MM"
+            WebRequest webRequest
+    ) {
+        // Por defecto los últimos 12 meses
+        YearMonth toYm;
+        YearMonth fromYm;
+        try {
+            toYm = to != null && !to.isBlank() ? YearMonth.parse(to.trim()) : YearMonth.now();
+            fromYm = from != null && !from.isBlank() ? YearMonth.parse(from.trim()) : toYm.minusMonths(11);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from / to tienen que ser YYYY-MM");
+        }
+
+        StreamingResponseBody pdf = renderSinCache(entrenadorId, webRequest,
+                () -> dynamicsReportService.prepararReporteRetencionCohortesPdf(entrenadorId, fromYm, toYm));
+
+        String filename = String.format("reporte_retencion_%d_%s_%s.pdf",
+                entrenadorId, fromYm, toYm);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=" + filename)
                 .contentType(MediaType.APPLICATION_PDF)
                 .body(pdf);
     }
 
+    // ============================================================
+    // ============ TRABAJOS ASÍNCRONOS (encolar / estado) ========
+    // ============================================================
+
+    @PostMapping("/jobs/planes/alumno/{idAlumno}")
+    public ResponseEntity<Map<String, Object>> encolarReporteProgresoPlanes(@PathVariable Long idAlumno) {
+        Long entrenadorId = alumnoRepository.findEntrenadorIdByAlumnoId(idAlumno);
+        ReportJob job = encolar("reporte_planes_" + idAlumno + ".pdf", entrenadorId,
+                out -> dynamicsReportService.writeReporteProgresoPlanesPdf(idAlumno, out));
+        return ResponseEntity.accepted().body(estadoJob(job));
+    }
+
+    @PostMapping("/jobs/planes/entrenador/{entrenadorId}")
+    public ResponseEntity<Map<String, Object>> encolarReporteEntrenador(
+            @PathVariable Long entrenadorId,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to) {
+
+        YearMonth desde = from != null && !from.isBlank() ? YearMonth.parse(from) : null;
+        YearMonth hasta = to != null && !to.isBlank() ? YearMonth.parse(to) : null;
 
+        String fileName = String.format("reporte_entrenador_%d_%s_%s.pdf",
+                entrenadorId,
+                (desde != null ? desde : YearMonth.now().minusMonths(1)),
+                (hasta != null ? hasta : YearMonth.now()));
+
+        ReportJob job = encolar(fileName, entrenadorId,
+                out -> dynamicsReportService.writeReporteRatingsEntrenadorPdf(entrenadorId, desde, hasta, out));
+        return ResponseEntity.accepted().body(estadoJob(job));
+    }
+
+    @PostMapping("/jobs/alumnos/entrenador/{entrenadorId}")
+    public ResponseEntity<Map<String, Object>> encolarAltasBajas(
+            @PathVariable Long entrenadorId,
+            @RequestParam String from,   // "YYYY-MM"
+            @RequestParam String to      // "YYYY-MM"
+    ) {
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM");
+        YearMonth fromYm = YearMonth.parse(from, fmt);
+        YearMonth toYm = YearMonth.parse(to, fmt);
+
+        String filename = String.format("reporte_alumnos_%d_%s_%s.pdf",
+                entrenadorId, from, to).replaceAll("\\W+", "_");
+
+        ReportJob job = encolar(filename, entrenadorId,
+                out -> dynamicsReportService.writeReporteAltasBajasAlumnosPdf(entrenadorId, fromYm, toYm, out));
+        return ResponseEntity.accepted().body(estadoJob(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> estadoReporte(@PathVariable String jobId) {
+        return reportJobService.find(jobId)
+                .map(job -> ResponseEntity.ok(estadoJob(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/jobs/{jobId}/pdf")
+    public ResponseEntity<Resource> descargarReporte(@PathVariable String jobId) {
+        ReportJob job = reportJobService.find(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trabajo no encontrado"));
+
+        if (job.getEstado() != ReportJobService.Estado.LISTO) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "El reporte no está listo (estado: " + job.getEstado() + ")");
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(new FileSystemResource(job.getArchivo()));
+    }
+
+    // ===== helpers =====
+    private ReportJob encolar(String fileName, Long entrenadorId, ReportJobService.Render render) {
+        try {
+            // El worker también pasa por el bulkhead: los trabajos compiten con los pedidos directos
+            return reportJobService.submit(fileName, out -> {
+                try (RenderBulkhead.Permiso permiso = renderBulkhead.adquirir(entrenadorId)) {
+                    render.writeTo(out);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Hay demasiados reportes en cola, intentá de nuevo en unos minutos");
+        }
+    }
+
+    /**
+     * PDF desde la cache o renderizado directo a la respuesta. Los datos se
+     * cargan y el lugar del bulkhead se toma en el hilo del pedido, antes de
+     * comprometer el 200: un alumno o entrenador inexistente da 404 y un
+     * bulkhead lleno da 429/503. Un fallo ya durante el render corta la
+     * respuesta. Lo que se escribe se copia a la cache hasta
+     * {@code max-entry-bytes}, y solo se guarda si el render terminó bien.
+     */
+    private StreamingResponseBody renderConCache(ReportPdfCache.Key key, Long entrenadorId, WebRequest webRequest,
+                                                 Supplier<ReportJobService.Render> preparar) {
+        byte[] cached = reportPdfCache.buscar(key);
+        if (cached != null) {
+            return out -> out.write(cached);
+        }
+        ReportJobService.Render render = preparar(preparar);
+        return conPermiso(entrenadorId, webRequest, out -> {
+            ReportPdfCache.Captura captura = reportPdfCache.capturar(key, out);
+            escribir(render, captura);
+            captura.guardar();
+        });
+    }
+
+    // Como renderConCache pero sin cache: el PDF va directo a la respuesta
+    private StreamingResponseBody renderSinCache(Long entrenadorId, WebRequest webRequest,
+                                                 Supplier<ReportJobService.Render> preparar) {
+        ReportJobService.Render render = preparar(preparar);
+        return conPermiso(entrenadorId, webRequest, out -> escribir(render, out));
+    }
+
+    // Carga los datos del reporte en el hilo del pedido
+    private static ReportJobService.Render preparar(Supplier<ReportJobService.Render> preparar) {
+        try {
+            return preparar.get();
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Sin instancia libre del layout: el fill no empezó a escribir, todavía se puede responder 503
+    private static void escribir(ReportJobService.Render render, OutputStream out) throws IOException {
+        try {
+            render.writeTo(out);
+        } catch (RenderBulkhead.Rechazo e) {
+            throw rechazo(e);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Cuerpo streaming que corre con un lugar del bulkhead tomado acá, en el
+     * hilo del pedido, para poder responder 429/503 limpio. El lugar se
+     * libera al terminar el cuerpo y también al completarse el pedido
+     * asíncrono, por si el cuerpo nunca llega a correr (timeout, cliente que
+     * cortó, executor lleno).
+     */
+    private StreamingResponseBody conPermiso(Long entrenadorId, WebRequest webRequest, StreamingResponseBody body) {
+        RenderBulkhead.Permiso permiso;
+        try {
+            permiso = renderBulkhead.adquirir(entrenadorId);
+        } catch (RenderBulkhead.Rechazo e) {
+            throw rechazo(e);
+        }
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(permiso,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        permiso.close();
+                    }
+                });
+        return out -> {
+            try (permiso) {
+                body.writeTo(out);
+            }
+        };
+    }
+
+    private static ResponseStatusException rechazo(RenderBulkhead.Rechazo e) {
+        HttpStatus status = e.getMotivo() == RenderBulkhead.Motivo.LLENO
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseStatusException(status, e.getMessage());
+    }
+
+    private Map<String, Object> estadoJob(ReportJob job) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jobId", job.getId());
+        m.put("estado", job.getEstado());
+        m.put("creado", job.getCreado());
+        m.put("terminado", job.getTerminado());
+        m.put("error", job.getError());
+        if (job.getEstado() == ReportJobService.Estado.LISTO) {
+            m.put("descarga", "/api/reportes/jobs/" + job.getId() + "/pdf");
+        }
+        return m;
+    }
 }
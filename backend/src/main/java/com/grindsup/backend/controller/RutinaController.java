@@ -12,8 +12,9 @@ import com.grindsup.backend.repository.PlanEntrenamientoRepository;
 import com.grindsup.backend.repository.EstadoRepository;
 import com.grindsup.backend.repository.EjercicioRepository;
 
+import com.grindsup.backend.service.RenderBulkhead;
+import com.grindsup.backend.service.ReportResourceRegistry;
 import com.grindsup.backend.service.RutinaService;
-import org.springframework.core.io.ClassPathResource;
 
 import com.grindsup.backend.DTO.RutinaUpdateRequestDTO;
 import com.grindsup.backend.DTO.CrearRutinarequestDTO;
@@ -34,6 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/rutinas")
@@ -52,6 +54,10 @@ public class RutinaController {
     private RutinaService rutinaService;
     @Autowired
     private EjercicioRepository ejercicioRepository;
+    @Autowired
+    private ReportResourceRegistry recursos;
+    @Autowired
+    private RenderBulkhead renderBulkhead;
 
     // ================== LISTA DE RUTINAS (CATÁLOGO O TODAS) ==================
     @GetMapping
@@ -220,6 +226,22 @@ public class RutinaController {
             }
         }
 
+        // Lugar en el bulkhead de render (429/503 si está lleno) antes de escribir la respuesta
+        Long entrenadorId = (rutina.getPlan() != null && rutina.getPlan().getEntrenador() != null)
+                ? rutina.getPlan().getEntrenador().getIdEntrenador()
+                : null;
+        try (RenderBulkhead.Permiso permiso = renderBulkhead.adquirir(entrenadorId)) {
+            escribirRutinaPDF(id, rutina, ejercicios, nombreAlumno, nombreEntrenador, response);
+        } catch (RenderBulkhead.Rechazo e) {
+            throw new ResponseStatusException(e.getMotivo() == RenderBulkhead.Motivo.LLENO
+                    ? HttpStatus.TOO_MANY_REQUESTS
+                    : HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    private void escribirRutinaPDF(Long id, Rutina rutina, List<RutinaEjercicio> ejercicios,
+                                   String nombreAlumno, String nombreEntrenador,
+                                   HttpServletResponse response) throws Exception {
         response.setContentType("application/pdf");
         response.setHeader("Content-Disposition", "attachment; filename=rutina_" + id + ".pdf");
 
@@ -231,12 +253,10 @@ public class RutinaController {
         Color colorSecundario = new Color(230, 247, 237);
         Color blanco = Color.WHITE;
 
-        String rutaFuente = "C:/Windows/Fonts/times.ttf";
-        BaseFont baseFont = BaseFont.createFont(rutaFuente, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-
-        Font fontTitulo = new Font(baseFont, 22, Font.BOLD, colorPrincipal);
-        Font fontNormal = new Font(baseFont, 12, Font.NORMAL, Color.BLACK);
-        Font fontHeader = new Font(baseFont, 12, Font.BOLD, Color.WHITE);
+        // Fuentes embebidas, cargadas una vez al iniciar (ver ReportResourceRegistry)
+        Font fontTitulo = recursos.serif(22, Font.BOLD, colorPrincipal);
+        Font fontNormal = recursos.serif(12, Font.NORMAL, Color.BLACK);
+        Font fontHeader = recursos.serif(12, Font.BOLD, Color.WHITE);
 
         // ========== HEADER ESTILIZADO (CON LOGO) ==========
         PdfPTable headerTable = new PdfPTable(2);
@@ -244,16 +264,15 @@ public class RutinaController {
         headerTable.setWidths(new float[]{1f, 3f});
         headerTable.getDefaultCell().setBorder(Rectangle.NO_BORDER);
 
-        try {
-            // carga el logo desde src/main/resources/static/logo-grindsup.png
-            ClassPathResource res = new ClassPathResource("static/logo-grindsup.png");
-            Image logo = Image.getInstance(res.getURL());
+        // logo ya decodificado (copia propia de este documento)
+        Image logo = recursos.logoPdf();
+        if (logo != null) {
             logo.scaleToFit(70, 70);
             PdfPCell logoCell = new PdfPCell(logo, false);
             logoCell.setBorder(Rectangle.NO_BORDER);
             logoCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             headerTable.addCell(logoCell);
-        } catch (Exception e) {
+        } else {
             PdfPCell emptyCell = new PdfPCell(new Phrase(""));
             emptyCell.setBorder(Rectangle.NO_BORDER);
             headerTable.addCell(emptyCell);
@@ -268,7 +287,7 @@ public class RutinaController {
 
         Paragraph sub = new Paragraph(
                 "Rutina personalizada",
-                new Font(baseFont, 12, Font.ITALIC, Color.GRAY)
+                recursos.serif(12, Font.ITALIC, Color.GRAY)
         );
         titleCell.addElement(sub);
 
@@ -324,7 +343,7 @@ public class RutinaController {
 
         Paragraph footer = new Paragraph(
                 "Generado por GrindSup - " + new Date(),
-                new Font(baseFont, 10, Font.ITALIC, Color.GRAY)
+                recursos.serif(10, Font.ITALIC, Color.GRAY)
         );
         footer.setAlignment(Element.ALIGN_RIGHT);
         document.add(footer);
@@ -6,10 +6,13 @@ import com.grindsup.backend.model.Estado;
 import com.grindsup.backend.repository.SesionRepository;
 import com.grindsup.backend.repository.UsuarioRepository;
 import com.grindsup.backend.repository.EstadoRepository;
+import com.grindsup.backend.service.SesionHistorialService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sesiones")
@@ -24,6 +27,9 @@ public class SesionController {
     @Autowired
     private EstadoRepository estadoRepository;
 
+    @Autowired
+    private SesionHistorialService sesionHistorialService;
+
     @GetMapping
     public List<Sesion> getAll() {
         return sesionRepository.findAll();
@@ -44,12 +50,13 @@ public class SesionController {
             Estado estado = estadoRepository.findById(sesion.getEstado().getIdEstado()).orElse(null);
             sesion.setEstado(estado);
         }
-        return sesionRepository.save(sesion);
+        return sesionHistorialService.registrar(sesion);
     }
 
     @PutMapping("/{id}")
     public Sesion update(@PathVariable Long id, @RequestBody Sesion sesion) {
         return sesionRepository.findById(id).map(existing -> {
+            SesionHistorialService.Aporte antes = SesionHistorialService.Aporte.de(existing);
             existing.setInicio(sesion.getInicio());
             existing.setFin(sesion.getFin());
             existing.setIp(sesion.getIp());
@@ -63,13 +70,22 @@ public class SesionController {
                 Estado estado = estadoRepository.findById(sesion.getEstado().getIdEstado()).orElse(null);
                 existing.setEstado(estado);
             }
-            return sesionRepository.save(existing);
+            // Mueve la sesión en el rollup diario si cambió el usuario o el inicio
+            return sesionHistorialService.actualizar(antes, existing);
         }).orElse(null);
     }
 
+    // Rehace el resumen diario desde sesiones + sesiones_archivo (p.ej. después de corregir datos a mano).
+    // Reescribe la tabla de todos los usuarios: solo admin
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'ADMIN')")
+    @PostMapping("/resumen/reconstruir")
+    public Map<String, Object> reconstruirResumen() {
+        return Map.of("filas", sesionHistorialService.reconstruir());
+    }
+
     @DeleteMapping("/{id}")
     public String delete(@PathVariable Long id) {
-        sesionRepository.deleteById(id);
+        sesionRepository.findById(id).ifPresent(sesionHistorialService::eliminar);
         return "Sesion eliminada con id " + id;
     }
 }
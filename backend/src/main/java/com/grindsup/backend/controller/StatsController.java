@@ -2,15 +2,33 @@
 package com.grindsup.backend.controller;
 
 import com.grindsup.backend.DTO.AltasBajasMesDTO;
+import com.grindsup.backend.DTO.AlumnosResumenDTO;
 import com.grindsup.backend.DTO.RatingBucketDTO;
 import com.grindsup.backend.DTO.RatingMesDTO;
+import com.grindsup.backend.DTO.RetencionCohortesDTO;
+import com.grindsup.backend.service.AlumnoResumenService;
+import com.grindsup.backend.service.Granularidad;
+import com.grindsup.backend.service.RatingResumenService;
+import com.grindsup.backend.service.RetencionCohortesService;
+import com.grindsup.backend.service.StatsCache;
 import com.grindsup.backend.service.StatsService;
+import com.grindsup.backend.util.TablaWriter;
+import com.grindsup.backend.util.TablaWriter.Formato;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/stats")
@@ -18,33 +36,97 @@ import java.util.List;
 public class StatsController {
 
     private final StatsService statsService;
+    private final AlumnoResumenService alumnoResumenService;
+    private final RatingResumenService ratingResumenService;
+    private final StatsCache statsCache;
+    private final RetencionCohortesService retencionCohortesService;
 
-    public StatsController(StatsService statsService) {
+    public StatsController(StatsService statsService,
+                           AlumnoResumenService alumnoResumenService,
+                           RatingResumenService ratingResumenService,
+                           StatsCache statsCache,
+                           RetencionCohortesService retencionCohortesService) {
         this.statsService = statsService;
+        this.alumnoResumenService = alumnoResumenService;
+        this.ratingResumenService = ratingResumenService;
+        this.statsCache = statsCache;
+        this.retencionCohortesService = retencionCohortesService;
     }
 
+    // Las series aceptan ?granularidad=dia|semana|mes|trimestre (default mes);
+    // los períodos se arman en la zona horaria del entrenador.
+
     /* ===== Alumnos ===== */
 
     @GetMapping("/alumnos/altas-bajas")
     public List<AltasBajasMesDTO> altasBajas(
             @RequestParam Long entrenadorId,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "mes") String granularidad
     ) {
         LocalDate fromDate = from.atDay(1);
         LocalDate toDateExcl = to.plusMonths(1).atDay(1); // 'to' inclusivo
-        return statsService.altasBajasPorMes(entrenadorId, fromDate, toDateExcl);
+        return statsService.altasBajasPorPeriodo(entrenadorId, granularidad(granularidad), fromDate, toDateExcl);
     }
 
     @GetMapping("/alumnos/activos-fin-de-mes")
     public List<AltasBajasMesDTO> activosFinDeMes(
             @RequestParam Long entrenadorId,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "mes") String granularidad
     ) {
         LocalDate fromDate = from.atDay(1);
         LocalDate toDateExcl = to.plusMonths(1).atDay(1);
-        return statsService.activosFinDeMes(entrenadorId, fromDate, toDateExcl);
+        return statsService.activosFinDePeriodo(entrenadorId, granularidad(granularidad), fromDate, toDateExcl);
+    }
+
+    // Altas, bajas y activos a fin de mes en una sola respuesta (todos los meses del rango)
+    // GET /api/stats/alumnos/resumen?entrenadorId=...&from=YYYY-MM&to=YYYY-MM
+    @GetMapping("/alumnos/resumen")
+    public AlumnosResumenDTO resumenAlumnos(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "mes") String granularidad
+    ) {
+        LocalDate fromDate = from.atDay(1);
+        LocalDate toDateExcl = to.plusMonths(1).atDay(1);
+        return statsService.resumenAlumnosDTO(entrenadorId, granularidad(granularidad), fromDate, toDateExcl);
+    }
+
+    // Retención por cohorte de alta: activos al cierre del mes +k de cada cohorte
+    // GET /api/stats/alumnos/retencion?entrenadorId=...&from=YYYY-MM&to=YYYY-MM[&meses=1,3,6,12]
+    @GetMapping("/alumnos/retencion")
+    public RetencionCohortesDTO retencionCohortes(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) List<Integer> meses
+    ) {
+        try {
+            return retencionCohortesService.calcular(entrenadorId, from.atDay(1), to.plusMonths(1).atDay(1), meses);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Reconstruye el rollup mensual desde la tabla alumnos (uno o todos los entrenadores)
+    // POST /api/stats/alumnos/rollup/reconstruir[?entrenadorId=...]
+    // Sin entrenadorId reescribe el rollup de todos: solo admin
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'ADMIN')")
+    @PostMapping("/alumnos/rollup/reconstruir")
+    public Map<String, Object> reconstruirRollupAlumnos(@RequestParam(required = false) Long entrenadorId) {
+        // La reconstrucción escribe el rollup con SQL nativo: invalidar a mano (ya commiteado)
+        if (entrenadorId != null) {
+            alumnoResumenService.reconstruir(entrenadorId);
+            statsCache.invalidarEntrenador(entrenadorId);
+            return Map.of("entrenadores", 1);
+        }
+        int n = alumnoResumenService.reconstruirTodo();
+        statsCache.invalidarTodo();
+        return Map.of("entrenadores", n);
     }
 
     /* ===== Planes – Ratings ===== */
@@ -55,11 +137,12 @@ public class StatsController {
     public List<RatingMesDTO> planesRatingMensual(
             @RequestParam Long entrenadorId,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "mes") String granularidad
     ) {
         LocalDate fromDate = from.atDay(1);
         LocalDate toDateExcl = to.plusMonths(1).atDay(1);
-        return statsService.planesRatingMensual(entrenadorId, fromDate, toDateExcl);
+        return statsService.planesRating(entrenadorId, granularidad(granularidad), fromDate, toDateExcl);
     }
 
     // GET /api/stats/planes/rating-distribucion?entrenadorId=...&from=YYYY-MM&to=YYYY-MM
@@ -73,4 +156,107 @@ public class StatsController {
         LocalDate toDateExcl = to.plusMonths(1).atDay(1);
         return statsService.planesRatingDistribucion(entrenadorId, fromDate, toDateExcl);
     }
+
+    // Reconstruye el rollup mensual de ratings desde plan_evaluacion (uno o todos los entrenadores)
+    // POST /api/stats/planes/rollup/reconstruir[?entrenadorId=...]
+    // Sin entrenadorId reescribe el rollup de todos: solo admin
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'ADMIN')")
+    @PostMapping("/planes/rollup/reconstruir")
+    public Map<String, Object> reconstruirRollupRatings(@RequestParam(required = false) Long entrenadorId) {
+        // La reconstrucción escribe el rollup con SQL nativo: invalidar a mano (ya commiteado)
+        if (entrenadorId != null) {
+            ratingResumenService.reconstruir(entrenadorId);
+            statsCache.invalidarEntrenador(entrenadorId);
+            return Map.of("entrenadores", 1);
+        }
+        int n = ratingResumenService.reconstruirTodo();
+        statsCache.invalidarTodo();
+        return Map.of("entrenadores", n);
+    }
+
+    /* ===== Exportaciones CSV / XLSX (streaming) ===== */
+
+    // GET /api/stats/alumnos/altas-bajas/export?entrenadorId=...&from=YYYY-MM&to=YYYY-MM&formato=csv|xlsx
+    @GetMapping("/alumnos/altas-bajas/export")
+    public ResponseEntity<StreamingResponseBody> exportarAltasBajas(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = "mes") String granularidad
+    ) {
+        return exportar("altas_bajas", entrenadorId, from, to, formato,
+                w -> statsService.exportarAltasBajas(entrenadorId, granularidad(granularidad), from.atDay(1), to.plusMonths(1).atDay(1), w));
+    }
+
+    @GetMapping("/alumnos/activos-fin-de-mes/export")
+    public ResponseEntity<StreamingResponseBody> exportarActivosFinDeMes(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = "mes") String granularidad
+    ) {
+        return exportar("activos_fin_de_mes", entrenadorId, from, to, formato,
+                w -> statsService.exportarActivosFinDePeriodo(entrenadorId, granularidad(granularidad), from.atDay(1), to.plusMonths(1).atDay(1), w));
+    }
+
+    @GetMapping("/planes/rating-mensual/export")
+    public ResponseEntity<StreamingResponseBody> exportarPlanesRatingMensual(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = "mes") String granularidad
+    ) {
+        return exportar("rating_mensual", entrenadorId, from, to, formato,
+                w -> statsService.exportarPlanesRating(entrenadorId, granularidad(granularidad), from.atDay(1), to.plusMonths(1).atDay(1), w));
+    }
+
+    @GetMapping("/planes/rating-distribucion/export")
+    public ResponseEntity<StreamingResponseBody> exportarPlanesRatingDistribucion(
+            @RequestParam Long entrenadorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(defaultValue = "csv") String formato
+    ) {
+        return exportar("rating_distribucion", entrenadorId, from, to, formato,
+                w -> statsService.exportarPlanesRatingDistribucion(entrenadorId, from.atDay(1), to.plusMonths(1).atDay(1), w));
+    }
+
+    private static Granularidad granularidad(String valor) {
+        try {
+            return Granularidad.parse(valor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Exportacion {
+        void escribir(TablaWriter writer) throws IOException;
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportar(String nombre, Long entrenadorId,
+                                                           YearMonth from, YearMonth to,
+                                                           String formato, Exportacion exportacion) {
+        Formato f;
+        try {
+            f = Formato.parse(formato);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + formato);
+        }
+
+        StreamingResponseBody body = out -> {
+            try (TablaWriter w = TablaWriter.de(f, out, nombre)) {
+                exportacion.escribir(w);
+            }
+        };
+
+        String fileName = String.format("%s_%d_%s_%s.%s", nombre, entrenadorId, from, to, f.getExtension());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(MediaType.parseMediaType(f.getContentType()))
+                .body(body);
+    }
 }
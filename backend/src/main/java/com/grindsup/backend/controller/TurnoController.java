@@ -3,10 +3,13 @@ package com.grindsup.backend.controller;
 import com.grindsup.backend.DTO.AlumnoMinDTO;
 import com.grindsup.backend.DTO.TurnoRequestDTO;
 import com.grindsup.backend.DTO.TurnoResponseDTO;
+import com.grindsup.backend.DTO.TurnosPaginaDTO;
 import com.grindsup.backend.service.TurnoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -16,25 +19,36 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/turnos")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = TurnoController.HEADER_SIGUIENTE)
 public class TurnoController {
 
+    // Cursor de la página siguiente; si no viene, no hay más turnos en la ventana
+    static final String HEADER_SIGUIENTE = "X-Next-Cursor";
+
     @Autowired
     private TurnoService turnoService;
 
-    // ========= LISTA POR ENTRENADOR (con filtros opcionales) =========
-    // Ej: /api/turnos/entrenador/3?desde=2025-10-01&hasta=2025-10-31&tipo=grupal
+    // ========= LISTA POR ENTRENADOR (con filtros opcionales, paginada) =========
+    // Ej: /api/turnos/entrenador/3?desde=2025-10-01&hasta=2025-10-31&tipo=grupal&limite=200
+    // Sin desde / hasta usa la ventana por defecto (grindsup.turnos.listado.*).
+    // Página siguiente: repetir con cursor = header X-Next-Cursor.
     @GetMapping("/entrenador/{entrenadorId}")
-    public List<TurnoResponseDTO> listarPorEntrenador(
+    public ResponseEntity<List<TurnoResponseDTO>> listarPorEntrenador(
             @PathVariable Long entrenadorId,
             @RequestParam(required = false) String desde,
             @RequestParam(required = false) String hasta,
-            @RequestParam(required = false) String tipo
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite
     ) {
         OffsetDateTime d = parseStart(desde);
         OffsetDateTime h = parseEnd(hasta);
         String t = (tipo == null || tipo.isBlank() || "todos".equalsIgnoreCase(tipo)) ? null : tipo.trim();
-        return turnoService.listarPorEntrenador(entrenadorId, d, h, t);
+        try {
+            return respuestaPaginada(turnoService.listarPorEntrenador(entrenadorId, d, h, t, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     // ========= CRUD: CREAR TURNO =========
@@ -60,9 +74,19 @@ public class TurnoController {
         return ResponseEntity.ok(turnoService.asignarAlumnos(turnoId, alumnosIds, resolvedUserId));
     }
 
+    // ========= LISTA GENERAL (ventana de fechas + cursor, igual que por entrenador) =========
     @GetMapping
-    public List<TurnoResponseDTO> getAll() {
-        return turnoService.getAllTurnos();
+    public ResponseEntity<List<TurnoResponseDTO>> getAll(
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite
+    ) {
+        try {
+            return respuestaPaginada(turnoService.getAllTurnos(parseStart(desde), parseEnd(hasta), cursor, limite));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -124,6 +148,16 @@ public class TurnoController {
     // -------- HELPERS FECHAS Y USER ID --------
     // ========================================================
     
+    // El cuerpo sigue siendo el array de turnos (compatible con el front); el
+    // cursor viaja en el header. Jackson escribe la página directo a la respuesta.
+    private ResponseEntity<List<TurnoResponseDTO>> respuestaPaginada(TurnosPaginaDTO pagina) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (pagina.siguiente() != null) {
+            ok.header(HEADER_SIGUIENTE, pagina.siguiente());
+        }
+        return ok.body(pagina.turnos());
+    }
+
     // Método para resolver el userId (prioriza Header sobre Query Param)
     private String resolveUserId(String headerUserId, String paramUserId) {
         if (headerUserId != null && !headerUserId.isBlank()) {
@@ -15,6 +15,7 @@ import com.grindsup.backend.repository.SesionRepository;
 import com.grindsup.backend.repository.UsuarioRepository;
 import com.grindsup.backend.repository.EntrenadorRepository; // <--- NUEVO
 import com.grindsup.backend.security.JwtService;
+import com.grindsup.backend.service.SesionHistorialService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,6 +38,7 @@ public class UsuarioController {
     @Autowired private RolRepository rolRepository;
     @Autowired private EstadoRepository estadoRepository;
     @Autowired private SesionRepository sesionRepository;
+    @Autowired private SesionHistorialService sesionHistorialService;
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private JwtService jwtService;
 
@@ -212,13 +214,8 @@ public class UsuarioController {
         // 🔥 Asegurar que este usuario tenga su entrenador asociado (si no es admin)
         ensureEntrenadorForUsuario(usuario);
 
-        // Crear sesión (histórico)
-        Sesion sesion = new Sesion();
-        sesion.setUsuario(usuario);
-        sesion.setInicio(OffsetDateTime.now());
-        sesion.setCreated_at(OffsetDateTime.now());
-        sesion.setUpdated_at(OffsetDateTime.now());
-        sesionRepository.save(sesion);
+        // Crear sesión (histórico + resumen diario)
+        Sesion sesion = sesionHistorialService.registrarInicio(usuario);
 
         // --- GENERAR TOKEN JWT ---
         Map<String, Object> claims = Map.of(
@@ -0,0 +1,51 @@
+package com.grindsup.backend.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener JPA que traduce altas/cambios/bajas de Alumno,
+ * PlanEntrenamiento y PlanEvaluacion en {@link DatosEntrenadorModificadosEvent}.
+ *
+ * Hibernate lo instancia a través del contenedor de Spring, por eso puede
+ * recibir el publisher por constructor.
+ */
+public class DatosEntrenadorEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public DatosEntrenadorEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        DatosEntrenadorModificadosEvent event = DatosEntrenadorModificadosEvent.from(entity);
+        if (event == null) return;
+        publicarAlCommit(publisher, event);
+    }
+
+    /**
+     * Publica el evento cuando el cambio es visible para otras transacciones.
+     * También lo usan las escrituras nativas que no pasan por este listener.
+     */
+    public static void publicarAlCommit(ApplicationEventPublisher publisher, DatosEntrenadorModificadosEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publisher.publishEvent(event);
+                }
+            });
+        } else {
+            publisher.publishEvent(event);
+        }
+    }
+}
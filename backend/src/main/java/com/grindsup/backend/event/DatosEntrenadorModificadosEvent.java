@@ -0,0 +1,36 @@
+package com.grindsup.backend.event;
+
+import com.grindsup.backend.model.Alumno;
+import com.grindsup.backend.model.PlanEntrenamiento;
+import com.grindsup.backend.model.PlanEvaluacion;
+
+/**
+ * Evento de dominio: cambió un dato que alimenta estadísticas y reportes
+ * de un entrenador (alumnos, planes o evaluaciones).
+ *
+ * Se publica después del commit; {@code entrenadorId} o {@code alumnoId}
+ * pueden venir en null si la entidad no los tiene asignados.
+ */
+public record DatosEntrenadorModificadosEvent(Origen origen, Long entrenadorId, Long alumnoId) {
+
+    public enum Origen { ALUMNO, PLAN, EVALUACION }
+
+    /** Arma el evento para una entidad conocida, o null si no aplica. */
+    public static DatosEntrenadorModificadosEvent from(Object entity) {
+        if (entity instanceof Alumno a) {
+            Long ent = a.getEntrenador() != null ? a.getEntrenador().getIdEntrenador() : null;
+            return new DatosEntrenadorModificadosEvent(Origen.ALUMNO, ent, a.getIdAlumno());
+        }
+        if (entity instanceof PlanEntrenamiento p) {
+            Alumno a = p.getAlumno();
+            Long ent = p.getEntrenador() != null
+                    ? p.getEntrenador().getIdEntrenador()
+                    : (a != null && a.getEntrenador() != null ? a.getEntrenador().getIdEntrenador() : null);
+            return new DatosEntrenadorModificadosEvent(Origen.PLAN, ent, a != null ? a.getIdAlumno() : null);
+        }
+        if (entity instanceof PlanEvaluacion e) {
+            return new DatosEntrenadorModificadosEvent(Origen.EVALUACION, e.getId_entrenador(), e.getId_alumno());
+        }
+        return null;
+    }
+}
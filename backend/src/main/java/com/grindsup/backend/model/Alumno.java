@@ -1,5 +1,6 @@
 package com.grindsup.backend.model;
 
+import com.grindsup.backend.event.DatosEntrenadorEntityListener;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(DatosEntrenadorEntityListener.class)
 @Table(
     name = "alumnos",
     uniqueConstraints = {
@@ -0,0 +1,51 @@
+package com.grindsup.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Rollup mensual de alumnos por entrenador: altas y bajas del mes.
+ * Los activos a fin de mes salen de la suma acumulada (altas - bajas).
+ *
+ * Se mantiene incrementalmente desde AlumnoController (ver
+ * AlumnoResumenService) y se puede reconstruir desde la tabla alumnos.
+ */
+@Entity
+@Table(
+        name = "alumnos_mes_resumen",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"id_entrenador", "mes"})
+)
+public class AlumnoMesResumen {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long id;
+
+    @Column(name = "id_entrenador", nullable = false)
+    private Long entrenadorId;
+
+    // "YYYY-MM" (ordena igual como texto que como fecha)
+    @Column(name = "mes", length = 7, nullable = false)
+    private String mes;
+
+    @Column(nullable = false)
+    private long altas;
+
+    @Column(nullable = false)
+    private long bajas;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getEntrenadorId() { return entrenadorId; }
+    public void setEntrenadorId(Long entrenadorId) { this.entrenadorId = entrenadorId; }
+
+    public String getMes() { return mes; }
+    public void setMes(String mes) { this.mes = mes; }
+
+    public long getAltas() { return altas; }
+    public void setAltas(long altas) { this.altas = altas; }
+
+    public long getBajas() { return bajas; }
+    public void setBajas(long bajas) { this.bajas = bajas; }
+}
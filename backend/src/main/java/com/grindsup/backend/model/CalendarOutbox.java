@@ -0,0 +1,92 @@
+package com.grindsup.backend.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Cambio de un turno pendiente de reflejar en Google Calendar.
+ *
+ * Lo escribe TurnoService en la misma transacción que el turno y lo
+ * consume CalendarOutboxService: al terminar bien se borra; si falla se
+ * reintenta con backoff hasta pasar a FALLIDO.
+ */
+@Entity
+@Table(name = "calendar_outbox")
+public class CalendarOutbox {
+
+    public static final String CREAR = "CREAR";
+    public static final String ACTUALIZAR = "ACTUALIZAR";
+    public static final String BORRAR = "BORRAR";
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_outbox")
+    private Long id;
+
+    @Column(name = "id_turno", nullable = false)
+    private Long idTurno;
+
+    @Column(nullable = false, length = 16)
+    private String operacion;
+
+    @Column(name = "user_id", length = 64)
+    private String userId;
+
+    // Solo en BORRAR: el evento a eliminar (el turno puede ya no existir)
+    @Column(name = "google_event_id")
+    private String googleEventId;
+
+    @Column(nullable = false, length = 16)
+    private String estado = PENDIENTE;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private OffsetDateTime proximoIntento;
+
+    @Column(length = 36)
+    private String lote;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getIdTurno() { return idTurno; }
+    public void setIdTurno(Long idTurno) { this.idTurno = idTurno; }
+
+    public String getOperacion() { return operacion; }
+    public void setOperacion(String operacion) { this.operacion = operacion; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getGoogleEventId() { return googleEventId; }
+    public void setGoogleEventId(String googleEventId) { this.googleEventId = googleEventId; }
+
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+
+    public int getIntentos() { return intentos; }
+    public void setIntentos(int intentos) { this.intentos = intentos; }
+
+    public OffsetDateTime getProximoIntento() { return proximoIntento; }
+    public void setProximoIntento(OffsetDateTime proximoIntento) { this.proximoIntento = proximoIntento; }
+
+    public String getLote() { return lote; }
+    public void setLote(String lote) { this.lote = lote; }
+
+    public String getUltimoError() { return ultimoError; }
+    public void setUltimoError(String ultimoError) { this.ultimoError = ultimoError; }
+
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+}
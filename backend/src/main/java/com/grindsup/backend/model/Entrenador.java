@@ -36,6 +36,10 @@ public class Entrenador {
     @Column(name = "deleted_at")
     private OffsetDateTime deleted_at;
 
+    // Zona IANA (ej. "America/Argentina/Cordoba") para agrupar sus estadísticas; null = la de la app
+    @Column(name = "zona_horaria", length = 64)
+    private String zonaHoraria;
+
     // Getters y Setters
     public Long getIdEntrenador() {
         return idEntrenador;
@@ -100,4 +104,12 @@ public class Entrenador {
     public void setDeleted_at(OffsetDateTime deleted_at) {
         this.deleted_at = deleted_at;
     }
-}
\ No newline at end of file
+
+    public String getZonaHoraria() {
+        return zonaHoraria;
+    }
+
+    public void setZonaHoraria(String zonaHoraria) {
+        this.zonaHoraria = zonaHoraria;
+    }
+}
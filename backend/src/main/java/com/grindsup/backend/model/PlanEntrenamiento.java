@@ -1,10 +1,12 @@
 package com.grindsup.backend.model;
 
+import com.grindsup.backend.event.DatosEntrenadorEntityListener;
 import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(DatosEntrenadorEntityListener.class)
 @Table(name = "planes_entrenamiento")
 public class PlanEntrenamiento {
 
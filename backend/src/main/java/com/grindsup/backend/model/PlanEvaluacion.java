@@ -1,9 +1,11 @@
 package com.grindsup.backend.model;
 
+import com.grindsup.backend.event.DatosEntrenadorEntityListener;
 import jakarta.persistence.*;
 import java.util.Date;
 
 @Entity
+@EntityListeners(DatosEntrenadorEntityListener.class)
 @Table(name = "plan_evaluacion")
 public class PlanEvaluacion {
 
@@ -0,0 +1,94 @@
+package com.grindsup.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Rollup mensual de evaluaciones de planes por entrenador: suma y cantidad
+ * de scores (para el promedio) y el histograma 0..5.
+ *
+ * Se mantiene incrementalmente desde PlanEvaluacionController (ver
+ * RatingResumenService) y se puede reconstruir desde plan_evaluacion.
+ */
+@Entity
+@Table(
+        name = "plan_rating_mes_resumen",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"id_entrenador", "mes"})
+)
+public class PlanRatingMesResumen {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long id;
+
+    @Column(name = "id_entrenador", nullable = false)
+    private Long entrenadorId;
+
+    // "YYYY-MM"
+    @Column(name = "mes", length = 7, nullable = false)
+    private String mes;
+
+    @Column(nullable = false)
+    private long suma;
+
+    @Column(nullable = false)
+    private long cantidad;
+
+    // Histograma: cantidad de evaluaciones con cada score
+    @Column(nullable = false) private long s0;
+    @Column(nullable = false) private long s1;
+    @Column(nullable = false) private long s2;
+    @Column(nullable = false) private long s3;
+    @Column(nullable = false) private long s4;
+    @Column(nullable = false) private long s5;
+
+    public double promedio() {
+        return cantidad == 0 ? 0.0 : (double) suma / cantidad;
+    }
+
+    /** Cantidad de evaluaciones con el score dado (0..5). */
+    public long conScore(int score) {
+        return switch (score) {
+            case 0 -> s0;
+            case 1 -> s1;
+            case 2 -> s2;
+            case 3 -> s3;
+            case 4 -> s4;
+            case 5 -> s5;
+            default -> 0L;
+        };
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getEntrenadorId() { return entrenadorId; }
+    public void setEntrenadorId(Long entrenadorId) { this.entrenadorId = entrenadorId; }
+
+    public String getMes() { return mes; }
+    public void setMes(String mes) { this.mes = mes; }
+
+    public long getSuma() { return suma; }
+    public void setSuma(long suma) { this.suma = suma; }
+
+    public long getCantidad() { return cantidad; }
+    public void setCantidad(long cantidad) { this.cantidad = cantidad; }
+
+    public long getS0() { return s0; }
+    public void setS0(long s0) { this.s0 = s0; }
+
+    public long getS1() { return s1; }
+    public void setS1(long s1) { this.s1 = s1; }
+
+    public long getS2() { return s2; }
+    public void setS2(long s2) { this.s2 = s2; }
+
+    public long getS3() { return s3; }
+    public void setS3(long s3) { this.s3 = s3; }
+
+    public long getS4() { return s4; }
+    public void setS4(long s4) { this.s4 = s4; }
+
+    public long getS5() { return s5; }
+    public void setS5(long s5) { this.s5 = s5; }
+}
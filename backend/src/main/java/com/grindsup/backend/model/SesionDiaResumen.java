@@ -0,0 +1,58 @@
+package com.grindsup.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Rollup diario de sesiones por usuario: cantidad de logins y primer /
+ * último acceso del día.
+ *
+ * Se mantiene desde SesionHistorialService en cada login y sobrevive al
+ * archivado de las filas crudas de sesiones.
+ */
+@Entity
+@Table(
+        name = "sesiones_dia_resumen",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"id_usuario", "dia"})
+)
+public class SesionDiaResumen {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private long cantidad;
+
+    @Column(name = "primer_acceso", nullable = false)
+    private OffsetDateTime primerAcceso;
+
+    @Column(name = "ultimo_acceso", nullable = false)
+    private OffsetDateTime ultimoAcceso;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
+    public LocalDate getDia() { return dia; }
+    public void setDia(LocalDate dia) { this.dia = dia; }
+
+    public long getCantidad() { return cantidad; }
+    public void setCantidad(long cantidad) { this.cantidad = cantidad; }
+
+    public OffsetDateTime getPrimerAcceso() { return primerAcceso; }
+    public void setPrimerAcceso(OffsetDateTime primerAcceso) { this.primerAcceso = primerAcceso; }
+
+    public OffsetDateTime getUltimoAcceso() { return ultimoAcceso; }
+    public void setUltimoAcceso(OffsetDateTime ultimoAcceso) { this.ultimoAcceso = ultimoAcceso; }
+}
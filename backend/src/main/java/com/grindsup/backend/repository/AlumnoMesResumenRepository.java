@@ -0,0 +1,59 @@
+package com.grindsup.backend.repository;
+
+import com.grindsup.backend.model.AlumnoMesResumen;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AlumnoMesResumenRepository extends JpaRepository<AlumnoMesResumen, Long> {
+
+    // Suma (o crea) la fila del mes en una sola sentencia
+    @Modifying
+    @Query(value = """
+          INSERT INTO alumnos_mes_resumen (id_entrenador, mes, altas, bajas)
+          VALUES (:entrenadorId, :mes, :altas, :bajas)
+          ON DUPLICATE KEY UPDATE altas = altas + :altas, bajas = bajas + :bajas
+          """, nativeQuery = true)
+    int sumar(@Param("entrenadorId") Long entrenadorId,
+              @Param("mes") String mes,
+              @Param("altas") long altas,
+              @Param("bajas") long bajas);
+
+    // Meses del rango [desde, hastaExcl) ("YYYY-MM")
+    @Query("""
+        select r from AlumnoMesResumen r
+        where r.entrenadorId = :entrenadorId
+          and r.mes >= :desde and r.mes < :hastaExcl
+        order by r.mes
+        """)
+    List<AlumnoMesResumen> findRango(@Param("entrenadorId") Long entrenadorId,
+                                     @Param("desde") String desde,
+                                     @Param("hastaExcl") String hastaExcl);
+
+    // Activos antes del mes (acumulado de altas - bajas)
+    @Query("""
+        select coalesce(sum(r.altas - r.bajas), 0) from AlumnoMesResumen r
+        where r.entrenadorId = :entrenadorId and r.mes < :mes
+        """)
+    Long netoAntesDe(@Param("entrenadorId") Long entrenadorId, @Param("mes") String mes);
+
+    @Modifying
+    @Query("delete from AlumnoMesResumen r where r.entrenadorId = :entrenadorId")
+    int deleteByEntrenador(@Param("entrenadorId") Long entrenadorId);
+
+    interface NetoPorEntrenador {
+        Long getIdEntrenador();
+        Long getActivos();
+    }
+
+    // Activos actuales (altas - bajas acumuladas) de todos los entrenadores en una consulta
+    @Query("""
+        select r.entrenadorId as idEntrenador, sum(r.altas - r.bajas) as activos
+        from AlumnoMesResumen r
+        group by r.entrenadorId
+        """)
+    List<NetoPorEntrenador> netoPorEntrenador();
+}
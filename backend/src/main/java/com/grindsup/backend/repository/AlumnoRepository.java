@@ -4,19 +4,17 @@ import com.grindsup.backend.model.Alumno;
 import com.grindsup.backend.DTO.AlumnoListDTO; // <-- ¡Nueva Importación!
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AlumnoRepository extends JpaRepository<Alumno, Long> {
+import jakarta.persistence.QueryHint;
 
-    // ---- Proyección para métricas (altas/bajas por mes)
-    interface MesCount {
-        String getMonth();
-        Long getCnt();
-    }
+public interface AlumnoRepository extends JpaRepository<Alumno, Long> {
 
     // Solo activos (sin baja lógica)
     List<Alumno> findByDeletedAtIsNull();
@@ -57,39 +55,85 @@ public interface AlumnoRepository extends JpaRepository<Alumno, Long> {
         """)
     List<AlumnoListDTO> findActivosDTOByEntrenador(@Param("entrenadorId") Long entrenadorId);
 
-    // ====== MÉTRICAS: ALTAS / BAJAS POR MES (native SQL, sin migraciones) ======
+    // Solo el id del entrenador (para la cuota por entrenador del render de reportes)
+    @Query("select a.entrenador.idEntrenador from Alumno a where a.idAlumno = :idAlumno")
+    Long findEntrenadorIdByAlumnoId(@Param("idAlumno") Long idAlumno);
+
+    // ====== EVENTOS CRUDOS PARA LAS SERIES (BucketsTemporales) ======
+    // Una fila por alta (tipo 1) o baja (tipo 2) en [from, to), sin agrupar: el
+    // período lo arma el servicio. Rangos semiabiertos sobre columnas indexadas
+    // (ver V2__indices_consultas_frecuentes.sql).
+    // Sale del estado actual del alumno: alta = created_at; baja = deleted_at o,
+    // si está INACTIVO (id 2) sin baja lógica, updated_at. El rollup mensual
+    // (AlumnoResumenService) aplica el mismo criterio.
+    // ⚠️ Si INACTIVO no es 2 en tu catálogo, cambiá ese valor.
+    interface EventoAlumno {
+        Integer getTipo();
+        Date getFecha();
+    }
 
-    // ALTAS por mes (usando created_at)
     @Query(value = """
-          SELECT DATE_FORMAT(a.created_at, '%Y-%m') AS month,
-                  COUNT(*) AS cnt
+          SELECT 1 AS tipo, a.created_at AS fecha
+          FROM alumnos a
+          WHERE a.id_entrenador = :entrenadorId
+            AND a.created_at >= :from AND a.created_at < :to
+          UNION ALL
+          SELECT 2 AS tipo, a.deleted_at AS fecha
+          FROM alumnos a
+          WHERE a.id_entrenador = :entrenadorId
+            AND a.deleted_at >= :from AND a.deleted_at < :to
+          UNION ALL
+          SELECT 2 AS tipo, a.updated_at AS fecha
           FROM alumnos a
           WHERE a.id_entrenador = :entrenadorId
-            AND a.created_at BETWEEN :from AND :to
-          GROUP BY month
-          ORDER BY month
+            AND a.deleted_at IS NULL
+            AND a.id_estado = 2
+            AND a.updated_at >= :from AND a.updated_at < :to
           """, nativeQuery = true)
-    List<MesCount> altasPorMes(
+    List<EventoAlumno> eventosEnRango(
         @Param("entrenadorId") Long entrenadorId,
         @Param("from") Date from,
         @Param("to")   Date to
     );
 
-    // BAJAS por mes (aprox): usa deleted_at o cambio a estado INACTIVO en el rango
-    // ⚠️ Si INACTIVO no es 2 en tu catálogo, cambiá ese valor.
+    // Altas menos bajas anteriores al corte (el arrastre de activos de las series)
+    @Query(value = """
+          SELECT (SELECT COUNT(*) FROM alumnos a
+                  WHERE a.id_entrenador = :entrenadorId AND a.created_at < :corte)
+               - (SELECT COUNT(*) FROM alumnos a
+                  WHERE a.id_entrenador = :entrenadorId AND a.deleted_at < :corte)
+               - (SELECT COUNT(*) FROM alumnos a
+                  WHERE a.id_entrenador = :entrenadorId AND a.deleted_at IS NULL
+                    AND a.id_estado = 2 AND a.updated_at < :corte)
+          """, nativeQuery = true)
+    Long netoAntesDe(
+        @Param("entrenadorId") Long entrenadorId,
+        @Param("corte") Date corte
+    );
+
+    // ====== COHORTES: alta y baja de cada alumno, en streaming ======
+    // Una fila por alumno dado de alta en [from, to) (range scan sobre
+    // idx_alumnos_entrenador_created). Baja = baja lógica o pase a INACTIVO.
+    // Leer dentro de una transacción y cerrar el Stream.
+    // Fetch size Integer.MIN_VALUE: Connector/J trae las filas de a una solo
+    // para esta consulta (sin useCursorFetch en toda la conexión); mientras el
+    // Stream está abierto la conexión no admite otra consulta.
+    interface AltaBaja {
+        Date getAlta();
+        Date getBaja();
+    }
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
     @Query(value = """
-          SELECT DATE_FORMAT(COALESCE(a.deleted_at, a.updated_at), '%Y-%m') AS month,
-                  COUNT(*) AS cnt
+          SELECT a.created_at AS alta,
+                 CASE WHEN a.deleted_at IS NOT NULL THEN a.deleted_at
+                      WHEN a.id_estado = 2 THEN a.updated_at
+                 END AS baja
           FROM alumnos a
           WHERE a.id_entrenador = :entrenadorId
-            AND (
-                  (a.deleted_at IS NOT NULL AND a.deleted_at BETWEEN :from AND :to)
-                  OR (a.id_estado = 2 AND a.updated_at BETWEEN :from AND :to)
-                )
-          GROUP BY month
-          ORDER BY month
+            AND a.created_at >= :from AND a.created_at < :to
           """, nativeQuery = true)
-    List<MesCount> bajasPorMes(
+    Stream<AltaBaja> streamAltasYBajas(
         @Param("entrenadorId") Long entrenadorId,
         @Param("from") Date from,
         @Param("to")   Date to
@@ -0,0 +1,56 @@
+package com.grindsup.backend.repository;
+
+import com.grindsup.backend.model.CalendarOutbox;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CalendarOutboxRepository extends JpaRepository<CalendarOutbox, Long> {
+
+    // Turnos con algo vencido y sin otro lote en vuelo (así un CREAR en curso
+    // no se cruza con un ACTUALIZAR / BORRAR del mismo turno). Los más viejos primero.
+    @Query("""
+        select o.idTurno
+        from CalendarOutbox o
+        where o.estado = 'PENDIENTE'
+          and o.proximoIntento <= :ahora
+          and not exists (
+              select 1 from CalendarOutbox x
+              where x.idTurno = o.idTurno
+                and x.estado = 'PENDIENTE'
+                and x.lote is not null
+                and x.proximoIntento > :ahora)
+        group by o.idTurno
+        order by min(o.proximoIntento)
+        """)
+    List<Long> turnosListos(@Param("ahora") OffsetDateTime ahora, Pageable pageable);
+
+    // Reclama todas las filas pendientes de esos turnos, vencidas o no (se
+    // coalescen en una sola llamada), salvo las que tienen un lease vigente.
+    // Otra instancia que llegue tarde actualiza 0 filas.
+    @Modifying
+    @Query("""
+        update CalendarOutbox o
+        set o.lote = :lote, o.proximoIntento = :lease
+        where o.estado = 'PENDIENTE'
+          and o.idTurno in :turnos
+          and (o.lote is null or o.proximoIntento <= :ahora)
+        """)
+    int reclamar(@Param("lote") String lote,
+                 @Param("lease") OffsetDateTime lease,
+                 @Param("ahora") OffsetDateTime ahora,
+                 @Param("turnos") Collection<Long> turnos);
+
+    @Query("select o from CalendarOutbox o where o.lote = :lote order by o.id")
+    List<CalendarOutbox> findByLote(@Param("lote") String lote);
+
+    @Modifying
+    @Query("delete from CalendarOutbox o where o.id in :ids")
+    int borrarPorIds(@Param("ids") Collection<Long> ids);
+}
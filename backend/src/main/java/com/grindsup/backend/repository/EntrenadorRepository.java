@@ -3,7 +3,11 @@ package com.grindsup.backend.repository;
 import com.grindsup.backend.model.Entrenador;
 import com.grindsup.backend.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface EntrenadorRepository extends JpaRepository<Entrenador, Long> {
@@ -13,4 +17,25 @@ public interface EntrenadorRepository extends JpaRepository<Entrenador, Long> {
 
     // (Opcional) si querés un exists también, usalo así:
     boolean existsByUsuario(Usuario usuario);
+
+    interface EntrenadorActivo {
+        Long getIdEntrenador();
+        Long getIdUsuario();
+        String getNombre();
+        String getApellido();
+        OffsetDateTime getCreatedAt();
+    }
+
+    // Entrenadores no eliminados con los datos del usuario, en una sola consulta (para reportes de admin)
+    @Query("""
+        select e.idEntrenador as idEntrenador, u.id_usuario as idUsuario,
+               u.nombre as nombre, u.apellido as apellido, e.created_at as createdAt
+        from Entrenador e left join e.usuario u
+        where e.deleted_at is null
+        """)
+    List<EntrenadorActivo> findActivosResumen();
+
+    // Solo la zona horaria (para las series de estadísticas)
+    @Query("select e.zonaHoraria from Entrenador e where e.idEntrenador = :id")
+    String findZonaHoraria(@Param("id") Long id);
 }
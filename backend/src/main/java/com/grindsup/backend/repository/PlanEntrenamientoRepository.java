@@ -11,6 +11,24 @@ import org.springframework.data.repository.query.Param;
 
 public interface PlanEntrenamientoRepository extends JpaRepository<PlanEntrenamiento, Long> {
 
+        // ---- Proyecciones para progreso: cantidad de planes por estado (y por alumno)
+        interface EstadoCount {
+                String getEstado();
+                Long getCnt();
+        }
+
+        interface EntrenadorEstadoCount {
+                Long getIdEntrenador();
+                String getEstado();
+                Long getCnt();
+        }
+
+        interface AlumnoEstadoCount {
+                Long getAlumnoId();
+                String getEstado();
+                Long getCnt();
+        }
+
         // 1. Consultas derivadas por Alumno y Estado
         List<PlanEntrenamiento> findByAlumno_IdAlumno(Long idAlumno);
 
@@ -51,4 +69,37 @@ public interface PlanEntrenamientoRepository extends JpaRepository<PlanEntrenami
                         "AND e.nombre <> 'CALIFICADO'")
         List<PlanEntrenamiento> findPlanesTerminandoHoyYPendientesDeCalificar(
                         @Param("hoy") LocalDate hoy);
-}
\ No newline at end of file
+
+        // 5. Progreso de TODOS los alumnos activos de un entrenador en una sola consulta
+        @Query("""
+                        SELECT a.idAlumno AS alumnoId, e.nombre AS estado, COUNT(p) AS cnt
+                        FROM PlanEntrenamiento p
+                        JOIN p.alumno a
+                        LEFT JOIN p.estado e
+                        WHERE a.entrenador.idEntrenador = :entrenadorId
+                          AND a.deletedAt IS NULL
+                        GROUP BY a.idAlumno, e.nombre
+                        """)
+        List<AlumnoEstadoCount> contarPorEstadoDeAlumnosDeEntrenador(@Param("entrenadorId") Long entrenadorId);
+
+        // 6. Progreso de un alumno: cantidad de planes por estado, sin cargar las entidades
+        @Query("""
+                        SELECT e.nombre AS estado, COUNT(p) AS cnt
+                        FROM PlanEntrenamiento p
+                        LEFT JOIN p.estado e
+                        WHERE p.alumno.idAlumno = :idAlumno
+                        GROUP BY e.nombre
+                        """)
+        List<EstadoCount> contarPorEstadoDeAlumno(@Param("idAlumno") Long idAlumno);
+
+        // 7. Planes por estado de los alumnos activos de TODOS los entrenadores (benchmark de admin)
+        @Query("""
+                        SELECT a.entrenador.idEntrenador AS idEntrenador, e.nombre AS estado, COUNT(p) AS cnt
+                        FROM PlanEntrenamiento p
+                        JOIN p.alumno a
+                        LEFT JOIN p.estado e
+                        WHERE a.deletedAt IS NULL
+                        GROUP BY a.entrenador.idEntrenador, e.nombre
+                        """)
+        List<EntrenadorEstadoCount> contarPorEstadoPorEntrenador();
+}
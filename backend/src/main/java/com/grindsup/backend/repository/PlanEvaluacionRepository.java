@@ -12,42 +12,44 @@ import java.util.List;
 
 public interface PlanEvaluacionRepository extends JpaRepository<PlanEvaluacion, Long> {
 
-    interface RatingMes {
-        String getMonth();
-        Double getAvg();
-        Long getCnt();
+    // Evaluación cruda para las series (BucketsTemporales)
+    interface EvaluacionScore {
+        Date getFecha();
+        Integer getScore();
     }
 
-    interface RatingBucket {
+    interface RatingMesScore {
+        String getMonth();
         Integer getScore();
         Long getCnt();
     }
 
+    // Un solo range scan sobre (id_entrenador, created_at); el período lo arma el servicio
     @Query(value = """
-        SELECT DATE_FORMAT(e.created_at, '%Y-%m') AS month,
-               AVG(e.score) AS avg,
-               COUNT(*)     AS cnt
+        SELECT e.created_at AS fecha, e.score AS score
         FROM plan_evaluacion e
         WHERE e.id_entrenador = :entrenadorId
-          AND e.created_at BETWEEN :from AND :to
-        GROUP BY month
-        ORDER BY month
+          AND e.created_at >= :from AND e.created_at < :to
+          AND e.score IS NOT NULL
         """, nativeQuery = true)
-    List<RatingMes> ratingPromedioMensual(@Param("entrenadorId") Long entrenadorId,
-                                          @Param("from") Date from,
-                                          @Param("to")   Date to);
+    List<EvaluacionScore> evaluacionesEnRango(@Param("entrenadorId") Long entrenadorId,
+                                              @Param("from") Date from,
+                                              @Param("to")   Date to);
 
+    // Para reconstruir plan_rating_mes_resumen: todo el historial por mes y score
     @Query(value = """
-        SELECT e.score AS score, COUNT(*) AS cnt
+        SELECT DATE_FORMAT(e.created_at, '%Y-%m') AS month,
+               e.score  AS score,
+               COUNT(*) AS cnt
         FROM plan_evaluacion e
         WHERE e.id_entrenador = :entrenadorId
-          AND e.created_at BETWEEN :from AND :to
-        GROUP BY e.score
-        ORDER BY e.score
+          AND e.score IS NOT NULL
+        GROUP BY month, e.score
         """, nativeQuery = true)
-    List<RatingBucket> ratingDistribucion(@Param("entrenadorId") Long entrenadorId,
-                                          @Param("from") Date from,
-                                          @Param("to")   Date to);
+    List<RatingMesScore> ratingPorMesYScore(@Param("entrenadorId") Long entrenadorId);
+
+    @Query(value = "SELECT DISTINCT id_entrenador FROM plan_evaluacion WHERE id_entrenador IS NOT NULL", nativeQuery = true)
+    List<Long> findEntrenadorIds();
 
     @Query(value = "SELECT COUNT(*) FROM plan_evaluacion WHERE id_plan = :planId", nativeQuery = true)
     Long countByPlan(@Param("planId") Long planId);
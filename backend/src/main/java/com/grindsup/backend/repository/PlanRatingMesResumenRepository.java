@@ -0,0 +1,67 @@
+package com.grindsup.backend.repository;
+
+import com.grindsup.backend.model.PlanRatingMesResumen;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface PlanRatingMesResumenRepository extends JpaRepository<PlanRatingMesResumen, Long> {
+
+    // Suma (o crea) la fila del mes: "cantidad" evaluaciones con ese score.
+    // El UPDATE repite los parámetros en vez de VALUES(col), deprecado en MySQL 8.0.20
+    @Modifying
+    @Query(value = """
+          INSERT INTO plan_rating_mes_resumen (id_entrenador, mes, suma, cantidad, s0, s1, s2, s3, s4, s5)
+          VALUES (:entrenadorId, :mes, :score * :cantidad, :cantidad,
+                  CASE WHEN :score = 0 THEN :cantidad ELSE 0 END,
+                  CASE WHEN :score = 1 THEN :cantidad ELSE 0 END,
+                  CASE WHEN :score = 2 THEN :cantidad ELSE 0 END,
+                  CASE WHEN :score = 3 THEN :cantidad ELSE 0 END,
+                  CASE WHEN :score = 4 THEN :cantidad ELSE 0 END,
+                  CASE WHEN :score = 5 THEN :cantidad ELSE 0 END)
+          ON DUPLICATE KEY UPDATE
+              suma = suma + :score * :cantidad, cantidad = cantidad + :cantidad,
+              s0 = s0 + CASE WHEN :score = 0 THEN :cantidad ELSE 0 END,
+              s1 = s1 + CASE WHEN :score = 1 THEN :cantidad ELSE 0 END,
+              s2 = s2 + CASE WHEN :score = 2 THEN :cantidad ELSE 0 END,
+              s3 = s3 + CASE WHEN :score = 3 THEN :cantidad ELSE 0 END,
+              s4 = s4 + CASE WHEN :score = 4 THEN :cantidad ELSE 0 END,
+              s5 = s5 + CASE WHEN :score = 5 THEN :cantidad ELSE 0 END
+          """, nativeQuery = true)
+    int sumar(@Param("entrenadorId") Long entrenadorId,
+              @Param("mes") String mes,
+              @Param("score") int score,
+              @Param("cantidad") long cantidad);
+
+    // Meses del rango [desde, hastaExcl) ("YYYY-MM")
+    @Query("""
+        select r from PlanRatingMesResumen r
+        where r.entrenadorId = :entrenadorId
+          and r.mes >= :desde and r.mes < :hastaExcl
+        order by r.mes
+        """)
+    List<PlanRatingMesResumen> findRango(@Param("entrenadorId") Long entrenadorId,
+                                         @Param("desde") String desde,
+                                         @Param("hastaExcl") String hastaExcl);
+
+    @Modifying
+    @Query("delete from PlanRatingMesResumen r where r.entrenadorId = :entrenadorId")
+    int deleteByEntrenador(@Param("entrenadorId") Long entrenadorId);
+
+    interface RatingPorEntrenador {
+        Long getIdEntrenador();
+        Long getSuma();
+        Long getCantidad();
+    }
+
+    // Suma y cantidad de evaluaciones de todos los entrenadores en una consulta
+    @Query("""
+        select r.entrenadorId as idEntrenador, sum(r.suma) as suma, sum(r.cantidad) as cantidad
+        from PlanRatingMesResumen r
+        group by r.entrenadorId
+        """)
+    List<RatingPorEntrenador> totalesPorEntrenador();
+}
@@ -0,0 +1,131 @@
+package com.grindsup.backend.repository;
+
+import com.grindsup.backend.model.SesionDiaResumen;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SesionDiaResumenRepository extends JpaRepository<SesionDiaResumen, Long> {
+
+    // Suma (o crea) la fila del día en una sola sentencia.
+    // El UPDATE repite los parámetros en vez de VALUES(col), deprecado en MySQL 8.0.20
+    @Modifying
+    @Query(value = """
+          INSERT INTO sesiones_dia_resumen (id_usuario, dia, cantidad, primer_acceso, ultimo_acceso)
+          VALUES (:usuarioId, :dia, :cantidad, :acceso, :acceso)
+          ON DUPLICATE KEY UPDATE
+              cantidad = cantidad + :cantidad,
+              primer_acceso = LEAST(primer_acceso, :acceso),
+              ultimo_acceso = GREATEST(ultimo_acceso, :acceso)
+          """, nativeQuery = true)
+    int sumar(@Param("usuarioId") Long usuarioId,
+              @Param("dia") LocalDate dia,
+              @Param("cantidad") long cantidad,
+              @Param("acceso") OffsetDateTime acceso);
+
+    // Resta una sesión de la fila del día. Primer y último acceso no se pueden
+    // "deshacer": se recalculan desde las sesiones que quedan en ese día (rango
+    // sobre idx_sesiones_usuario_inicio / idx_sesiones_archivo_usuario_inicio).
+    // Llamar después del flush del cambio en sesiones.
+    @Modifying
+    @Query(value = """
+          UPDATE sesiones_dia_resumen
+          SET cantidad = cantidad - 1,
+              primer_acceso = COALESCE((
+                    SELECT MIN(h.inicio) FROM (
+                          SELECT s.inicio FROM sesiones s
+                          WHERE s.id_usuario = :usuarioId AND s.inicio >= :desde AND s.inicio < :hasta
+                          UNION ALL
+                          SELECT a.inicio FROM sesiones_archivo a
+                          WHERE a.id_usuario = :usuarioId AND a.inicio >= :desde AND a.inicio < :hasta
+                         ) h), primer_acceso),
+              ultimo_acceso = COALESCE((
+                    SELECT MAX(h.inicio) FROM (
+                          SELECT s.inicio FROM sesiones s
+                          WHERE s.id_usuario = :usuarioId AND s.inicio >= :desde AND s.inicio < :hasta
+                          UNION ALL
+                          SELECT a.inicio FROM sesiones_archivo a
+                          WHERE a.id_usuario = :usuarioId AND a.inicio >= :desde AND a.inicio < :hasta
+                         ) h), ultimo_acceso)
+          WHERE id_usuario = :usuarioId AND dia = :dia
+          """, nativeQuery = true)
+    int restar(@Param("usuarioId") Long usuarioId,
+               @Param("dia") LocalDate dia,
+               @Param("desde") OffsetDateTime desde,
+               @Param("hasta") OffsetDateTime hasta);
+
+    // Un día que se quedó sin sesiones no deja fila
+    @Modifying
+    @Query(value = """
+          DELETE FROM sesiones_dia_resumen
+          WHERE id_usuario = :usuarioId AND dia = :dia AND cantidad <= 0
+          """, nativeQuery = true)
+    int borrarSiVacio(@Param("usuarioId") Long usuarioId, @Param("dia") LocalDate dia);
+
+    // Reconstrucción completa desde las sesiones crudas y las archivadas
+    @Modifying
+    @Query(value = """
+          INSERT INTO sesiones_dia_resumen (id_usuario, dia, cantidad, primer_acceso, ultimo_acceso)
+          SELECT h.id_usuario, DATE(h.inicio), COUNT(*), MIN(h.inicio), MAX(h.inicio)
+          FROM (
+                SELECT s.id_usuario, s.inicio FROM sesiones s
+                UNION ALL
+                SELECT a.id_usuario, a.inicio FROM sesiones_archivo a
+               ) h
+          GROUP BY h.id_usuario, DATE(h.inicio)
+          """, nativeQuery = true)
+    int reconstruirDesdeHistorial();
+
+    @Modifying
+    @Query("delete from SesionDiaResumen r")
+    int deleteTodo();
+
+    // ====== Reportes de admin ======
+
+    interface UsoTotal {
+        Long getTotal();
+        Long getRecientes();
+    }
+
+    interface UsoPorUsuario {
+        Long getIdUsuario();
+        Long getTotal();
+        Long getRecientes();
+        OffsetDateTime getUltimoAcceso();
+    }
+
+    /**
+     * Cantidad de sesiones de entrenadores no eliminados: total y desde el día {@code desde}.
+     */
+    @Query("""
+        select coalesce(sum(r.cantidad), 0) as total,
+               coalesce(sum(case when r.dia >= :desde then r.cantidad else 0 end), 0) as recientes
+        from SesionDiaResumen r
+        where r.usuarioId in (
+            select e.usuario.id_usuario from Entrenador e where e.deleted_at is null)
+        """)
+    UsoTotal totalesDeEntrenadoresActivos(@Param("desde") LocalDate desde);
+
+    /**
+     * Una fila por usuario entrenador con sesiones: total, recientes y último acceso,
+     * de más a menos sesiones. Con {@code PageRequest.of(0, k)} es el top-K.
+     */
+    @Query("""
+        select r.usuarioId as idUsuario,
+               sum(r.cantidad) as total,
+               coalesce(sum(case when r.dia >= :desde then r.cantidad else 0 end), 0) as recientes,
+               max(r.ultimoAcceso) as ultimoAcceso
+        from SesionDiaResumen r
+        where r.usuarioId in (
+            select e.usuario.id_usuario from Entrenador e where e.deleted_at is null)
+        group by r.usuarioId
+        order by sum(r.cantidad) desc
+        """)
+    List<UsoPorUsuario> usoPorEntrenador(@Param("desde") LocalDate desde, Pageable pageable);
+}
@@ -3,9 +3,11 @@ package com.grindsup.backend.repository;
 import com.grindsup.backend.model.Sesion;
 import com.grindsup.backend.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface SesionRepository extends JpaRepository<Sesion, Long> {
@@ -20,4 +22,31 @@ public interface SesionRepository extends JpaRepository<Sesion, Long> {
      */
     @Query("SELECT s FROM Sesion s WHERE s.usuario IN :usuarios")
     List<Sesion> findByUsuarios(@Param("usuarios") List<Usuario> usuarios);
+
+    // ====== Archivado (SesionArchivoScheduler) ======
+
+    // Lote de sesiones más viejas que el corte (índice sesiones(inicio))
+    @Query(value = """
+        SELECT s.id_sesion FROM sesiones s
+        WHERE s.inicio < :corte
+        ORDER BY s.inicio
+        LIMIT :lote
+        """, nativeQuery = true)
+    List<Long> findIdsAnterioresA(@Param("corte") OffsetDateTime corte, @Param("lote") int lote);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO sesiones_archivo
+            (id_sesion, id_usuario, inicio, fin, ip, dispositivo, id_estado,
+             created_at, updated_at, deleted_at, archivado_at)
+        SELECT s.id_sesion, s.id_usuario, s.inicio, s.fin, s.ip, s.dispositivo, s.id_estado,
+               s.created_at, s.updated_at, s.deleted_at, CURRENT_TIMESTAMP(6)
+        FROM sesiones s
+        WHERE s.id_sesion IN (:ids)
+        """, nativeQuery = true)
+    int copiarAlArchivo(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM sesiones WHERE id_sesion IN (:ids)", nativeQuery = true)
+    int borrarPorIds(@Param("ids") List<Long> ids);
 }
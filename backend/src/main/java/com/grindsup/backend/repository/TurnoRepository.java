@@ -1,46 +1,142 @@
 package com.grindsup.backend.repository;
 
 import com.grindsup.backend.model.Turno;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TurnoRepository extends JpaRepository<Turno, Long> {
 
-  // Consulta optimizada para carga general
+  // ====== READ MODEL (TurnoLecturaService) ======
+  // Una fila plana por turno con los nombres ya resueltos; los alumnos salen
+  // aparte en una sola consulta por página (alumnosDeTurnos). Sin entidades
+  // ni asociaciones lazy: cantidad de consultas fija, sin N+1.
+  interface TurnoFila {
+    Long getIdTurno();
+    Long getIdEntrenador();
+    String getEntrenador();
+    String getTipoTurno();
+    OffsetDateTime getFecha();
+  }
+
+  interface AlumnoDeTurno {
+    Long getIdTurno();
+    Long getIdAlumno();
+    String getNombre();
+    String getApellido();
+  }
+
+  // Páginas por keyset sobre (fecha, id_turno): arrancan después del cursor
+  // (la primera página usa desde / 0) y llegan hasta :hasta. El t.fecha >=
+  // :cursorFecha explícito es el que deja usar el índice como rango; el OR
+  // solo desempata los turnos con la misma fecha. Pedir página + 1 para
+  // saber si hay siguiente.
   @Query("""
-      SELECT t
+      SELECT t.id_turno AS idTurno, e.idEntrenador AS idEntrenador, u.nombre AS entrenador,
+             tt.nombre AS tipoTurno, t.fecha AS fecha
       FROM Turno t
-      JOIN FETCH t.entrenador
-      JOIN FETCH t.tipoTurno
-      ORDER BY t.fecha
+      JOIN t.entrenador e
+      LEFT JOIN e.usuario u
+      JOIN t.tipoTurno tt
+      WHERE t.fecha >= :cursorFecha
+        AND (t.fecha > :cursorFecha OR t.id_turno > :cursorId)
+        AND t.fecha <= :hasta
+      ORDER BY t.fecha, t.id_turno
       """)
-  List<Turno> findAllWithEntrenadorAndTipoTurno();
+  List<TurnoFila> paginaTodas(@Param("cursorFecha") OffsetDateTime cursorFecha,
+      @Param("cursorId") Long cursorId,
+      @Param("hasta") OffsetDateTime hasta,
+      Pageable pageable);
 
-  // Consulta principal para la API de Entrenador (filtra en BD)
   @Query("""
-      SELECT t
+      SELECT t.id_turno AS idTurno, e.idEntrenador AS idEntrenador, u.nombre AS entrenador,
+             tt.nombre AS tipoTurno, t.fecha AS fecha
       FROM Turno t
-      JOIN FETCH t.entrenador e
-      JOIN FETCH t.tipoTurno tt
+      JOIN t.entrenador e
+      LEFT JOIN e.usuario u
+      JOIN t.tipoTurno tt
       WHERE e.idEntrenador = :entrenadorId
-        AND (:desde IS NULL OR t.fecha >= :desde)
-        AND (:hasta IS NULL OR t.fecha <= :hasta)
+        AND t.fecha >= :cursorFecha
+        AND (t.fecha > :cursorFecha OR t.id_turno > :cursorId)
+        AND t.fecha <= :hasta
         AND (:tipo IS NULL OR LOWER(tt.nombre) = LOWER(:tipo))
-      ORDER BY t.fecha
+      ORDER BY t.fecha, t.id_turno
       """)
-  List<Turno> findByEntrenadorAndFilters(@Param("entrenadorId") Long entrenadorId,
-      @Param("desde") OffsetDateTime desde,
+  List<TurnoFila> paginaPorEntrenador(@Param("entrenadorId") Long entrenadorId,
+      @Param("cursorFecha") OffsetDateTime cursorFecha,
+      @Param("cursorId") Long cursorId,
       @Param("hasta") OffsetDateTime hasta,
-      @Param("tipo") String tipo);
+      @Param("tipo") String tipo,
+      Pageable pageable);
+
+  @Query("""
+      SELECT t.id_turno AS idTurno, e.idEntrenador AS idEntrenador, u.nombre AS entrenador,
+             tt.nombre AS tipoTurno, t.fecha AS fecha
+      FROM Turno t
+      JOIN t.entrenador e
+      LEFT JOIN e.usuario u
+      LEFT JOIN t.tipoTurno tt
+      WHERE t.id_turno IN :ids
+      """)
+  List<TurnoFila> filasPorIds(@Param("ids") Collection<Long> ids);
+
+  // Alumnos de varios turnos de una vez (PK de turno_alumno)
+  @Query("""
+      SELECT t.id_turno AS idTurno, a.idAlumno AS idAlumno, a.nombre AS nombre, a.apellido AS apellido
+      FROM Turno t
+      JOIN t.alumnos a
+      WHERE t.id_turno IN :ids
+      """)
+  List<AlumnoDeTurno> alumnosDeTurnos(@Param("ids") Collection<Long> ids);
+
+  // ====== RECORDATORIOS (TurnoNotificationScheduler) ======
+  // Solo id + fecha para cargar la cola en memoria y para el barrido de
+  // atrasados; range scan sobre idx_turnos_notif_previa_fecha.
+  interface RecordatorioPendiente {
+    Long getIdTurno();
+    OffsetDateTime getFecha();
+  }
+
+  @Query("""
+      SELECT t.id_turno AS idTurno, t.fecha AS fecha
+      FROM Turno t
+      WHERE t.notificacionPreviaEnviada = false
+        AND t.fecha > :desde AND t.fecha <= :hasta
+        AND t.deleted_at IS NULL
+      """)
+  List<RecordatorioPendiente> findRecordatoriosPendientes(
+      @Param("desde") OffsetDateTime desde,
+      @Param("hasta") OffsetDateTime hasta);
+
+  // Reclama un tramo de envíos: bloquea (FOR UPDATE) los que siguen sin
+  // notificar, así otra instancia o el barrido esperan y después los ven con
+  // el flag en true. Se libera al commit del tramo. Solo ids: los datos del
+  // mensaje salen de filasPorIds + alumnosDeTurnos.
+  @Query(value = """
+      SELECT t.id_turno
+      FROM turnos t
+      WHERE t.id_turno IN (:ids)
+        AND t.notificacion_previa_enviada = FALSE
+        AND t.deleted_at IS NULL
+      FOR UPDATE
+      """, nativeQuery = true)
+  List<Long> bloquearPendientesDeAviso(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("UPDATE Turno t SET t.notificacionPreviaEnviada = true WHERE t.id_turno IN :ids")
+  int marcarNotificacionesPrevias(@Param("ids") Collection<Long> ids);
 
-  // 🆕 NUEVO: Busca turnos en el rango Y que AÚN NO han sido notificados
-  List<Turno> findByFechaBetweenAndNotificacionPreviaEnviadaFalse(
-      OffsetDateTime start,
-      OffsetDateTime end);
-}
\ No newline at end of file
+  // ====== GOOGLE CALENDAR (CalendarOutboxService) ======
+  // 0 si el turno ya no existe (borrado mientras se creaba el evento)
+  @Modifying
+  @Query("UPDATE Turno t SET t.googleEventId = :eventId WHERE t.id_turno = :idTurno")
+  int asignarGoogleEventId(@Param("idTurno") Long idTurno, @Param("eventId") String eventId);
+}
@@ -0,0 +1,342 @@
+package com.grindsup.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.grindsup.backend.DTO.BenchmarkEntrenadorDTO;
+import com.grindsup.backend.DTO.BenchmarkEntrenadoresDTO;
+import com.grindsup.backend.DTO.EntrenadorStatsDTO;
+import com.grindsup.backend.DTO.EntrenadorUsoGlobalDTO;
+import com.grindsup.backend.repository.AlumnoMesResumenRepository;
+import com.grindsup.backend.repository.AlumnoMesResumenRepository.NetoPorEntrenador;
+import com.grindsup.backend.repository.EntrenadorRepository;
+import com.grindsup.backend.repository.EntrenadorRepository.EntrenadorActivo;
+import com.grindsup.backend.repository.PlanEntrenamientoRepository;
+import com.grindsup.backend.repository.PlanEntrenamientoRepository.EntrenadorEstadoCount;
+import com.grindsup.backend.repository.PlanRatingMesResumenRepository;
+import com.grindsup.backend.repository.PlanRatingMesResumenRepository.RatingPorEntrenador;
+import com.grindsup.backend.repository.SesionDiaResumenRepository;
+import com.grindsup.backend.repository.SesionDiaResumenRepository.UsoPorUsuario;
+import com.grindsup.backend.repository.SesionDiaResumenRepository.UsoTotal;
+import com.grindsup.backend.util.IndiceLong;
+
+/**
+ * Reportes de uso de entrenadores para el admin.
+ *
+ * Las sesiones se leen del rollup diario {@code sesiones_dia_resumen}
+ * (SUM / MAX(último acceso) / últimos 30 días por usuario), así el costo no
+ * depende del tamaño del historial ni del archivado de {@code sesiones}.
+ *
+ * El resultado se guarda unos segundos: cada login escribe una sesión, así
+ * que no hay evento útil para invalidar.
+ *
+ * El benchmark junta todas las métricas de todos los entrenadores con un
+ * número fijo de consultas agrupadas (sin una por entrenador), unidas en
+ * memoria por id en arrays paralelos.
+ */
+@Service
+public class AdminEntrenadorReportService {
+
+    private static final int TOP_ACTIVOS = 5;
+    private static final int MAX_ENTRADAS_CACHE = 32;
+
+    private final EntrenadorRepository entrenadorRepository;
+    private final SesionDiaResumenRepository sesionResumenRepository;
+    private final AlumnoMesResumenRepository alumnoResumenRepository;
+    private final PlanRatingMesResumenRepository ratingResumenRepository;
+    private final PlanEntrenamientoRepository planRepository;
+    private final ZoneId zona;
+    private final long ttlNanos;
+
+    private record Entrada(Object valor, long expiraNanos) {}
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    public AdminEntrenadorReportService(EntrenadorRepository entrenadorRepository,
+                                        SesionDiaResumenRepository sesionResumenRepository,
+                                        AlumnoMesResumenRepository alumnoResumenRepository,
+                                        PlanRatingMesResumenRepository ratingResumenRepository,
+                                        PlanEntrenamientoRepository planRepository,
+                                        SesionHistorialService sesionHistorialService,
+                                        @Value("${grindsup.admin.reportes.cache-ttl-segundos:60}") long ttlSegundos) {
+        this.entrenadorRepository = entrenadorRepository;
+        this.sesionResumenRepository = sesionResumenRepository;
+        this.alumnoResumenRepository = alumnoResumenRepository;
+        this.ratingResumenRepository = ratingResumenRepository;
+        this.planRepository = planRepository;
+        this.zona = sesionHistorialService.zona();
+        this.ttlNanos = Duration.ofSeconds(Math.max(0, ttlSegundos)).toNanos();
+    }
+
+    public EntrenadorUsoGlobalDTO usoGlobal() {
+        return cacheado("uso-global", this::calcularUsoGlobal);
+    }
+
+    public EntrenadorStatsDTO estadisticas(long inactividadDias) {
+        return cacheado("estadisticas:" + inactividadDias, () -> calcularEstadisticas(inactividadDias));
+    }
+
+    public BenchmarkEntrenadoresDTO benchmark() {
+        return cacheado("benchmark", this::calcularBenchmark);
+    }
+
+    // ============================================================
+    // ========================= USO GLOBAL =======================
+    // ============================================================
+
+    private EntrenadorUsoGlobalDTO calcularUsoGlobal() {
+        List<EntrenadorActivo> entrenadores = entrenadorRepository.findActivosResumen();
+
+        EntrenadorUsoGlobalDTO dto = new EntrenadorUsoGlobalDTO();
+        dto.setTotalEntrenadores(entrenadores.size());
+
+        if (entrenadores.isEmpty()) {
+            dto.setTotalSesiones(0);
+            dto.setTotalSesionesUltimos30Dias(0);
+            dto.setPromedioSesionesPorEntrenador(0.0);
+            dto.setEntrenadoresMasActivos(List.of());
+            return dto;
+        }
+
+        OffsetDateTime desde = OffsetDateTime.now().minusDays(30);
+        dto.setDesdeUltimos30Dias(desde);
+
+        UsoTotal totales = sesionResumenRepository.totalesDeEntrenadoresActivos(dia(desde));
+        long totalSesiones = valor(totales.getTotal());
+        dto.setTotalSesiones(totalSesiones);
+        dto.setTotalSesionesUltimos30Dias(valor(totales.getRecientes()));
+        dto.setPromedioSesionesPorEntrenador((double) totalSesiones / (double) entrenadores.size());
+
+        Map<Long, EntrenadorActivo> porUsuario = porUsuario(entrenadores);
+
+        List<EntrenadorUsoGlobalDTO.ItemEntrenadorActivoDTO> items = new ArrayList<>();
+        for (UsoPorUsuario uso : sesionResumenRepository.usoPorEntrenador(dia(desde), PageRequest.of(0, TOP_ACTIVOS))) {
+            EntrenadorActivo ent = porUsuario.get(uso.getIdUsuario());
+            if (ent == null) continue;
+
+            EntrenadorUsoGlobalDTO.ItemEntrenadorActivoDTO item =
+                    new EntrenadorUsoGlobalDTO.ItemEntrenadorActivoDTO();
+            item.setIdEntrenador(ent.getIdEntrenador());
+            item.setIdUsuario(ent.getIdUsuario());
+            item.setNombre(ent.getNombre());
+            item.setApellido(ent.getApellido());
+            item.setTotalSesiones(valor(uso.getTotal()));
+            item.setUltimoAcceso(uso.getUltimoAcceso());
+            items.add(item);
+        }
+        dto.setEntrenadoresMasActivos(items);
+
+        return dto;
+    }
+
+    // ============================================================
+    // ======================= ESTADÍSTICAS =======================
+    // ============================================================
+
+    private EntrenadorStatsDTO calcularEstadisticas(long inactividadDias) {
+        List<EntrenadorActivo> entrenadores = entrenadorRepository.findActivosResumen();
+
+        EntrenadorStatsDTO dto = new EntrenadorStatsDTO();
+        dto.setTotalEntrenadores(entrenadores.size());
+
+        if (entrenadores.isEmpty()) {
+            dto.setNuevosUltimos30Dias(0);
+            dto.setFechaUltimoEntrenadorCreado(null);
+            dto.setEntrenadoresInactivos(List.of());
+            return dto;
+        }
+
+        OffsetDateTime ahora = OffsetDateTime.now();
+        OffsetDateTime hace30 = ahora.minusDays(30);
+        OffsetDateTime limiteInactivo = ahora.minusDays(inactividadDias);
+
+        long nuevos30 = 0;
+        OffsetDateTime ultimoCreado = null;
+        for (EntrenadorActivo e : entrenadores) {
+            OffsetDateTime creado = e.getCreatedAt();
+            if (creado == null) continue;
+            if (!creado.isBefore(hace30)) nuevos30++;
+            if (ultimoCreado == null || creado.isAfter(ultimoCreado)) ultimoCreado = creado;
+        }
+        dto.setNuevosUltimos30Dias(nuevos30);
+        dto.setFechaUltimoEntrenadorCreado(ultimoCreado);
+
+        // Último acceso de cada usuario entrenador: una fila por usuario, no todas sus sesiones
+        Map<Long, OffsetDateTime> ultimoAccesoPorUsuario = new HashMap<>();
+        for (UsoPorUsuario uso : sesionResumenRepository.usoPorEntrenador(dia(hace30), Pageable.unpaged())) {
+            ultimoAccesoPorUsuario.put(uso.getIdUsuario(), uso.getUltimoAcceso());
+        }
+
+        List<EntrenadorStatsDTO.EntrenadorInactivoDTO> inactivos = new ArrayList<>();
+
+        for (EntrenadorActivo ent : entrenadores) {
+            if (ent.getIdUsuario() == null) continue;
+
+            OffsetDateTime ultimoAcceso = ultimoAccesoPorUsuario.get(ent.getIdUsuario());
+
+            boolean esInactivo;
+            if (ultimoAcceso == null) {
+                esInactivo = ent.getCreatedAt() != null && ent.getCreatedAt().isBefore(limiteInactivo);
+            } else {
+                esInactivo = ultimoAcceso.isBefore(limiteInactivo);
+            }
+
+            if (esInactivo) {
+                EntrenadorStatsDTO.EntrenadorInactivoDTO item =
+                        new EntrenadorStatsDTO.EntrenadorInactivoDTO();
+                item.setIdEntrenador(ent.getIdEntrenador());
+                item.setIdUsuario(ent.getIdUsuario());
+                item.setNombre(ent.getNombre());
+                item.setApellido(ent.getApellido());
+                item.setUltimoAcceso(ultimoAcceso);
+                long dias = (ultimoAcceso == null)
+                        ? Duration.between(ent.getCreatedAt(), ahora).toDays()
+                        : Duration.between(ultimoAcceso, ahora).toDays();
+                item.setDiasSinEntrar(dias);
+                inactivos.add(item);
+            }
+        }
+
+        inactivos.sort(Comparator.comparingLong(
+                EntrenadorStatsDTO.EntrenadorInactivoDTO::getDiasSinEntrar
+        ).reversed());
+        dto.setEntrenadoresInactivos(inactivos);
+
+        return dto;
+    }
+
+    // ============================================================
+    // ========================= BENCHMARK ========================
+    // ============================================================
+
+    // 5 consultas en total, haya 10 o 10.000 entrenadores
+    private BenchmarkEntrenadoresDTO calcularBenchmark() {
+        OffsetDateTime ahora = OffsetDateTime.now();
+        List<EntrenadorActivo> entrenadores = entrenadorRepository.findActivosResumen();
+
+        long[] ids = new long[entrenadores.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = entrenadores.get(i).getIdEntrenador();
+        IndiceLong indice = IndiceLong.de(ids);
+        int n = indice.size();
+
+        EntrenadorActivo[] datos = new EntrenadorActivo[n];
+        for (EntrenadorActivo e : entrenadores) datos[indice.posicion(e.getIdEntrenador())] = e;
+
+        long[] activos = new long[n];
+        for (NetoPorEntrenador r : alumnoResumenRepository.netoPorEntrenador()) {
+            int i = indice.posicion(r.getIdEntrenador());
+            if (i >= 0) activos[i] = valor(r.getActivos());
+        }
+
+        long[] planes = new long[n];
+        long[] completados = new long[n];
+        for (EntrenadorEstadoCount r : planRepository.contarPorEstadoPorEntrenador()) {
+            int i = indice.posicion(r.getIdEntrenador());
+            if (i < 0) continue;
+            planes[i] += valor(r.getCnt());
+            // Mismo criterio que ReporteService (estado "Completada")
+            if ("Completada".equalsIgnoreCase(r.getEstado())) completados[i] += valor(r.getCnt());
+        }
+
+        long[] sumaRating = new long[n];
+        long[] evaluaciones = new long[n];
+        for (RatingPorEntrenador r : ratingResumenRepository.totalesPorEntrenador()) {
+            int i = indice.posicion(r.getIdEntrenador());
+            if (i < 0) continue;
+            sumaRating[i] = valor(r.getSuma());
+            evaluaciones[i] = valor(r.getCantidad());
+        }
+
+        // Las sesiones vienen por usuario: segundo índice usuario -> posición del entrenador
+        long[] usuarios = new long[n];
+        int conUsuario = 0;
+        for (EntrenadorActivo e : datos) {
+            if (e.getIdUsuario() != null) usuarios[conUsuario++] = e.getIdUsuario();
+        }
+        IndiceLong indiceUsuarios = IndiceLong.de(Arrays.copyOf(usuarios, conUsuario));
+        int[] entrenadorDeUsuario = new int[indiceUsuarios.size()];
+        for (int i = 0; i < n; i++) {
+            int u = indiceUsuarios.posicion(datos[i].getIdUsuario());
+            if (u >= 0) entrenadorDeUsuario[u] = i;
+        }
+
+        long[] sesiones = new long[n];
+        long[] sesiones30 = new long[n];
+        OffsetDateTime[] ultimoAcceso = new OffsetDateTime[n];
+        for (UsoPorUsuario uso : sesionResumenRepository.usoPorEntrenador(dia(ahora.minusDays(30)), Pageable.unpaged())) {
+            int u = indiceUsuarios.posicion(uso.getIdUsuario());
+            if (u < 0) continue;
+            int i = entrenadorDeUsuario[u];
+            sesiones[i] = valor(uso.getTotal());
+            sesiones30[i] = valor(uso.getRecientes());
+            ultimoAcceso[i] = uso.getUltimoAcceso();
+        }
+
+        List<BenchmarkEntrenadorDTO> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            filas.add(new BenchmarkEntrenadorDTO(
+                    indice.clave(i),
+                    datos[i].getNombre(),
+                    datos[i].getApellido(),
+                    activos[i],
+                    planes[i],
+                    completados[i],
+                    planes[i] > 0 ? 100.0 * completados[i] / planes[i] : null,
+                    evaluaciones[i] > 0 ? (double) sumaRating[i] / evaluaciones[i] : null,
+                    evaluaciones[i],
+                    sesiones[i],
+                    sesiones30[i],
+                    ultimoAcceso[i]));
+        }
+        return new BenchmarkEntrenadoresDTO(ahora, filas);
+    }
+
+    // ===== helpers =====
+
+    @SuppressWarnings("unchecked")
+    private <T> T cacheado(String clave, Supplier<T> calcular) {
+        long ahora = System.nanoTime();
+        Entrada e = cache.get(clave);
+        if (e != null && ahora - e.expiraNanos() < 0) {
+            return (T) e.valor();
+        }
+        T valor = calcular.get();
+        if (ttlNanos > 0) {
+            // inactividadDias viene del request: no dejar crecer el mapa sin límite
+            if (cache.size() >= MAX_ENTRADAS_CACHE) cache.clear();
+            cache.put(clave, new Entrada(valor, ahora + ttlNanos));
+        }
+        return valor;
+    }
+
+    private static Map<Long, EntrenadorActivo> porUsuario(List<EntrenadorActivo> entrenadores) {
+        Map<Long, EntrenadorActivo> out = new HashMap<>();
+        for (EntrenadorActivo e : entrenadores) {
+            if (e.getIdUsuario() != null) out.put(e.getIdUsuario(), e);
+        }
+        return out;
+    }
+
+    private LocalDate dia(OffsetDateTime instante) {
+        return instante.atZoneSameInstant(zona).toLocalDate();
+    }
+
+    private static long valor(Long v) {
+        return v != null ? v : 0L;
+    }
+}
@@ -0,0 +1,169 @@
+package com.grindsup.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.grindsup.backend.model.Alumno;
+import com.grindsup.backend.model.Entrenador;
+import com.grindsup.backend.repository.AlumnoMesResumenRepository;
+import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.repository.AlumnoRepository.EventoAlumno;
+import com.grindsup.backend.repository.EntrenadorRepository;
+
+/**
+ * Mantiene el rollup mensual {@code alumnos_mes_resumen} (altas / bajas por
+ * entrenador y mes) para que las estadísticas lean O(meses) filas en lugar
+ * de recorrer todos los alumnos con DATE_FORMAT.
+ *
+ * AlumnoController llama a {@link #registrarCambio} dentro de la misma
+ * transacción del save. El criterio sale del estado actual de cada alumno,
+ * porque la tabla alumnos no guarda historial: alta = mes de created_at;
+ * baja = mes de deleted_at o, si está INACTIVO sin baja lógica, mes de
+ * updated_at. Es el mismo que AlumnoRepository.eventosEnRango, que usan la
+ * reconstrucción y las series por día / semana / trimestre de StatsService.
+ * Por eso un alumno que vuelve a activo deja de contar como baja (no suma un
+ * alta nueva), y uno inactivo que se borra pasa su baja al mes del borrado.
+ */
+@Service
+public class AlumnoResumenService {
+
+    // ⚠️ Mismo id que usa AlumnoRepository.eventosEnRango para INACTIVO
+    private static final long ID_ESTADO_INACTIVO = 2L;
+
+    private final AlumnoMesResumenRepository resumenRepository;
+    private final AlumnoRepository alumnoRepository;
+    private final EntrenadorRepository entrenadorRepository;
+    private final TransactionTemplate tx;
+    private final ZoneId zona;
+    private final boolean backfillAlIniciar;
+
+    public AlumnoResumenService(AlumnoMesResumenRepository resumenRepository,
+                                AlumnoRepository alumnoRepository,
+                                EntrenadorRepository entrenadorRepository,
+                                TransactionTemplate tx,
+                                ZonaHorariaService zonaHorariaService,
+                                @Value("${grindsup.stats.rollup.backfill-al-iniciar:true}") boolean backfillAlIniciar) {
+        this.resumenRepository = resumenRepository;
+        this.alumnoRepository = alumnoRepository;
+        this.entrenadorRepository = entrenadorRepository;
+        this.tx = tx;
+        this.zona = zonaHorariaService.app();
+        this.backfillAlIniciar = backfillAlIniciar;
+    }
+
+    /**
+     * Lo que importa del alumno para el rollup, tomado antes de modificarlo:
+     * el instante de su alta y el de su baja (null si no está de baja).
+     */
+    public record Snapshot(Long entrenadorId, Instant alta, Instant baja) {
+        public static Snapshot de(Alumno a) {
+            Long ent = a.getEntrenador() != null ? a.getEntrenador().getIdEntrenador() : null;
+            Instant alta = a.getCreated_at() != null ? a.getCreated_at().toInstant() : null;
+            Instant baja = null;
+            if (a.getDeletedAt() != null) {
+                // deleted_at es DATETIME sin zona: JDBC lo lee en la zona de la JVM
+                baja = a.getDeletedAt().atZone(ZoneId.systemDefault()).toInstant();
+            } else if (a.getEstado() != null && a.getEstado().getIdEstado() != null
+                    && a.getEstado().getIdEstado() == ID_ESTADO_INACTIVO && a.getUpdated_at() != null) {
+                baja = a.getUpdated_at().toInstant();
+            }
+            return new Snapshot(ent, alta, baja);
+        }
+    }
+
+    /**
+     * Aplica al rollup la diferencia entre {@code antes} (null si es un alta)
+     * y el estado actual del alumno: resta su aporte anterior y suma el nuevo,
+     * con una sentencia por mes que cambia.
+     */
+    @Transactional
+    public void registrarCambio(Snapshot antes, Alumno despues) {
+        Map<Celda, long[]> deltas = new LinkedHashMap<>();
+        if (antes != null) aportar(deltas, antes, -1);
+        aportar(deltas, Snapshot.de(despues), 1);
+
+        deltas.forEach((c, d) -> {
+            if (d[0] != 0 || d[1] != 0) {
+                resumenRepository.sumar(c.entrenadorId(), c.mes(), d[0], d[1]);
+            }
+        });
+    }
+
+    private record Celda(Long entrenadorId, String mes) {}
+
+    private void aportar(Map<Celda, long[]> deltas, Snapshot s, long signo) {
+        if (s.entrenadorId() == null || s.alta() == null) return;
+        deltas.computeIfAbsent(new Celda(s.entrenadorId(), mes(s.alta())), k -> new long[2])[0] += signo;
+        if (s.baja() != null) {
+            deltas.computeIfAbsent(new Celda(s.entrenadorId(), mes(s.baja())), k -> new long[2])[1] += signo;
+        }
+    }
+
+    // ============================================================
+    // ====================== RECONSTRUCCIÓN ======================
+    // ============================================================
+
+    /** Rehace el rollup de un entrenador desde la tabla alumnos. */
+    @Transactional
+    public void reconstruir(Long entrenadorId) {
+        reconstruirEntrenador(entrenadorId);
+    }
+
+    /** Rehace el rollup de todos los entrenadores (una transacción por entrenador). */
+    public int reconstruirTodo() {
+        int n = 0;
+        for (Entrenador e : entrenadorRepository.findAll()) {
+            try {
+                tx.executeWithoutResult(status -> reconstruirEntrenador(e.getIdEntrenador()));
+                n++;
+            } catch (Exception ex) {
+                System.err.println("⚠️ No se pudo reconstruir el resumen de alumnos del entrenador "
+                        + e.getIdEntrenador() + ": " + ex.getMessage());
+            }
+        }
+        return n;
+    }
+
+    // Backfill inicial: si la tabla está vacía (primer deploy) se llena desde alumnos
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillAlIniciar || resumenRepository.count() > 0) return;
+        int n = reconstruirTodo();
+        System.out.println("✅ Resumen mensual de alumnos reconstruido para " + n + " entrenadores");
+    }
+
+    // ===== helpers =====
+
+    // Mismos eventos que las series de StatsService, agrupados por mes acá
+    private void reconstruirEntrenador(Long entrenadorId) {
+        Date desde = new Date(0L);
+        Date hasta = Date.from(LocalDate.now().plusYears(100).atStartOfDay(zona).toInstant());
+
+        Map<String, long[]> porMes = new TreeMap<>();
+        for (EventoAlumno e : alumnoRepository.eventosEnRango(entrenadorId, desde, hasta)) {
+            boolean alta = e.getTipo() != null && e.getTipo() == 1;
+            porMes.computeIfAbsent(mes(e.getFecha().toInstant()), k -> new long[2])[alta ? 0 : 1]++;
+        }
+
+        resumenRepository.deleteByEntrenador(entrenadorId);
+        porMes.forEach((mes, ab) -> resumenRepository.sumar(entrenadorId, mes, ab[0], ab[1]));
+    }
+
+    // Mes calendario en la zona de la app
+    private String mes(Instant instante) {
+        return YearMonth.from(instante.atZone(zona)).toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.grindsup.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Períodos consecutivos de una {@link Granularidad} en una zona horaria,
+ * para plegar fechas crudas en arrays primitivos ({@code long[]}) indexados
+ * por período (índice 0 = el que contiene {@code fromIncl}).
+ *
+ * Los límites se guardan en epoch millis (inicio de cada día en la zona,
+ * con los cambios de horario ya resueltos), así ubicar una fecha es una
+ * búsqueda binaria sin armar LocalDate por fila.
+ */
+public final class BucketsTemporales {
+
+    // Diez años de días: más que eso es un pedido mal armado
+    static final int MAX_PERIODOS = 3700;
+
+    private final Granularidad granularidad;
+    private final ZoneId zona;
+    private final LocalDate[] inicios; // n + 1: el último es el fin exclusivo
+    private final long[] limites;      // epoch millis de cada inicio
+
+    private BucketsTemporales(Granularidad granularidad, ZoneId zona, List<LocalDate> inicios) {
+        this.granularidad = granularidad;
+        this.zona = zona;
+        this.inicios = inicios.toArray(new LocalDate[0]);
+        this.limites = new long[this.inicios.length];
+        for (int i = 0; i < this.inicios.length; i++) {
+            limites[i] = this.inicios[i].atStartOfDay(zona).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Períodos que cubren [fromIncl, toExcl): arranca en el inicio del período
+     * de {@code fromIncl} y termina en el primer inicio ≥ {@code toExcl}.
+     */
+    public static BucketsTemporales de(Granularidad granularidad, ZoneId zona, LocalDate fromIncl, LocalDate toExcl) {
+        List<LocalDate> inicios = new ArrayList<>();
+        LocalDate d = granularidad.inicio(fromIncl);
+        inicios.add(d);
+        if (fromIncl.isBefore(toExcl)) {
+            while (d.isBefore(toExcl)) {
+                d = granularidad.siguiente(d);
+                inicios.add(d);
+                if (inicios.size() > MAX_PERIODOS + 1) {
+                    throw new IllegalArgumentException("Rango demasiado largo para granularidad " + granularidad.getClave());
+                }
+            }
+        }
+        return new BucketsTemporales(granularidad, zona, inicios);
+    }
+
+    public Granularidad granularidad() { return granularidad; }
+
+    public ZoneId zona() { return zona; }
+
+    public int periodos() { return inicios.length - 1; }
+
+    public LocalDate inicio(int i) { return inicios[i]; }
+
+    public String etiqueta(int i) { return granularidad.etiqueta(inicios[i]); }
+
+    /** Inicio del rango cubierto (para el filtro >= de la consulta). */
+    public Date desde() { return new Date(limites[0]); }
+
+    /** Fin exclusivo del rango cubierto (para el filtro < de la consulta). */
+    public Date hasta() { return new Date(limites[limites.length - 1]); }
+
+    public long[] vector() { return new long[periodos()]; }
+
+    /** Índice del período que contiene el instante, o -1 si queda fuera del rango. */
+    public int indice(long epochMilli) {
+        int r = Arrays.binarySearch(limites, epochMilli);
+        int i = r >= 0 ? r : -r - 2;
+        return i >= 0 && i < periodos() ? i : -1;
+    }
+
+    public int indice(Instant instante) {
+        return indice(instante.toEpochMilli());
+    }
+
+    /** Índice del período que empieza en {@code inicio}, o -1. */
+    public int indice(LocalDate inicio) {
+        int i = Arrays.binarySearch(inicios, inicio);
+        return i >= 0 && i < periodos() ? i : -1;
+    }
+
+    /** Suma {@code cantidad} en el período de {@code fecha}; false si quedó fuera. */
+    public boolean sumar(long[] vector, Date fecha, long cantidad) {
+        if (fecha == null) return false;
+        int i = indice(fecha.getTime());
+        if (i < 0) return false;
+        vector[i] += cantidad;
+        return true;
+    }
+}
@@ -0,0 +1,318 @@
+package com.grindsup.backend.service;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.grindsup.backend.model.Alumno;
+import com.grindsup.backend.model.CalendarOutbox;
+import com.grindsup.backend.model.Turno;
+import com.grindsup.backend.model.Usuario;
+import com.grindsup.backend.repository.CalendarOutboxRepository;
+import com.grindsup.backend.repository.TurnoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sincronización con Google Calendar por outbox.
+ *
+ * TurnoService solo escribe filas en calendar_outbox dentro de su propia
+ * transacción (encolar*); nunca espera a Google. Un despachador programado
+ * reclama los turnos con cambios vencidos y un pool chico hace las llamadas:
+ *  - todas las filas pendientes de un turno se resuelven con UNA llamada
+ *    armada con el estado actual del turno (BORRAR gana; si no, crear o
+ *    actualizar según tenga googleEventId);
+ *  - si falla, reintento con backoff exponencial (con jitter) hasta
+ *    max-intentos, después queda en FALLIDO;
+ *  - el reclamo es un lease en la tabla, así que sirve con varias instancias.
+ */
+@Service
+public class CalendarOutboxService {
+
+    private final CalendarOutboxRepository outboxRepository;
+    private final TurnoRepository turnoRepository;
+    private final GoogleCalendarNotificationService calendar;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor executor;
+    private final Duration debounce;
+    private final Duration lease;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int maxIntentos;
+
+    public CalendarOutboxService(CalendarOutboxRepository outboxRepository,
+                                 TurnoRepository turnoRepository,
+                                 Optional<GoogleCalendarNotificationService> calendar,
+                                 TransactionTemplate tx,
+                                 @Value("${grindsup.calendar.outbox.pool-size:2}") int poolSize,
+                                 @Value("${grindsup.calendar.outbox.debounce-ms:1000}") long debounceMs,
+                                 @Value("${grindsup.calendar.outbox.lease-ms:300000}") long leaseMs,
+                                 @Value("${grindsup.calendar.outbox.backoff-base-ms:5000}") long backoffBaseMs,
+                                 @Value("${grindsup.calendar.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+                                 @Value("${grindsup.calendar.outbox.max-intentos:8}") int maxIntentos) {
+        this.outboxRepository = outboxRepository;
+        this.turnoRepository = turnoRepository;
+        this.calendar = calendar.orElse(null);
+        this.tx = tx;
+        int hilos = Math.max(1, poolSize);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                hilos, hilos,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * 4),
+                r -> {
+                    Thread t = new Thread(r, "calendar-outbox-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.debounce = Duration.ofMillis(Math.max(0, debounceMs));
+        this.lease = Duration.ofMillis(Math.max(1000, leaseMs));
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.maxIntentos = Math.max(1, maxIntentos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        // Lo que quede en vuelo vuelve a salir cuando venza el lease
+        executor.shutdownNow();
+    }
+
+    // ============================================================
+    // ======================== ENCOLAR ===========================
+    // ============================================================
+    // Llamar dentro de la transacción que modifica el turno. Sin Google
+    // Calendar habilitado no se escribe nada.
+
+    public void encolarCrear(Turno turno, String userId) {
+        encolar(turno, CalendarOutbox.CREAR, userId, null);
+    }
+
+    public void encolarActualizar(Turno turno, String userId) {
+        encolar(turno, CalendarOutbox.ACTUALIZAR, userId, null);
+    }
+
+    public void encolarBorrar(Turno turno, String userId) {
+        encolar(turno, CalendarOutbox.BORRAR, userId, turno.getGoogleEventId());
+    }
+
+    private void encolar(Turno turno, String operacion, String userId, String googleEventId) {
+        if (calendar == null || turno == null || turno.getId_turno() == null) return;
+        CalendarOutbox fila = new CalendarOutbox();
+        fila.setIdTurno(turno.getId_turno());
+        fila.setOperacion(operacion);
+        fila.setUserId(userId);
+        fila.setGoogleEventId(googleEventId);
+        // Debounce: cambios seguidos del mismo turno entran en el mismo lote
+        fila.setProximoIntento(OffsetDateTime.now().plus(debounce));
+        outboxRepository.save(fila);
+    }
+
+    // ============================================================
+    // ======================= DESPACHO ===========================
+    // ============================================================
+
+    @Scheduled(fixedDelayString = "${grindsup.calendar.outbox.poll-ms:2000}")
+    public void despachar() {
+        if (calendar == null) return;
+        int libres = executor.getQueue().remainingCapacity();
+        if (libres == 0) return;
+
+        String lote = UUID.randomUUID().toString();
+        List<CalendarOutbox> filas;
+        try {
+            filas = tx.execute(status -> {
+                OffsetDateTime ahora = OffsetDateTime.now();
+                List<Long> turnos = outboxRepository.turnosListos(ahora, PageRequest.ofSize(libres));
+                if (turnos.isEmpty()) return List.<CalendarOutbox>of();
+                outboxRepository.reclamar(lote, ahora.plus(lease), ahora, turnos);
+                return outboxRepository.findByLote(lote);
+            });
+        } catch (Exception e) {
+            System.err.println("⚠️ Error leyendo el outbox de Google Calendar: " + e.getMessage());
+            return;
+        }
+        if (filas == null || filas.isEmpty()) return;
+
+        Map<Long, List<CalendarOutbox>> porTurno = new LinkedHashMap<>();
+        for (CalendarOutbox f : filas) {
+            porTurno.computeIfAbsent(f.getIdTurno(), k -> new ArrayList<>()).add(f);
+        }
+        for (List<CalendarOutbox> grupo : porTurno.values()) {
+            try {
+                executor.execute(() -> procesar(grupo));
+            } catch (RejectedExecutionException e) {
+                // Queda reclamado; se retoma cuando vence el lease
+                break;
+            }
+        }
+    }
+
+    private void procesar(List<CalendarOutbox> grupo) {
+        try {
+            sincronizar(grupo);
+            tx.executeWithoutResult(status -> outboxRepository.borrarPorIds(ids(grupo)));
+        } catch (Exception e) {
+            reprogramar(grupo, e);
+        }
+    }
+
+    /** Una sola llamada a Google por turno, con el estado actual. */
+    private void sincronizar(List<CalendarOutbox> grupo) throws Exception {
+        Long idTurno = grupo.get(0).getIdTurno();
+        boolean borrar = false;
+        boolean crear = false;
+        String userId = null;
+        String eventoABorrar = null;
+        for (CalendarOutbox f : grupo) {
+            if (CalendarOutbox.BORRAR.equals(f.getOperacion())) borrar = true;
+            if (CalendarOutbox.CREAR.equals(f.getOperacion())) crear = true;
+            if (f.getUserId() != null) userId = f.getUserId();
+            if (f.getGoogleEventId() != null) eventoABorrar = f.getGoogleEventId();
+        }
+
+        Evento evento = tx.execute(status -> turnoRepository.findById(idTurno).map(this::evento).orElse(null));
+        if (userId == null && evento != null) userId = evento.userId;
+
+        if (borrar) {
+            // El evento puede haberse creado después de encolar el borrado
+            String eventId = eventoABorrar != null ? eventoABorrar : (evento != null ? evento.googleEventId : null);
+            if (eventId != null && userId != null) borrarEvento(userId, eventId);
+            return;
+        }
+
+        if (evento == null || evento.eliminado || userId == null) return;
+
+        if (evento.googleEventId != null) {
+            calendar.updateEvent(userId, evento.googleEventId, evento.titulo, evento.descripcion,
+                    evento.inicio, evento.fin);
+        } else if (crear) {
+            String nuevoId = calendar.createEvent(userId, evento.titulo, evento.descripcion,
+                    evento.inicio, evento.fin).getId();
+            Integer asignados = tx.execute(status -> turnoRepository.asignarGoogleEventId(idTurno, nuevoId));
+            // Borrado mientras se creaba: no dejar el evento huérfano
+            if (asignados == null || asignados == 0) borrarEvento(userId, nuevoId);
+        }
+    }
+
+    private void borrarEvento(String userId, String eventId) throws Exception {
+        try {
+            calendar.deleteEvent(userId, eventId);
+        } catch (GoogleJsonResponseException e) {
+            // Ya no existe en Google: nada que reintentar
+            if (e.getStatusCode() != 404 && e.getStatusCode() != 410) throw e;
+        }
+    }
+
+    private void reprogramar(List<CalendarOutbox> grupo, Exception error) {
+        String mensaje = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        try {
+            tx.executeWithoutResult(status -> {
+                OffsetDateTime ahora = OffsetDateTime.now();
+                for (CalendarOutbox f : outboxRepository.findAllById(ids(grupo))) {
+                    int intentos = f.getIntentos() + 1;
+                    f.setIntentos(intentos);
+                    f.setLote(null);
+                    f.setUltimoError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+                    f.setProximoIntento(ahora.plus(backoff(intentos)));
+                    if (intentos >= maxIntentos) f.setEstado(CalendarOutbox.FALLIDO);
+                }
+            });
+        } catch (Exception e) {
+            // Si ni eso se pudo guardar, el lease vence y se reintenta igual
+            System.err.println("⚠️ No se pudo reprogramar el outbox de Google Calendar: " + e.getMessage());
+        }
+        System.err.println("⚠️ Error sincronizando turno " + grupo.get(0).getIdTurno()
+                + " con Google Calendar: " + mensaje);
+    }
+
+    // base * 2^(intentos-1), con tope y ±20% de jitter para no reintentar todos juntos
+    private Duration backoff(int intentos) {
+        long ms = backoffBaseMs << Math.min(intentos - 1, 20);
+        ms = Math.min(backoffMaxMs, ms);
+        ms += (long) (ms * ThreadLocalRandom.current().nextDouble(-0.2, 0.2));
+        return Duration.ofMillis(Math.max(backoffBaseMs, ms));
+    }
+
+    private static List<Long> ids(List<CalendarOutbox> grupo) {
+        return grupo.stream().map(CalendarOutbox::getId).collect(Collectors.toList());
+    }
+
+    // ============================================================
+    // ================ ARMADO DEL EVENTO =========================
+    // ============================================================
+
+    private record Evento(String googleEventId, boolean eliminado, String userId, String titulo,
+                          String descripcion, ZonedDateTime inicio, ZonedDateTime fin) {}
+
+    // Dentro de la transacción: recorre entrenador, usuario y alumnos del turno
+    private Evento evento(Turno turno) {
+        Usuario usuario = (turno.getEntrenador() != null) ? turno.getEntrenador().getUsuario() : null;
+        String userId = (usuario != null && usuario.getId_usuario() != null)
+                ? usuario.getId_usuario().toString()
+                : null;
+        return new Evento(
+                turno.getGoogleEventId(),
+                turno.getDeleted_at() != null,
+                userId,
+                buildEventSummary(turno),
+                buildEventDescription(turno),
+                turno.getFecha().toZonedDateTime(),
+                turno.getFecha().plusHours(1).toZonedDateTime());
+    }
+
+    private String buildEventSummary(Turno turno) {
+        String tipo = (turno.getTipoTurno() != null) ? turno.getTipoTurno().getNombre() : "Turno";
+        Usuario usuario = (turno.getEntrenador() != null) ? turno.getEntrenador().getUsuario() : null;
+        String entrenadorNombre = (usuario != null && usuario.getNombre() != null)
+                ? usuario.getNombre()
+                : "Entrenador";
+        return tipo + " con " + entrenadorNombre;
+    }
+
+    private String buildEventDescription(Turno turno) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm", Locale.getDefault());
+        ZonedDateTime start = turno.getFecha().toZonedDateTime();
+        StringBuilder description = new StringBuilder();
+        description.append("Turno programado para el ")
+                .append(start.format(formatter))
+                .append(".");
+
+        List<String> alumnos = (turno.getAlumnos() != null)
+                ? turno.getAlumnos().stream().map(Alumno::getNombre).collect(Collectors.toList())
+                : Collections.emptyList();
+
+        if (alumnos.isEmpty()) {
+            description.append("\nSin alumnos asignados todavía.");
+        } else {
+            description.append("\nAlumnos: ")
+                    .append(String.join(", ", alumnos));
+        }
+
+        return description.toString();
+    }
+}
@@ -1,45 +1,39 @@
 package com.grindsup.backend.service;
 
 import java.io.ByteArrayOutputStream;
-import java.awt.Color;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.grindsup.backend.DTO.AltasBajasMesDTO;
 import com.grindsup.backend.DTO.RatingBucketDTO;
 import com.grindsup.backend.DTO.RatingMesDTO;
 import com.grindsup.backend.DTO.ReporteProgresoPlanesDTO;
+import com.grindsup.backend.DTO.RetencionCohorteDTO;
+import com.grindsup.backend.DTO.RetencionCohortesDTO;
 import com.grindsup.backend.model.Entrenador;
 import com.grindsup.backend.repository.EntrenadorRepository;
+import com.grindsup.backend.service.ReportLayoutRegistry.Layout;
+
+import jakarta.persistence.EntityNotFoundException;
 
-import net.sf.dynamicreports.jasper.builder.JasperReportBuilder;
-import net.sf.dynamicreports.report.builder.DynamicReports;
-import net.sf.dynamicreports.report.builder.chart.PieChartBuilder;
-import net.sf.dynamicreports.report.builder.chart.BarChartBuilder;
-import net.sf.dynamicreports.report.builder.column.Columns;
-import net.sf.dynamicreports.report.builder.column.TextColumnBuilder;
-import net.sf.dynamicreports.report.builder.component.Components;
-import net.sf.dynamicreports.report.builder.datatype.DataTypes;
-import net.sf.dynamicreports.report.builder.style.StyleBuilder;
-import net.sf.dynamicreports.report.builder.style.Styles;
-import net.sf.dynamicreports.report.constant.HorizontalAlignment;
-import net.sf.dynamicreports.report.constant.HorizontalTextAlignment;
-import net.sf.dynamicreports.report.constant.VerticalTextAlignment;
 import net.sf.dynamicreports.report.datasource.DRDataSource;
 
-import static net.sf.dynamicreports.report.builder.DynamicReports.*;
+import static com.grindsup.backend.service.ReportLayoutRegistry.*;
 
 @Service
 public class DynamicsReportService {
 
+    private static final DateTimeFormatter FECHA_GEN =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     @Autowired
     private ReporteService reportService;
 
@@ -49,15 +43,40 @@ public class DynamicsReportService {
     @Autowired
     private EntrenadorRepository entrenadorRepository;
 
+    @Autowired
+    private RetencionCohortesService retencionCohortesService;
+
+    // Layouts precompilados (ver ReportLayoutRegistry)
+    @Autowired
+    private ReportLayoutRegistry layoutRegistry;
+
     // ============================================================
     // ========== 1) REPORTE PROGRESO PLANES DEL ALUMNO ===========
     // ============================================================
 
     public byte[] buildReporteProgresoPlanesPdf(Long idAlumno) {
-        try {
-            ReporteProgresoPlanesDTO datos =
-                    reportService.generarReporteProgresoPlanesDeAlumno(idAlumno);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeReporteProgresoPlanesPdf(idAlumno, baos);
+        return baos.toByteArray();
+    }
 
+    /** Igual que {@link #buildReporteProgresoPlanesPdf} pero escribe el PDF directo en {@code out}. */
+    public void writeReporteProgresoPlanesPdf(Long idAlumno, OutputStream out) {
+        escribir(prepararReporteProgresoPlanesPdf(idAlumno), out);
+    }
+
+    /**
+     * Carga los datos del alumno y devuelve solo el paso de render. Un alumno
+     * inexistente falla acá (EntityNotFoundException), antes de escribir nada.
+     */
+    public ReportJobService.Render prepararReporteProgresoPlanesPdf(Long idAlumno) {
+        ReporteProgresoPlanesDTO datos = reportService.generarReporteProgresoPlanesDeAlumno(idAlumno);
+        return out -> writeReporteProgresoPlanesPdf(datos, out);
+    }
+
+    /** Renderiza el reporte de progreso con datos ya calculados (lo usa la exportación ZIP). */
+    public void writeReporteProgresoPlanesPdf(ReporteProgresoPlanesDTO datos, OutputStream out) {
+        try {
             // --- Datos del entrenador (con defaults seguros) ---
             String entNom =
                     datos.getEntrenadorNombre() != null ? datos.getEntrenadorNombre() : "—";
@@ -66,53 +85,6 @@ public class DynamicsReportService {
             String entTel =
                     datos.getEntrenadorTelefono() != null ? datos.getEntrenadorTelefono() : "—";
 
-            // ================== ESTILOS BASE ==================
-            StyleBuilder base = stl.style().setFontSize(10);
-
-            StyleBuilder brandStyle = stl.style(base)
-                    .bold()
-                    .setFontSize(20)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#258d19"));
-
-            StyleBuilder titleStyle = stl.style(base)
-                    .bold()
-                    .setFontSize(16)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#1B5E20"));
-
-            StyleBuilder metaStyle = stl.style(base)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.DARK_GRAY);
-
-            StyleBuilder tableHeader = stl.style(base)
-                    .bold()
-                    .setBackgroundColor(Color.decode("#2E7D32"))
-                    .setForegroundColor(Color.WHITE)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setVerticalTextAlignment(VerticalTextAlignment.MIDDLE)
-                    .setBorder(stl.penThin());
-
-            StyleBuilder tableCell = stl.style(base)
-                    .setBorder(stl.pen1Point())
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
-
-            // ================== LOGO + BARRA ==================
-            var logoUrl = getClass().getResource("/static/logo-grindsup.png");
-            var logo = (logoUrl != null)
-                    ? Components.image(logoUrl).setFixedDimension(60, 60)
-                    : Components.image("logo-grindsup.png").setFixedDimension(60, 60);
-
-            StyleBuilder headerBarStyle = stl.style()
-                    .setBackgroundColor(Color.decode("#2e7d32"));
-
-            var headerBar = Components.filler()
-                    .setStyle(headerBarStyle)
-                    .setFixedHeight(4);
-
-            String fechaGen = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-
             // ================== DATOS TABLA ==================
             DRDataSource tableData = new DRDataSource(
                     "alumno", "total", "completas", "incompletas", "enProceso", "porcentaje"
@@ -128,86 +100,28 @@ public class DynamicsReportService {
             );
 
             // ================== GRÁFICO ==================
-            TextColumnBuilder<String> estadoCol =
-                    Columns.column("Estado", "estado", DataTypes.stringType());
-            TextColumnBuilder<Integer> cantCol =
-                    Columns.column("Cantidad", "cantidad", DataTypes.integerType());
-
             DRDataSource chartData = new DRDataSource("estado", "cantidad");
             chartData.add("Completas", (int) datos.getCompletadas());
             chartData.add("En Proceso", (int) datos.getEnProceso());
             chartData.add("Incompletas", (int) datos.getIncompletas());
 
-            PieChartBuilder pie = DynamicReports.cht.pieChart()
-                    .setKey(estadoCol)
-                    .series(DynamicReports.cht.serie(cantCol))
-                    .setTitle("Distribución de rutinas")
-                    .setTitleFont(Styles.fontArialBold().setFontSize(12))
-                    .setDataSource(chartData);
-
-            // ================== HEADER ==================
-            var header = Components.horizontalList(
-                    logo,
-                    Components.verticalList(
-                            Components.text("GrindSup").setStyle(brandStyle),
-                            Components.text("Reporte de Progreso del Alumno")
-                                    .setStyle(titleStyle),
-                            Components.text("Generado el: " + fechaGen)
-                                    .setStyle(metaStyle),
-                            Components.text(
-                                    "Entrenador: " + entNom +
-                                    "  |  Email: " + entEmail +
-                                    "  |  Teléfono: " + entTel
-                            ).setStyle(metaStyle)
-                    )
-            ).setFixedHeight(70);
-
-            // ================== RESUMEN ==================
-            var resumen = Components.horizontalList(
-                    Components.text("Total rutinas: " + (int) datos.getTotalRutinas()),
-                    Components.text("Completas: " + (int) datos.getCompletadas()),
-                    Components.text("En proceso: " + (int) datos.getEnProceso()),
-                    Components.text("Incompletas: " + (int) datos.getIncompletas()),
-                    Components.text(String.format("Cumplimiento: %.2f%%",
-                            datos.getPorcentajeCumplimiento()))
-            ).setStyle(metaStyle);
-
-            // ================== REPORTE ==================
-            JasperReportBuilder report = DynamicReports.report()
-                    .setColumnTitleStyle(tableHeader)
-                    .setColumnStyle(tableCell)
-                    .title(
-                            header,
-                            Components.verticalGap(10),
-                            Components.text("Alumno: " + datos.getNombreAlumno())
-                                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER),
-                            Components.verticalGap(5),
-                            resumen,
-                            Components.verticalGap(10),
-                            headerBar,
-                            Components.verticalGap(10)
-                    )
-                    .columns(
-                            Columns.column("Alumno", "alumno", DataTypes.stringType()),
-                            Columns.column("Total Rutinas", "total", DataTypes.integerType()),
-                            Columns.column("Completas", "completas", DataTypes.integerType()),
-                            Columns.column("Incompletas", "incompletas", DataTypes.integerType()),
-                            Columns.column("En Proceso", "enProceso", DataTypes.integerType()),
-                            Columns.column("% Cumplimiento", "porcentaje",
-                                    DataTypes.stringType())
-                    )
-                    .summary(
-                            Components.verticalGap(10),
-                            Components.text("Distribución de rutinas")
-                                    .setStyle(titleStyle),
-                            pie
-                    )
-                    .pageFooter(Components.pageXofY())
-                    .setDataSource(tableData);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            report.toPdf(baos);
-            return baos.toByteArray();
+            // ================== PARÁMETROS ==================
+            Map<String, Object> params = new HashMap<>();
+            params.put(P_GENERADO, "Generado el: " + LocalDateTime.now().format(FECHA_GEN));
+            params.put(P_ENTRENADOR,
+                    "Entrenador: " + entNom +
+                    "  |  Email: " + entEmail +
+                    "  |  Teléfono: " + entTel);
+            params.put(P_ALUMNO, "Alumno: " + datos.getNombreAlumno());
+            params.put(P_RES_TOTAL, "Total rutinas: " + (int) datos.getTotalRutinas());
+            params.put(P_RES_COMPLETAS, "Completas: " + (int) datos.getCompletadas());
+            params.put(P_RES_EN_PROCESO, "En proceso: " + (int) datos.getEnProceso());
+            params.put(P_RES_INCOMPLETAS, "Incompletas: " + (int) datos.getIncompletas());
+            params.put(P_RES_CUMPLIMIENTO, String.format("Cumplimiento: %.2f%%",
+                    datos.getPorcentajeCumplimiento()));
+            params.put(P_CHART_ESTADOS, chartData);
+
+            layoutRegistry.fillPdf(Layout.PROGRESO_PLANES, params, tableData, out);
 
         } catch (Exception e) {
             throw new RuntimeException("Error generando el reporte PDF de progreso de planes", e);
@@ -221,199 +135,77 @@ public class DynamicsReportService {
     public byte[] buildReporteAltasBajasAlumnosPdf(Long entrenadorId,
                                                    YearMonth fromYm,
                                                    YearMonth toYm) {
-        try {
-            if (entrenadorId == null) {
-                throw new IllegalArgumentException("entrenadorId es requerido");
-            }
-
-            YearMonth desde = (fromYm != null) ? fromYm : YearMonth.now().minusMonths(1);
-            YearMonth hasta = (toYm != null) ? toYm : YearMonth.now();
-
-            if (hasta.isBefore(desde)) {
-                YearMonth tmp = desde;
-                desde = hasta;
-                hasta = tmp;
-            }
-
-            LocalDate fromDate = desde.atDay(1);
-            LocalDate toExcl = hasta.plusMonths(1).atDay(1);
-
-            // Datos crudos desde StatsService
-            List<AltasBajasMesDTO> altasBajas =
-                    statsService.altasBajasPorMes(entrenadorId, fromDate, toExcl);
-            List<AltasBajasMesDTO> activosList =
-                    statsService.activosFinDeMes(entrenadorId, fromDate, toExcl);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeReporteAltasBajasAlumnosPdf(entrenadorId, fromYm, toYm, baos);
+        return baos.toByteArray();
+    }
 
-            // === Merge por mes: month -> [altas, bajas, activos] ===
-            Map<String, long[]> porMes = new TreeMap<>(); // ordenado YYYY-MM
+    public void writeReporteAltasBajasAlumnosPdf(Long entrenadorId,
+                                                 YearMonth fromYm,
+                                                 YearMonth toYm,
+                                                 OutputStream out) {
+        escribir(prepararReporteAltasBajasAlumnosPdf(entrenadorId, fromYm, toYm), out);
+    }
 
-            for (AltasBajasMesDTO ab : altasBajas) {
-                if (ab == null || ab.getMonth() == null) continue;
-                long[] arr = porMes.computeIfAbsent(ab.getMonth(), m -> new long[3]);
-                arr[0] = ab.getAltas() != null ? ab.getAltas() : 0L;
-                arr[1] = ab.getBajas() != null ? ab.getBajas() : 0L;
-            }
+    /** Valida, resuelve el entrenador y consulta los datos; el render queda para después. */
+    public ReportJobService.Render prepararReporteAltasBajasAlumnosPdf(Long entrenadorId,
+                                                                      YearMonth fromYm,
+                                                                      YearMonth toYm) {
+        if (entrenadorId == null) {
+            throw new IllegalArgumentException("entrenadorId es requerido");
+        }
 
-            for (AltasBajasMesDTO af : activosList) {
-                if (af == null || af.getMonth() == null) continue;
-                long[] arr = porMes.computeIfAbsent(af.getMonth(), m -> new long[3]);
-                // en activosFinDeMes el campo "altas" representa los activos
-                arr[2] = af.getAltas() != null ? af.getAltas() : 0L;
-            }
+        Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
+                .orElseThrow(() -> new EntityNotFoundException("Entrenador no encontrado"));
 
-            long totalAltas = 0L;
-            long totalBajas = 0L;
+        YearMonth desde = (fromYm != null) ? fromYm : YearMonth.now().minusMonths(1);
+        YearMonth hasta = (toYm != null) ? toYm : YearMonth.now();
 
-            DRDataSource tablaData =
-                    new DRDataSource("mes", "altas", "bajas", "activos");
+        if (hasta.isBefore(desde)) {
+            YearMonth tmp = desde;
+            desde = hasta;
+            hasta = tmp;
+        }
 
-            for (Map.Entry<String, long[]> e : porMes.entrySet()) {
-                String mes = e.getKey();
-                long[] vals = e.getValue();
-                long altas = vals[0];
-                long bajas = vals[1];
-                long activos = vals[2];
+        LocalDate fromDate = desde.atDay(1);
+        LocalDate toExcl = hasta.plusMonths(1).atDay(1);
 
-                totalAltas += altas;
-                totalBajas += bajas;
+        // Altas, bajas y activos en una sola pasada
+        ResumenAlumnos resumen = statsService.resumenAlumnos(entrenadorId, fromDate, toExcl);
 
-                tablaData.add(mes, altas, bajas, activos);
-            }
+        long totalAltas = resumen.totalAltas();
+        long totalBajas = resumen.totalBajas();
 
-            // ================== ESTILOS ==================
-            StyleBuilder base = stl.style().setFontSize(10);
-
-            StyleBuilder brand = stl.style(base)
-                    .bold()
-                    .setFontSize(20)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#258d19"));
-
-            StyleBuilder title = stl.style(base)
-                    .bold()
-                    .setFontSize(16)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#1B5E20"));
-
-            StyleBuilder meta = stl.style(base)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.DARK_GRAY);
-
-            StyleBuilder tableHeader = stl.style(base)
-                    .bold()
-                    .setBackgroundColor(Color.decode("#2E7D32"))
-                    .setForegroundColor(Color.WHITE)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setVerticalTextAlignment(VerticalTextAlignment.MIDDLE)
-                    .setBorder(stl.penThin());
-
-            StyleBuilder tableCell = stl.style(base)
-                    .setBorder(stl.pen1Point())
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
-
-            // ================== LOGO + HEADER ==================
-            var logoUrl2 = getClass().getResource("/static/logo-grindsup.png");
-            var logo2 = (logoUrl2 != null)
-                    ? Components.image(logoUrl2).setFixedDimension(60, 60)
-                    : Components.image("logo-grindsup.png").setFixedDimension(60, 60);
-
-            String fechaGen2 = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-
-            Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
-                    .orElseThrow(() -> new IllegalArgumentException("Entrenador no encontrado"));
-
-            String nombreEntrenador =
-                    (entrenador.getUsuario() != null)
-                            ? entrenador.getUsuario().getNombre() + " " +
-                              entrenador.getUsuario().getApellido()
-                            : "Sin nombre";
-
-            var header2 = Components.horizontalList(
-                    logo2,
-                    Components.verticalList(
-                            Components.text("GrindSup").setStyle(brand),
-                            Components.text("Reporte de Altas, Bajas y Activos de Alumnos")
-                                    .setStyle(title),
-                            Components.text("Generado: " + fechaGen2).setStyle(meta),
-                            Components.text("Entrenador: " + nombreEntrenador).setStyle(meta),
-                            Components.text(String.format("Periodo: %s a %s",
-                                    desde.toString(), hasta.toString()))
-                                    .setStyle(meta)
-                    )
-            ).setFixedHeight(70);
-
-            var resumen2 = Components.horizontalList(
-                    Components.text("Total Altas: " + totalAltas),
-                    Components.text("Total Bajas: " + totalBajas)
-            ).setStyle(meta);
-
-            // ================== COLUMNAS TABLA ==================
-            TextColumnBuilder<String> mesCol =
-                    Columns.column("Mes", "mes", DataTypes.stringType());
-            TextColumnBuilder<Long> altasCol =
-                    Columns.column("Altas", "altas", DataTypes.longType());
-            TextColumnBuilder<Long> bajasCol =
-                    Columns.column("Bajas", "bajas", DataTypes.longType());
-            TextColumnBuilder<Long> activosCol =
-                    Columns.column("Activos fin de mes", "activos", DataTypes.longType());
-
-            // ================== GRÁFICO BARRAS ==================
-            BarChartBuilder barChart = DynamicReports.cht.barChart()
-                    .setCategory(mesCol)
-                    .series(
-                            DynamicReports.cht.serie(altasCol),
-                            DynamicReports.cht.serie(bajasCol),
-                            DynamicReports.cht.serie(activosCol)
-                    )
-                    .setTitle("Altas, bajas y activos por mes")
-                    .setTitleFont(Styles.fontArialBold().setFontSize(12))
-                    .setDataSource(tablaData);
-
-            // ================== GRÁFICO TORTA ALTAS/BAJAS ==================
-            TextColumnBuilder<String> tipoCol =
-                    Columns.column("Tipo", "tipo", DataTypes.stringType());
-            TextColumnBuilder<Long> cantCol =
-                    Columns.column("Cantidad", "cantidad", DataTypes.longType());
-
-            DRDataSource pieData = new DRDataSource("tipo", "cantidad");
-            pieData.add("Altas", totalAltas);
-            pieData.add("Bajas", totalBajas);
-
-            PieChartBuilder pieChart = DynamicReports.cht.pieChart()
-                    .setKey(tipoCol)
-                    .series(DynamicReports.cht.serie(cantCol))
-                    .setTitle("Distribución total Altas vs Bajas")
-                    .setTitleFont(Styles.fontArialBold().setFontSize(12))
-                    .setDataSource(pieData);
-
-            // ================== REPORTE ==================
-            JasperReportBuilder report2 = DynamicReports.report()
-                    .setColumnTitleStyle(tableHeader)
-                    .setColumnStyle(tableCell)
-                    .title(
-                            header2,
-                            Components.verticalGap(10),
-                            resumen2,
-                            Components.verticalGap(10)
-                    )
-                    .columns(mesCol, altasCol, bajasCol, activosCol)
-                    .setDataSource(tablaData)
-                    .summary(
-                            Components.verticalGap(10),
-                            barChart,
-                            Components.verticalGap(10),
-                            pieChart
-                    )
-                    .pageFooter(Components.pageXofY());
-
-            ByteArrayOutputStream baos2 = new ByteArrayOutputStream();
-            report2.toPdf(baos2);
-            return baos2.toByteArray();
+        // La tabla y el gráfico de barras consumen los mismos datos,
+        // pero cada fill necesita su propio data source.
+        DRDataSource tablaData =
+                new DRDataSource("mes", "altas", "bajas", "activos");
+        DRDataSource barData =
+                new DRDataSource("mes", "altas", "bajas", "activos");
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error generando PDF de alumnos (altas/bajas/activos)", e);
+        for (int i = 0; i < resumen.periodos(); i++) {
+            String mes = resumen.periodo(i);
+            tablaData.add(mes, resumen.altas(i), resumen.bajas(i), resumen.activos(i));
+            barData.add(mes, resumen.altas(i), resumen.bajas(i), resumen.activos(i));
         }
+
+        DRDataSource pieData = new DRDataSource("tipo", "cantidad");
+        pieData.add("Altas", totalAltas);
+        pieData.add("Bajas", totalBajas);
+
+        // ================== PARÁMETROS ==================
+        Map<String, Object> params = new HashMap<>();
+        params.put(P_GENERADO, "Generado: " + LocalDateTime.now().format(FECHA_GEN));
+        params.put(P_ENTRENADOR, "Entrenador: " + nombreEntrenador(entrenador));
+        params.put(P_PERIODO, String.format("Periodo: %s a %s",
+                desde.toString(), hasta.toString()));
+        params.put(P_RES_ALTAS, "Total Altas: " + totalAltas);
+        params.put(P_RES_BAJAS, "Total Bajas: " + totalBajas);
+        params.put(P_CHART_MESES, barData);
+        params.put(P_CHART_ALTAS_BAJAS, pieData);
+
+        return out -> fill(Layout.ALTAS_BAJAS_ALUMNOS, params, tablaData, out,
+                "Error generando PDF de alumnos (altas/bajas/activos)");
     }
 
     // ============================================================
@@ -423,173 +215,200 @@ public class DynamicsReportService {
     public byte[] buildReporteRatingsEntrenadorPdf(Long entrenadorId,
                                                    YearMonth fromYm,
                                                    YearMonth toYm) {
-        try {
-            if (entrenadorId == null) {
-                throw new IllegalArgumentException("entrenadorId es requerido");
-            }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeReporteRatingsEntrenadorPdf(entrenadorId, fromYm, toYm, baos);
+        return baos.toByteArray();
+    }
+
+    public void writeReporteRatingsEntrenadorPdf(Long entrenadorId,
+                                                 YearMonth fromYm,
+                                                 YearMonth toYm,
+                                                 OutputStream out) {
+        escribir(prepararReporteRatingsEntrenadorPdf(entrenadorId, fromYm, toYm), out);
+    }
+
+    /** Valida, resuelve el entrenador y consulta los datos; el render queda para después. */
+    public ReportJobService.Render prepararReporteRatingsEntrenadorPdf(Long entrenadorId,
+                                                                      YearMonth fromYm,
+                                                                      YearMonth toYm) {
+        if (entrenadorId == null) {
+            throw new IllegalArgumentException("entrenadorId es requerido");
+        }
+
+        YearMonth desde = (fromYm != null) ? fromYm : YearMonth.now().minusMonths(1);
+        YearMonth hasta = (toYm != null) ? toYm : YearMonth.now();
+
+        if (hasta.isBefore(desde)) {
+            YearMonth tmp = desde;
+            desde = hasta;
+            hasta = tmp;
+        }
+
+        LocalDate fromDate = desde.atDay(1);
+        LocalDate toExcl = hasta.plusMonths(1).atDay(1);
+
+        Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
+                .orElseThrow(() -> new EntityNotFoundException("Entrenador no encontrado"));
+
+        List<RatingMesDTO> mensual =
+                statsService.planesRatingMensual(entrenadorId, fromDate, toExcl);
+        List<RatingBucketDTO> buckets =
+                statsService.planesRatingDistribucion(entrenadorId, fromDate, toExcl);
+
+        long totalEvaluaciones = mensual.stream()
+                .mapToLong(m -> m.count() == null ? 0 : m.count())
+                .sum();
+
+        double weighted = mensual.stream()
+                .mapToDouble(m -> (m.avg() == null ? 0.0 : m.avg())
+                        * (m.count() == null ? 0 : m.count()))
+                .sum();
+
+        double promedioGlobal = totalEvaluaciones > 0
+                ? weighted / totalEvaluaciones
+                : 0.0;
+
+        // ================== DATASETS ==================
+        DRDataSource mensualData = new DRDataSource("mes", "promedio", "evaluaciones");
+        mensual.forEach(m -> mensualData.add(
+                m.month(),
+                m.avg() == null ? 0.0 : m.avg(),
+                m.count() == null ? 0L : m.count()
+        ));
+
+        DRDataSource bucketData = new DRDataSource("score", "cantidad");
+        buckets.forEach(b -> bucketData.add(
+                String.valueOf(b.score() == null ? 0 : b.score()),
+                b.count() == null ? 0L : b.count()
+        ));
+
+        // ================== PARÁMETROS ==================
+        Map<String, Object> params = new HashMap<>();
+        params.put(P_GENERADO, "Generado: " + LocalDateTime.now().format(FECHA_GEN));
+        params.put(P_ENTRENADOR, "Entrenador: " + nombreEntrenador(entrenador));
+        params.put(P_PERIODO, String.format("Periodo: %s a %s",
+                desde.toString(), hasta.toString()));
+        params.put(P_RES_PROMEDIO, String.format("Promedio global: %.2f", promedioGlobal));
+        params.put(P_RES_EVALUACIONES, "Total evaluaciones: " + totalEvaluaciones);
+        params.put(P_RES_CALIFICADOS, "Planes calificados: " + buckets.stream()
+                .mapToLong(b -> b.count() == null ? 0 : b.count()).sum());
+        params.put(P_CHART_SCORES, bucketData);
+
+        return out -> fill(Layout.RATINGS_ENTRENADOR, params, mensualData, out,
+                "Error generando PDF de reportes del entrenador");
+    }
+
+    // ============================================================
+    // ====== 4) REPORTE RETENCIÓN DE ALUMNOS POR COHORTE =========
+    // ============================================================
+
+    // Columnas fijas del layout: 1, 3, 6 y 12 meses (RetencionCohortesService.MESES_DEFAULT)
+    public void writeReporteRetencionCohortesPdf(Long entrenadorId,
+                                                 YearMonth fromYm,
+                                                 YearMonth toYm,
+                                                 OutputStream out) {
+        escribir(prepararReporteRetencionCohortesPdf(entrenadorId, fromYm, toYm), out);
+    }
 
-            YearMonth desde = (fromYm != null) ? fromYm : YearMonth.now().minusMonths(1);
-            YearMonth hasta = (toYm != null) ? toYm : YearMonth.now();
+    /** Valida, resuelve el entrenador y calcula las cohortes; el render queda para después. */
+    public ReportJobService.Render prepararReporteRetencionCohortesPdf(Long entrenadorId,
+                                                                      YearMonth fromYm,
+                                                                      YearMonth toYm) {
+        if (entrenadorId == null) {
+            throw new IllegalArgumentException("entrenadorId es requerido");
+        }
+
+        YearMonth hasta = (toYm != null) ? toYm : YearMonth.now();
+        YearMonth desde = (fromYm != null) ? fromYm : hasta.minusMonths(11);
+
+        if (hasta.isBefore(desde)) {
+            YearMonth tmp = desde;
+            desde = hasta;
+            hasta = tmp;
+        }
 
-            if (hasta.isBefore(desde)) {
-                YearMonth tmp = desde;
-                desde = hasta;
-                hasta = tmp;
+        Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
+                .orElseThrow(() -> new EntityNotFoundException("Entrenador no encontrado"));
+
+        RetencionCohortesDTO retencion = retencionCohortesService.calcular(entrenadorId,
+                desde.atDay(1), hasta.plusMonths(1).atDay(1), RetencionCohortesService.MESES_DEFAULT);
+        List<Integer> meses = retencion.meses();
+
+        // ================== DATASETS ==================
+        // Por cada k: activos / altas de las cohortes que ya cerraron ese mes
+        long[] activosCerradas = new long[meses.size()];
+        long[] altasCerradas = new long[meses.size()];
+        long totalAltas = 0;
+
+        DRDataSource tablaData = new DRDataSource("cohorte", "altas", "m1", "m3", "m6", "m12");
+        for (RetencionCohorteDTO c : retencion.cohortes()) {
+            totalAltas += c.altas();
+            String[] celdas = new String[meses.size()];
+            for (int j = 0; j < meses.size(); j++) {
+                Long activos = c.activos().get(j);
+                if (activos == null) {
+                    celdas[j] = "—";
+                    continue;
+                }
+                activosCerradas[j] += activos;
+                altasCerradas[j] += c.altas();
+                celdas[j] = c.altas() > 0
+                        ? String.format("%d (%.0f%%)", activos, 100.0 * activos / c.altas())
+                        : "0";
             }
+            tablaData.add(c.month(), c.altas(), celdas[0], celdas[1], celdas[2], celdas[3]);
+        }
+
+        DRDataSource barData = new DRDataSource("meses", "porcentaje");
+        for (int j = 0; j < meses.size(); j++) {
+            if (altasCerradas[j] == 0) continue;
+            int k = meses.get(j);
+            barData.add(k + (k == 1 ? " mes" : " meses"), 100.0 * activosCerradas[j] / altasCerradas[j]);
+        }
+
+        // ================== PARÁMETROS ==================
+        int j3 = meses.indexOf(3);
+        Map<String, Object> params = new HashMap<>();
+        params.put(P_GENERADO, "Generado: " + LocalDateTime.now().format(FECHA_GEN));
+        params.put(P_ENTRENADOR, "Entrenador: " + nombreEntrenador(entrenador));
+        params.put(P_PERIODO, String.format("Cohortes: %s a %s",
+                desde.toString(), hasta.toString()));
+        params.put(P_RES_COHORTES, "Alumnos en las cohortes: " + totalAltas);
+        params.put(P_RES_RETENCION, altasCerradas[j3] > 0
+                ? String.format("Retención a 3 meses: %.1f%%", 100.0 * activosCerradas[j3] / altasCerradas[j3])
+                : "Retención a 3 meses: —");
+        params.put(P_CHART_RETENCION, barData);
+
+        return out -> fill(Layout.RETENCION_COHORTES, params, tablaData, out,
+                "Error generando PDF de retención por cohorte");
+    }
 
-            LocalDate fromDate = desde.atDay(1);
-            LocalDate toExcl = hasta.plusMonths(1).atDay(1);
-
-            Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
-                    .orElseThrow(() -> new IllegalArgumentException("Entrenador no encontrado"));
-
-            List<RatingMesDTO> mensual =
-                    statsService.planesRatingMensual(entrenadorId, fromDate, toExcl);
-            List<RatingBucketDTO> buckets =
-                    statsService.planesRatingDistribucion(entrenadorId, fromDate, toExcl);
-
-            long totalEvaluaciones = mensual.stream()
-                    .mapToLong(m -> m.count() == null ? 0 : m.count())
-                    .sum();
-
-            double weighted = mensual.stream()
-                    .mapToDouble(m -> (m.avg() == null ? 0.0 : m.avg())
-                            * (m.count() == null ? 0 : m.count()))
-                    .sum();
-
-            double promedioGlobal = totalEvaluaciones > 0
-                    ? weighted / totalEvaluaciones
-                    : 0.0;
-
-            // ================== DATASETS ==================
-            DRDataSource mensualData = new DRDataSource("mes", "promedio", "evaluaciones");
-            mensual.forEach(m -> mensualData.add(
-                    m.month(),
-                    m.avg() == null ? 0.0 : m.avg(),
-                    m.count() == null ? 0L : m.count()
-            ));
-
-            DRDataSource bucketData = new DRDataSource("score", "cantidad");
-            buckets.forEach(b -> bucketData.add(
-                    String.valueOf(b.score() == null ? 0 : b.score()),
-                    b.count() == null ? 0L : b.count()
-            ));
-
-            // ================== ESTILOS ==================
-            StyleBuilder bold = stl.style().bold();
-
-            StyleBuilder brand = stl.style(bold)
-                    .setFontSize(20)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#258d19"));
-
-            StyleBuilder title = stl.style(bold)
-                    .setFontSize(16)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.decode("#1B5E20"));
-
-            StyleBuilder meta = stl.style()
-                    .setFontSize(10)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setForegroundColor(Color.DARK_GRAY);
-
-            StyleBuilder tableHeader = stl.style(bold)
-                    .setBackgroundColor(Color.decode("#2E7D32"))
-                    .setForegroundColor(Color.WHITE)
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
-                    .setVerticalTextAlignment(VerticalTextAlignment.MIDDLE)
-                    .setBorder(stl.penThin());
-
-            StyleBuilder tableCell = stl.style()
-                    .setFontSize(10)
-                    .setBorder(stl.pen1Point())
-                    .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
-
-            // ================== COLUMNAS ==================
-            TextColumnBuilder<String> mesCol =
-                    Columns.column("Mes", "mes", DataTypes.stringType());
-            TextColumnBuilder<Double> promCol =
-                    Columns.column("Promedio", "promedio", DataTypes.doubleType());
-            TextColumnBuilder<Long> evalCol =
-                    Columns.column("Evaluaciones", "evaluaciones", DataTypes.longType());
-
-            TextColumnBuilder<String> bucketScore =
-                    Columns.column("Score", "score", DataTypes.stringType());
-            TextColumnBuilder<Long> bucketCantidad =
-                    Columns.column("Cantidad", "cantidad", DataTypes.longType());
-
-            // ================== LOGO + HEADER ==================
-            var logoUrl3 = getClass().getResource("/static/logo-grindsup.png");
-            var logo3 = (logoUrl3 != null)
-                    ? Components.image(logoUrl3)
-                        .setHorizontalAlignment(HorizontalAlignment.LEFT)
-                        .setFixedDimension(60, 60)
-                    : Components.image("logo-grindsup.png")
-                        .setHorizontalAlignment(HorizontalAlignment.LEFT)
-                        .setFixedDimension(60, 60);
-
-            String fechaGen3 = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-
-            String nombreEntrenador2 =
-                    (entrenador.getUsuario() != null)
-                            ? entrenador.getUsuario().getNombre() + " " +
-                              entrenador.getUsuario().getApellido()
-                            : "Sin nombre";
-
-            var header3 = Components.horizontalList(
-                    logo3,
-                    Components.verticalList(
-                            Components.text("GrindSup").setStyle(brand),
-                            Components.text("Reporte de Evaluaciones de Planes por Entrenador")
-                                    .setStyle(title),
-                            Components.text("Generado: " + fechaGen3).setStyle(meta),
-                            Components.text("Entrenador: " + nombreEntrenador2)
-                                    .setStyle(meta),
-                            Components.text(String.format("Periodo: %s a %s",
-                                    desde.toString(), hasta.toString()))
-                                    .setStyle(meta)
-                    )
-            ).setFixedHeight(70);
-
-            var resumen3 = Components.horizontalList(
-                    Components.text(String.format("Promedio global: %.2f", promedioGlobal)),
-                    Components.text("Total evaluaciones: " + totalEvaluaciones),
-                    Components.text("Planes calificados: " + buckets.stream()
-                            .mapToLong(b -> b.count() == null ? 0 : b.count()).sum())
-            ).setStyle(meta);
-
-            // ================== GRÁFICO BARRAS ==================
-            BarChartBuilder bucketChart = DynamicReports.cht.barChart()
-                    .setCategory(bucketScore)
-                    .series(DynamicReports.cht.serie(bucketCantidad))
-                    .setTitle("Distribución de puntajes")
-                    .setTitleFont(Styles.fontArialBold().setFontSize(12))
-                    .setDataSource(bucketData);
-
-            JasperReportBuilder report3 = DynamicReports.report()
-                    .setColumnTitleStyle(tableHeader)
-                    .setColumnStyle(tableCell)
-                    .title(
-                            header3,
-                            Components.verticalGap(10),
-                            resumen3,
-                            Components.verticalGap(10)
-                    )
-                    .columns(mesCol, promCol, evalCol)
-                    .setDataSource(mensualData)
-                    .summary(
-                            Components.verticalGap(10),
-                            bucketChart
-                    )
-                    .pageFooter(Components.pageXofY());
-
-            ByteArrayOutputStream baos3 = new ByteArrayOutputStream();
-            report3.toPdf(baos3);
-            return baos3.toByteArray();
+    // ===== helpers =====
+    private void fill(Layout layout, Map<String, Object> params, DRDataSource data,
+                      OutputStream out, String error) {
+        try {
+            layoutRegistry.fillPdf(layout, params, data, out);
+        } catch (RenderBulkhead.Rechazo e) {
+            throw e; // sin envolver: el controller lo mapea a 503
+        } catch (Exception e) {
+            throw new RuntimeException(error, e);
+        }
+    }
 
+    private static void escribir(ReportJobService.Render render, OutputStream out) {
+        try {
+            render.writeTo(out);
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Error generando PDF de reportes del entrenador", e);
+            throw new RuntimeException(e);
         }
     }
+
+    private String nombreEntrenador(Entrenador entrenador) {
+        return (entrenador.getUsuario() != null)
+                ? entrenador.getUsuario().getNombre() + " " +
+                  entrenador.getUsuario().getApellido()
+                : "Sin nombre";
+    }
 }
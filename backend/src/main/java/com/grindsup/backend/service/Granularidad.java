@@ -0,0 +1,73 @@
+package com.grindsup.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Tamaño de los períodos de las series de estadísticas.
+ * Semanas ISO (arrancan el lunes) y trimestres calendario.
+ */
+public enum Granularidad {
+
+    DIA("dia", "day"),
+    SEMANA("semana", "week"),
+    MES("mes", "month"),
+    TRIMESTRE("trimestre", "quarter");
+
+    private final String clave;
+    private final String alias;
+
+    Granularidad(String clave, String alias) {
+        this.clave = clave;
+        this.alias = alias;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    /** Primer día del período que contiene {@code dia}. */
+    public LocalDate inicio(LocalDate dia) {
+        return switch (this) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+            case TRIMESTRE -> LocalDate.of(dia.getYear(), (dia.getMonthValue() - 1) / 3 * 3 + 1, 1);
+        };
+    }
+
+    /** Primer día del período siguiente (recibe un inicio de período). */
+    public LocalDate siguiente(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+            case TRIMESTRE -> inicio.plusMonths(3);
+        };
+    }
+
+    /** 2025-03-14 | 2025-W11 | 2025-03 | 2025-Q1 */
+    public String etiqueta(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.toString();
+            case SEMANA -> String.format("%d-W%02d",
+                    inicio.get(IsoFields.WEEK_BASED_YEAR), inicio.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MES -> YearMonth.from(inicio).toString();
+            case TRIMESTRE -> inicio.getYear() + "-Q" + inicio.get(IsoFields.QUARTER_OF_YEAR);
+        };
+    }
+
+    /** Acepta el nombre en castellano o en inglés; null/vacío = MES. */
+    public static Granularidad parse(String valor) {
+        if (valor == null || valor.isBlank()) return MES;
+        String v = valor.trim().toLowerCase(Locale.ROOT);
+        for (Granularidad g : values()) {
+            if (g.clave.equals(v) || g.alias.equals(v)) return g;
+        }
+        throw new IllegalArgumentException("Granularidad no soportada: " + valor);
+    }
+}
@@ -7,20 +7,41 @@ import com.grindsup.backend.repository.NotificacionRepository;
 import jakarta.transaction.Transactional;
 
 import com.grindsup.backend.repository.EntrenadorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
 import java.util.List;
+import java.util.TimeZone;
 
 @Service
 public class NotificacionService {
 
     private final NotificacionRepository notificacionRepository;
     private final EntrenadorRepository entrenadorRepository;
+    private final JdbcTemplate jdbc;
+    private final TimeZone zonaJdbc;
+    private final int lote;
 
     public NotificacionService(NotificacionRepository notificacionRepository,
-            EntrenadorRepository entrenadorRepository) {
+            EntrenadorRepository entrenadorRepository,
+            JdbcTemplate jdbc,
+            ZonaHorariaService zonaHorariaService,
+            @Value("${grindsup.notificaciones.lote:500}") int lote) {
         this.notificacionRepository = notificacionRepository;
         this.entrenadorRepository = entrenadorRepository;
+        this.jdbc = jdbc;
+        this.zonaJdbc = TimeZone.getTimeZone(zonaHorariaService.app());
+        this.lote = Math.max(1, lote);
+    }
+
+    /** Notificación a insertar en lote (sin cargar el Entrenador). */
+    public record NotificacionNueva(String titulo, String mensaje, Long entrenadorId,
+            Long idReferencia, String tipoReferencia) {
     }
 
     // ✔️ Crear una notificación SOLO para entrenador
@@ -35,6 +56,35 @@ public class NotificacionService {
         return notificacionRepository.save(noti);
     }
 
+    // ✔️ Alta masiva para los schedulers: un batch JDBC por llamada (con
+    // rewriteBatchedStatements el driver lo manda como un INSERT multi-fila).
+    // Corre en la transacción del llamador; como no hace falta leer los ids
+    // IDENTITY, no pasa por Hibernate. Partir en tramos de tamanioLote().
+    public int insertarEnLote(List<NotificacionNueva> nuevas) {
+        if (nuevas.isEmpty()) return 0;
+        Timestamp ahora = Timestamp.from(Instant.now());
+        jdbc.batchUpdate("""
+                INSERT INTO notificacion
+                    (titulo, mensaje, leida, id_referencia, tipo_referencia, id_entrenador, created_at)
+                VALUES (?, ?, FALSE, ?, ?, ?, ?)
+                """, nuevas, nuevas.size(), (ps, n) -> {
+            ps.setString(1, n.titulo());
+            ps.setString(2, n.mensaje());
+            if (n.idReferencia() != null) ps.setLong(3, n.idReferencia());
+            else ps.setNull(3, Types.BIGINT);
+            ps.setString(4, n.tipoReferencia());
+            ps.setLong(5, n.entrenadorId());
+            // Misma zona con la que Hibernate escribe las fechas (hibernate.jdbc.time_zone)
+            ps.setTimestamp(6, ahora, Calendar.getInstance(zonaJdbc));
+        });
+        return nuevas.size();
+    }
+
+    /** Filas por transacción en las altas masivas. */
+    public int tamanioLote() {
+        return lote;
+    }
+
     // ✔️ Obtener NOTIFICACIONES NO LEÍDAS del entrenador
     public List<Notificacion> obtenerNotificacionesEntrenador(Long entrenadorId) {
         Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
@@ -2,11 +2,13 @@ package com.grindsup.backend.service;
 
 import com.grindsup.backend.model.PlanEntrenamiento;
 import com.grindsup.backend.repository.PlanEntrenamientoRepository;
+import com.grindsup.backend.service.NotificacionService.NotificacionNueva;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -14,26 +16,43 @@ public class PlanEntrenamientoNotificationScheduler {
 
     private final PlanEntrenamientoRepository planEntrenamientoRepository;
     private final NotificacionService notificacionService;
+    private final TransactionTemplate tx;
 
     public PlanEntrenamientoNotificationScheduler(PlanEntrenamientoRepository planEntrenamientoRepository,
-            NotificacionService notificacionService) {
+            NotificacionService notificacionService,
+            TransactionTemplate tx) {
         this.planEntrenamientoRepository = planEntrenamientoRepository;
         this.notificacionService = notificacionService;
+        this.tx = tx;
     }
 
     // 🕒 Ejecutar diariamente a la 12:20 PM
     // Esto asegura que la verificación se hace una vez al día después de la
     // medianoche.
+    // Las notificaciones se arman en una lectura y se insertan en batch, en
+    // tramos de grindsup.notificaciones.lote (una transacción por tramo).
     @Scheduled(cron = "0 20 12 * * *")
-    @Transactional
     public void notificarPlanesPorTerminarHoy() {
 
         LocalDate hoy = LocalDate.now();
 
+        List<NotificacionNueva> nuevas = tx.execute(status -> armarNotificaciones(hoy));
+        if (nuevas == null || nuevas.isEmpty()) return;
+
+        int lote = notificacionService.tamanioLote();
+        for (int desde = 0; desde < nuevas.size(); desde += lote) {
+            List<NotificacionNueva> tramo = nuevas.subList(desde, Math.min(nuevas.size(), desde + lote));
+            tx.executeWithoutResult(status -> notificacionService.insertarEnLote(tramo));
+        }
+    }
+
+    private List<NotificacionNueva> armarNotificaciones(LocalDate hoy) {
+
         // 1. Obtener la lista de planes que terminan hoy y están pendientes.
         List<PlanEntrenamiento> planesPendientes = planEntrenamientoRepository
                 .findPlanesTerminandoHoyYPendientesDeCalificar(hoy);
 
+        List<NotificacionNueva> nuevas = new ArrayList<>(planesPendientes.size());
         for (PlanEntrenamiento plan : planesPendientes) {
 
             // 2. Crear el mensaje de notificación.
@@ -45,13 +64,14 @@ public class PlanEntrenamientoNotificationScheduler {
                     plan.getAlumno().getNombre(),
                     plan.getAlumno().getApellido());
 
-            // 3. Enviar la notificación al entrenador.
-            notificacionService.crearNotificacionParaEntrenador(
+            // 3. Encolar la notificación para el entrenador.
+            nuevas.add(new NotificacionNueva(
                     titulo,
                     mensaje,
-                    plan.getEntrenador(),
+                    plan.getEntrenador().getIdEntrenador(),
                     plan.getId_plan(),
-                    "PLAN");
+                    "PLAN"));
         }
+        return nuevas;
     }
 }
\ No newline at end of file
@@ -1,36 +1,30 @@
 package com.grindsup.backend.service;
 
-import com.grindsup.backend.repository.PlanEvaluacionRepository;
-import com.grindsup.backend.repository.PlanEvaluacionRepository.RatingBucket;
-import com.grindsup.backend.repository.PlanEvaluacionRepository.RatingMes;
+import com.grindsup.backend.DTO.RatingBucketDTO;
+import com.grindsup.backend.DTO.RatingMesDTO;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
 
+// Misma información que StatsService (rollup plan_rating_mes_resumen) con el formato de mapas que usa este endpoint
 @Service
 public class PlanStatsService {
 
-    private final PlanEvaluacionRepository evalRepo;
+    private final StatsService statsService;
 
-    public PlanStatsService(PlanEvaluacionRepository evalRepo) {
-        this.evalRepo = evalRepo;
-    }
-
-    private Date d(LocalDate ld) {
-        return Date.from(ld.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    public PlanStatsService(StatsService statsService) {
+        this.statsService = statsService;
     }
 
     /** Devuelve [{ month, avg, count }] */
     public List<Map<String,Object>> ratingsMensual(Long entId, LocalDate fromIncl, LocalDate toExcl) {
-        List<RatingMes> rows = evalRepo.ratingPromedioMensual(entId, d(fromIncl), d(toExcl));
         List<Map<String,Object>> out = new ArrayList<>();
-        for (RatingMes r : rows) {
+        for (RatingMesDTO r : statsService.planesRatingMensual(entId, fromIncl, toExcl)) {
             Map<String,Object> m = new HashMap<>();
-            m.put("month", r.getMonth());
-            m.put("avg",   r.getAvg());
-            m.put("count", r.getCnt());
+            m.put("month", r.month());
+            m.put("avg",   r.avg());
+            m.put("count", r.count());
             out.add(m);
         }
         return out;
@@ -38,15 +32,11 @@ public class PlanStatsService {
 
     /** Buckets 0..5 → [{ score, count }] (incluye los vacíos) */
     public List<Map<String,Object>> ratingsDistribucion(Long entId, LocalDate fromIncl, LocalDate toExcl) {
-        List<RatingBucket> rows = evalRepo.ratingDistribucion(entId, d(fromIncl), d(toExcl));
-        Map<Integer,Long> map = new HashMap<>();
-        for (RatingBucket b : rows) map.put(b.getScore(), b.getCnt());
-
         List<Map<String,Object>> out = new ArrayList<>();
-        for (int s = 0; s <= 5; s++) {
+        for (RatingBucketDTO b : statsService.planesRatingDistribucion(entId, fromIncl, toExcl)) {
             Map<String,Object> m = new HashMap<>();
-            m.put("score", s);
-            m.put("count", map.getOrDefault(s, 0L));
+            m.put("score", b.score());
+            m.put("count", b.count());
             out.add(m);
         }
         return out;
@@ -0,0 +1,105 @@
+package com.grindsup.backend.service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.grindsup.backend.model.PlanEvaluacion;
+import com.grindsup.backend.repository.PlanEvaluacionRepository;
+import com.grindsup.backend.repository.PlanEvaluacionRepository.RatingMesScore;
+import com.grindsup.backend.repository.PlanRatingMesResumenRepository;
+
+/**
+ * Mantiene el rollup mensual {@code plan_rating_mes_resumen} (suma, cantidad
+ * e histograma 0..5 por entrenador y mes) para que los gráficos de ratings
+ * lean O(meses) filas en lugar de agrupar todas las evaluaciones.
+ *
+ * Toda alta de evaluación tiene que pasar por acá, en la misma transacción
+ * del insert. Las evaluaciones no se editan ni se borran.
+ */
+@Service
+public class RatingResumenService {
+
+    private final PlanRatingMesResumenRepository resumenRepository;
+    private final PlanEvaluacionRepository evalRepository;
+    private final TransactionTemplate tx;
+    private final ZoneId zona;
+    private final boolean backfillAlIniciar;
+
+    public RatingResumenService(PlanRatingMesResumenRepository resumenRepository,
+                                PlanEvaluacionRepository evalRepository,
+                                TransactionTemplate tx,
+                                ZonaHorariaService zonaHorariaService,
+                                @Value("${grindsup.stats.rollup.backfill-al-iniciar:true}") boolean backfillAlIniciar) {
+        this.resumenRepository = resumenRepository;
+        this.evalRepository = evalRepository;
+        this.tx = tx;
+        this.zona = zonaHorariaService.app();
+        this.backfillAlIniciar = backfillAlIniciar;
+    }
+
+    /** Guarda la evaluación y la suma al rollup. */
+    @Transactional
+    public PlanEvaluacion guardar(PlanEvaluacion ev) {
+        PlanEvaluacion saved = evalRepository.save(ev);
+        registrar(saved.getId_entrenador(), saved.getScore(), saved.getCreated_at());
+        return saved;
+    }
+
+    // ============================================================
+    // ====================== RECONSTRUCCIÓN ======================
+    // ============================================================
+
+    /** Rehace el rollup de un entrenador desde plan_evaluacion. */
+    @Transactional
+    public void reconstruir(Long entrenadorId) {
+        reconstruirEntrenador(entrenadorId);
+    }
+
+    /** Rehace el rollup de todos los entrenadores con evaluaciones (una transacción por entrenador). */
+    public int reconstruirTodo() {
+        int n = 0;
+        for (Long entrenadorId : evalRepository.findEntrenadorIds()) {
+            try {
+                tx.executeWithoutResult(status -> reconstruirEntrenador(entrenadorId));
+                n++;
+            } catch (Exception ex) {
+                System.err.println("⚠️ No se pudo reconstruir el resumen de ratings del entrenador "
+                        + entrenadorId + ": " + ex.getMessage());
+            }
+        }
+        return n;
+    }
+
+    // Backfill inicial: si la tabla está vacía (primer deploy) se llena desde plan_evaluacion
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillAlIniciar || resumenRepository.count() > 0) return;
+        int n = reconstruirTodo();
+        System.out.println("✅ Resumen mensual de ratings reconstruido para " + n + " entrenadores");
+    }
+
+    // ===== helpers =====
+
+    private void registrar(Long entrenadorId, Integer score, Date fecha) {
+        if (entrenadorId == null || score == null) return;
+        Date f = fecha != null ? fecha : new Date();
+        // En la zona de la app, igual que DATE_FORMAT en la reconstrucción
+        String mes = YearMonth.from(f.toInstant().atZone(zona)).toString();
+        resumenRepository.sumar(entrenadorId, mes, score, 1);
+    }
+
+    private void reconstruirEntrenador(Long entrenadorId) {
+        resumenRepository.deleteByEntrenador(entrenadorId);
+        for (RatingMesScore r : evalRepository.ratingPorMesYScore(entrenadorId)) {
+            resumenRepository.sumar(entrenadorId, r.getMonth(), r.getScore(), r.getCnt() != null ? r.getCnt() : 0L);
+        }
+    }
+}
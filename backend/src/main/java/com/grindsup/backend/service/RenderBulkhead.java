@@ -0,0 +1,208 @@
+package com.grindsup.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bulkhead para el render de PDFs (Jasper / DynamicReports / OpenPDF).
+ *
+ * Limita cuántos renders corren a la vez para que una ráfaga de exportaciones
+ * no se coma todos los cores y degrade el resto de la API. Los pedidos que
+ * no entran esperan en una cola por entrenador; al liberarse un lugar se
+ * atiende a los entrenadores en ronda, así uno solo no acapara la cola.
+ *
+ * Cola llena o espera mayor al timeout => {@link Rechazo}; los controllers
+ * lo traducen a 429 / 503.
+ */
+@Component
+public class RenderBulkhead {
+
+    private static final Long SIN_ENTRENADOR = -1L;
+
+    private final int maxConcurrentes;
+    private final int maxEspera;
+    private final int maxEsperaPorEntrenador;
+    private final Duration timeout;
+
+    // ===== estado (protegido por this) =====
+    private int enUso;
+    private int enEspera;
+    // Orden de inserción = turno en la ronda; el que recibe lugar pasa al final
+    private final LinkedHashMap<Long, ArrayDeque<Espera>> colas = new LinkedHashMap<>();
+
+    private final Timer esperaTimer;
+    private final Timer renderTimer;
+    private final Counter rechazosLleno;
+    private final Counter rechazosTimeout;
+
+    public RenderBulkhead(MeterRegistry meterRegistry,
+                          @Value("${grindsup.reportes.bulkhead.max-concurrentes:0}") int maxConcurrentes,
+                          @Value("${grindsup.reportes.bulkhead.max-espera:32}") int maxEspera,
+                          @Value("${grindsup.reportes.bulkhead.max-espera-por-entrenador:4}") int maxEsperaPorEntrenador,
+                          @Value("${grindsup.reportes.bulkhead.timeout-ms:10000}") long timeoutMs) {
+        this.maxConcurrentes = maxConcurrentes > 0
+                ? maxConcurrentes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxEspera = maxEspera;
+        this.maxEsperaPorEntrenador = maxEsperaPorEntrenador;
+        this.timeout = Duration.ofMillis(timeoutMs);
+
+        this.esperaTimer = Timer.builder("grindsup.reportes.bulkhead.espera")
+                .description("Tiempo de espera en cola antes de renderizar")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.renderTimer = Timer.builder("grindsup.reportes.bulkhead.render")
+                .description("Tiempo de render con lugar asignado en el bulkhead")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rechazosLleno = meterRegistry.counter("grindsup.reportes.bulkhead.rechazos", "motivo", "lleno");
+        this.rechazosTimeout = meterRegistry.counter("grindsup.reportes.bulkhead.rechazos", "motivo", "timeout");
+        Gauge.builder("grindsup.reportes.bulkhead.en_uso", this, b -> b.enUso()).register(meterRegistry);
+        Gauge.builder("grindsup.reportes.bulkhead.en_espera", this, b -> b.enEspera()).register(meterRegistry);
+    }
+
+    /** Lugar asignado en el bulkhead; cerrarlo lo libera (idempotente). */
+    public final class Permiso implements AutoCloseable {
+        private final long inicio = System.nanoTime();
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (cerrado.compareAndSet(false, true)) {
+                renderTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                liberar();
+            }
+        }
+    }
+
+    public enum Motivo { LLENO, TIMEOUT }
+
+    /** No hubo lugar para renderizar: la cola estaba llena o venció la espera. */
+    public static final class Rechazo extends RuntimeException {
+        private final Motivo motivo;
+
+        Rechazo(Motivo motivo, String message) {
+            super(message);
+            this.motivo = motivo;
+        }
+
+        public Motivo getMotivo() {
+            return motivo;
+        }
+    }
+
+    private static final class Espera {
+        final Long clave;
+        final CountDownLatch latch = new CountDownLatch(1);
+        boolean asignado;
+
+        Espera(Long clave) {
+            this.clave = clave;
+        }
+    }
+
+    /**
+     * Espera un lugar para renderizar a nombre de {@code entrenadorId}.
+     *
+     * @throws Rechazo LLENO si la cola está llena, TIMEOUT si vence la espera
+     */
+    public Permiso adquirir(Long entrenadorId) {
+        long t0 = System.nanoTime();
+        Long clave = entrenadorId != null ? entrenadorId : SIN_ENTRENADOR;
+        Espera espera;
+
+        synchronized (this) {
+            if (enUso < maxConcurrentes && enEspera == 0) {
+                enUso++;
+                esperaTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+                return new Permiso();
+            }
+            ArrayDeque<Espera> cola = colas.get(clave);
+            int enCola = cola != null ? cola.size() : 0;
+            if (enEspera >= maxEspera || enCola >= maxEsperaPorEntrenador) {
+                rechazosLleno.increment();
+                throw new Rechazo(Motivo.LLENO,
+                        "Hay demasiados reportes generándose, intentá de nuevo en unos segundos");
+            }
+            if (cola == null) {
+                cola = new ArrayDeque<>();
+                colas.put(clave, cola);
+            }
+            espera = new Espera(clave);
+            cola.add(espera);
+            enEspera++;
+        }
+
+        boolean asignado;
+        try {
+            asignado = espera.latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            asignado = false;
+        }
+
+        if (!asignado) {
+            synchronized (this) {
+                // Puede haber recibido el lugar justo al vencer
+                if (!espera.asignado) {
+                    quitar(espera);
+                    rechazosTimeout.increment();
+                    throw new Rechazo(Motivo.TIMEOUT,
+                            "El servidor está ocupado generando reportes, intentá de nuevo más tarde");
+                }
+            }
+        }
+
+        esperaTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        return new Permiso();
+    }
+
+    // Pasa el lugar al siguiente entrenador de la ronda (o lo devuelve si no hay nadie esperando)
+    private synchronized void liberar() {
+        Iterator<Map.Entry<Long, ArrayDeque<Espera>>> it = colas.entrySet().iterator();
+        if (!it.hasNext()) {
+            enUso--;
+            return;
+        }
+        Map.Entry<Long, ArrayDeque<Espera>> turno = it.next();
+        it.remove();
+        ArrayDeque<Espera> cola = turno.getValue();
+        Espera siguiente = cola.poll();
+        if (!cola.isEmpty()) {
+            colas.put(turno.getKey(), cola); // al final de la ronda
+        }
+        enEspera--;
+        siguiente.asignado = true;
+        siguiente.latch.countDown();
+    }
+
+    private void quitar(Espera espera) {
+        ArrayDeque<Espera> cola = colas.get(espera.clave);
+        if (cola != null && cola.remove(espera)) {
+            enEspera--;
+            if (cola.isEmpty()) colas.remove(espera.clave);
+        }
+    }
+
+    private synchronized int enUso() {
+        return enUso;
+    }
+
+    private synchronized int enEspera() {
+        return enEspera;
+    }
+}
@@ -0,0 +1,161 @@
+package com.grindsup.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cola de trabajos de reportes PDF.
+ *
+ * Los pedidos se encolan en un pool acotado de workers que renderizan con
+ * {@link DynamicsReportService}; el PDF terminado queda en disco hasta que
+ * vence su TTL. Si la cola está llena el pedido se rechaza en lugar de
+ * acumular threads.
+ */
+@Service
+public class ReportJobService {
+
+    public enum Estado { PENDIENTE, EN_PROCESO, LISTO, ERROR }
+
+    /** Renderiza el PDF de un trabajo directo en el stream del archivo. */
+    @FunctionalInterface
+    public interface Render {
+        void writeTo(OutputStream out) throws Exception;
+    }
+
+    public static class ReportJob {
+        private final String id;
+        private final String fileName;
+        private final OffsetDateTime creado = OffsetDateTime.now();
+        private volatile Estado estado = Estado.PENDIENTE;
+        private volatile OffsetDateTime terminado;
+        private volatile String error;
+        private volatile Path archivo;
+
+        ReportJob(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        public String getId() { return id; }
+        public String getFileName() { return fileName; }
+        public OffsetDateTime getCreado() { return creado; }
+        public Estado getEstado() { return estado; }
+        public OffsetDateTime getTerminado() { return terminado; }
+        public String getError() { return error; }
+        public Path getArchivo() { return archivo; }
+    }
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final Path directorio;
+    private final Duration ttl;
+
+    public ReportJobService(
+            @Value("${grindsup.reportes.jobs.pool-size:2}") int poolSize,
+            @Value("${grindsup.reportes.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${grindsup.reportes.jobs.ttl-minutes:30}") long ttlMinutes,
+            @Value("${grindsup.reportes.jobs.dir:${java.io.tmpdir}/grindsup-reportes}") String dir
+    ) throws IOException {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "report-job-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.directorio = Files.createDirectories(Paths.get(dir));
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /**
+     * Encola un trabajo y devuelve su descriptor.
+     *
+     * @throws RejectedExecutionException si la cola está llena
+     */
+    public ReportJob submit(String fileName, Render render) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, render));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ReportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ReportJob job, Render render) {
+        job.estado = Estado.EN_PROCESO;
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(directorio, job.id, ".part");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                render.writeTo(out);
+            }
+            Path destino = directorio.resolve(job.id + ".pdf");
+            Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.archivo = destino;
+            job.estado = Estado.LISTO;
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.estado = Estado.ERROR;
+            System.err.println("⚠️ Error generando reporte " + job.id + ": " + e.getMessage());
+            deleteQuietly(tmp);
+        } finally {
+            job.terminado = OffsetDateTime.now();
+        }
+    }
+
+    // Limpia trabajos vencidos (y sus archivos) cada minuto
+    @Scheduled(fixedDelay = 60000)
+    public void purgarVencidos() {
+        OffsetDateTime limite = OffsetDateTime.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            if (job.terminado == null || job.terminado.isAfter(limite)) return false;
+            deleteQuietly(job.archivo);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void deleteQuietly(Path p) {
+        if (p == null) return;
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException ignored) {
+        }
+    }
+}
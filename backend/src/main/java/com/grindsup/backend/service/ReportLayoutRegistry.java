@@ -0,0 +1,680 @@
+package com.grindsup.backend.service;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.sf.dynamicreports.jasper.builder.JasperReportBuilder;
+import net.sf.dynamicreports.report.builder.DatasetBuilder;
+import net.sf.dynamicreports.report.builder.DynamicReports;
+import net.sf.dynamicreports.report.builder.ParameterBuilder;
+import net.sf.dynamicreports.report.builder.chart.BarChartBuilder;
+import net.sf.dynamicreports.report.builder.chart.PieChartBuilder;
+import net.sf.dynamicreports.report.builder.column.Columns;
+import net.sf.dynamicreports.report.builder.column.TextColumnBuilder;
+import net.sf.dynamicreports.report.builder.component.Components;
+import net.sf.dynamicreports.report.builder.component.ImageBuilder;
+import net.sf.dynamicreports.report.builder.component.TextFieldBuilder;
+import net.sf.dynamicreports.report.builder.datatype.DataTypes;
+import net.sf.dynamicreports.report.builder.style.FontBuilder;
+import net.sf.dynamicreports.report.builder.style.StyleBuilder;
+import net.sf.dynamicreports.report.constant.HorizontalImageAlignment;
+import net.sf.dynamicreports.report.constant.HorizontalTextAlignment;
+import net.sf.dynamicreports.report.constant.VerticalTextAlignment;
+import net.sf.dynamicreports.report.datasource.DRDataSource;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+
+import static net.sf.dynamicreports.report.builder.DynamicReports.*;
+
+/**
+ * Registro de layouts de reportes compilados.
+ *
+ * Cada layout se arma y compila una sola vez; todo lo que cambia entre
+ * pedidos (textos del header, resumen, datos de los gráficos) entra como
+ * parámetro de Jasper y la tabla principal como data source del fill.
+ *
+ * DynamicReports guarda estado mutable por reporte compilado (CUSTOM_VALUES),
+ * por eso cada layout mantiene un pool chico de instancias compiladas en vez
+ * de compartir una sola entre fills concurrentes.
+ */
+@Component
+public class ReportLayoutRegistry {
+
+    public enum Layout {
+        PROGRESO_PLANES,
+        ALTAS_BAJAS_ALUMNOS,
+        RATINGS_ENTRENADOR,
+        RETENCION_COHORTES
+    }
+
+    // ===== Parámetros comunes =====
+    public static final String P_GENERADO = "generado";
+    public static final String P_ENTRENADOR = "entrenador";
+    public static final String P_PERIODO = "periodo";
+
+    // ===== Progreso planes =====
+    public static final String P_ALUMNO = "alumnoTitulo";
+    public static final String P_RES_TOTAL = "resumenTotal";
+    public static final String P_RES_COMPLETAS = "resumenCompletas";
+    public static final String P_RES_EN_PROCESO = "resumenEnProceso";
+    public static final String P_RES_INCOMPLETAS = "resumenIncompletas";
+    public static final String P_RES_CUMPLIMIENTO = "resumenCumplimiento";
+    public static final String P_CHART_ESTADOS = "chartEstados";
+
+    // ===== Altas / bajas =====
+    public static final String P_RES_ALTAS = "resumenAltas";
+    public static final String P_RES_BAJAS = "resumenBajas";
+    public static final String P_CHART_MESES = "chartMeses";
+    public static final String P_CHART_ALTAS_BAJAS = "chartAltasBajas";
+
+    // ===== Ratings =====
+    public static final String P_RES_PROMEDIO = "resumenPromedio";
+    public static final String P_RES_EVALUACIONES = "resumenEvaluaciones";
+    public static final String P_RES_CALIFICADOS = "resumenCalificados";
+    public static final String P_CHART_SCORES = "chartScores";
+
+    // ===== Retención por cohorte =====
+    public static final String P_RES_COHORTES = "resumenCohortes";
+    public static final String P_RES_RETENCION = "resumenRetencion";
+    public static final String P_CHART_RETENCION = "chartRetencion";
+
+    private final int poolSize;
+    private final long esperaMs;
+    private final boolean warmupEnabled;
+    private final MeterRegistry meterRegistry;
+    private final ReportResourceRegistry recursos;
+
+    private final Map<Layout, LayoutPool> pools = new EnumMap<>(Layout.class);
+
+    public ReportLayoutRegistry(MeterRegistry meterRegistry,
+                                ReportResourceRegistry recursos,
+                                @Value("${grindsup.reportes.layout-pool-size:0}") int poolSize,
+                                @Value("${grindsup.reportes.layout-pool-espera-ms:10000}") long esperaMs,
+                                @Value("${grindsup.reportes.warmup.enabled:true}") boolean warmupEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.recursos = recursos;
+        this.poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.esperaMs = esperaMs;
+        this.warmupEnabled = warmupEnabled;
+        for (Layout layout : Layout.values()) {
+            pools.put(layout, new LayoutPool(layout));
+        }
+    }
+
+    /**
+     * Warm-up al levantar la app: compila cada layout y lo renderiza una vez
+     * con datos sintéticos (descartando el PDF). Así la carga de clases y la
+     * inicialización de Jasper, JFreeChart, fuentes AWT y OpenPDF no la paga
+     * el primer pedido real.
+     *
+     * Corre sincrónico dentro de ApplicationReadyEvent: Spring Boot publica
+     * ReadinessState.ACCEPTING_TRAFFIC recién después de que terminan estos
+     * listeners, por lo que el probe de readiness no da OK hasta que termina.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmupEnabled) return;
+        long t0 = System.nanoTime();
+        for (Layout layout : Layout.values()) {
+            try {
+                precalentar(layout, OutputStream.nullOutputStream());
+            } catch (Exception e) {
+                System.err.println("⚠️ No se pudo precalentar el layout " + layout + ": " + e.getMessage());
+            }
+        }
+        try {
+            recursos.precalentarOpenPdf();
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo precalentar OpenPDF: " + e.getMessage());
+        }
+        System.out.println("✅ Reportes precalentados en "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) + " ms");
+    }
+
+    // Compila (si hace falta) y llena el layout con datos sintéticos
+    void precalentar(Layout layout, OutputStream out) throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        JRDataSource data = datosSinteticos(layout, params);
+        fillPdf(layout, params, data, out);
+    }
+
+    // Datos de ejemplo con la misma forma que los reales (tabla + gráficos)
+    private static JRDataSource datosSinteticos(Layout layout, Map<String, Object> params) {
+        switch (layout) {
+            case PROGRESO_PLANES -> {
+                DRDataSource chart = new DRDataSource("estado", "cantidad");
+                chart.add("Completas", 3);
+                chart.add("En Proceso", 1);
+                chart.add("Incompletas", 1);
+                params.put(P_CHART_ESTADOS, chart);
+
+                DRDataSource tabla = new DRDataSource(
+                        "alumno", "total", "completas", "incompletas", "enProceso", "porcentaje");
+                tabla.add("Warm-up", 5, 3, 1, 1, "60,00%");
+                return tabla;
+            }
+            case ALTAS_BAJAS_ALUMNOS -> {
+                DRDataSource tabla = new DRDataSource("mes", "altas", "bajas", "activos");
+                DRDataSource barras = new DRDataSource("mes", "altas", "bajas", "activos");
+                tabla.add("2024-01", 4L, 1L, 10L);
+                tabla.add("2024-02", 2L, 2L, 10L);
+                barras.add("2024-01", 4L, 1L, 10L);
+                barras.add("2024-02", 2L, 2L, 10L);
+                DRDataSource torta = new DRDataSource("tipo", "cantidad");
+                torta.add("Altas", 6L);
+                torta.add("Bajas", 3L);
+                params.put(P_CHART_MESES, barras);
+                params.put(P_CHART_ALTAS_BAJAS, torta);
+                return tabla;
+            }
+            case RATINGS_ENTRENADOR -> {
+                DRDataSource scores = new DRDataSource("score", "cantidad");
+                for (int i = 1; i <= 5; i++) scores.add(String.valueOf(i), (long) i);
+                params.put(P_CHART_SCORES, scores);
+
+                DRDataSource tabla = new DRDataSource("mes", "promedio", "evaluaciones");
+                tabla.add("2024-01", 4.2, 5L);
+                tabla.add("2024-02", 3.8, 4L);
+                return tabla;
+            }
+            case RETENCION_COHORTES -> {
+                DRDataSource barras = new DRDataSource("meses", "porcentaje");
+                barras.add("1 mes", 90.0);
+                barras.add("3 meses", 75.0);
+                params.put(P_CHART_RETENCION, barras);
+
+                DRDataSource tabla = new DRDataSource("cohorte", "altas", "m1", "m3", "m6", "m12");
+                tabla.add("2024-01", 10L, "9 (90%)", "7 (70%)", "—", "—");
+                return tabla;
+            }
+            default -> throw new IllegalArgumentException("Layout desconocido: " + layout);
+        }
+    }
+
+    /**
+     * Llena el layout con los parámetros y la fuente de datos del pedido y
+     * escribe el PDF en {@code out}.
+     */
+    public void fillPdf(Layout layout,
+                        Map<String, Object> parametros,
+                        JRDataSource dataSource,
+                        OutputStream out) throws Exception {
+        LayoutPool pool = pools.get(layout);
+        CompiledLayout compiled = pool.acquire();
+        try {
+            Map<String, Object> params = new HashMap<>(compiled.baseParameters);
+            params.putAll(parametros);
+
+            long t0 = System.nanoTime();
+            JasperPrint print = JasperFillManager.fillReport(compiled.report, params, dataSource);
+            pool.fillTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+
+            long t1 = System.nanoTime();
+            JasperExportManager.exportReportToPdfStream(print, out);
+            pool.exportTimer.record(System.nanoTime() - t1, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.release(compiled);
+        }
+    }
+
+    // ============================================================
+    // ====================== POOL POR LAYOUT =====================
+    // ============================================================
+
+    private record CompiledLayout(JasperReport report, Map<String, Object> baseParameters) {}
+
+    private final class LayoutPool {
+        private final Layout layout;
+        private final BlockingQueue<CompiledLayout> idle = new LinkedBlockingQueue<>();
+        private final AtomicInteger created = new AtomicInteger();
+        private final Timer compileTimer;
+        private final Timer fillTimer;
+        private final Timer exportTimer;
+
+        LayoutPool(Layout layout) {
+            this.layout = layout;
+            String tag = layout.name().toLowerCase();
+            this.compileTimer = Timer.builder("grindsup.reportes.compile")
+                    .description("Tiempo de compilación de layouts de reportes")
+                    .tag("layout", tag)
+                    .register(meterRegistry);
+            this.fillTimer = Timer.builder("grindsup.reportes.fill")
+                    .description("Tiempo de llenado (fill) de reportes")
+                    .tag("layout", tag)
+                    .register(meterRegistry);
+            this.exportTimer = Timer.builder("grindsup.reportes.export")
+                    .description("Tiempo de exportación a PDF")
+                    .tag("layout", tag)
+                    .register(meterRegistry);
+        }
+
+        CompiledLayout acquire() throws Exception {
+            CompiledLayout c = idle.poll();
+            if (c != null) return c;
+
+            if (created.incrementAndGet() <= poolSize) {
+                try {
+                    return compile();
+                } catch (Exception e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+            created.decrementAndGet();
+            // Todas las instancias en uso: esperar una, pero no para siempre
+            c = idle.poll(esperaMs, TimeUnit.MILLISECONDS);
+            if (c == null) {
+                throw new RenderBulkhead.Rechazo(RenderBulkhead.Motivo.TIMEOUT,
+                        "No se liberó ningún layout " + layout + " en " + esperaMs + " ms");
+            }
+            return c;
+        }
+
+        void release(CompiledLayout c) {
+            idle.offer(c);
+        }
+
+        private CompiledLayout compile() throws Exception {
+            long t0 = System.nanoTime();
+            JasperReportBuilder design = design(layout);
+            JasperReport report = design.toJasperReport();
+            Map<String, Object> base = new HashMap<>(design.getJasperParameters());
+            compileTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            return new CompiledLayout(report, base);
+        }
+    }
+
+    // ============================================================
+    // ========================= DISEÑOS ==========================
+    // ============================================================
+
+    private JasperReportBuilder design(Layout layout) {
+        return switch (layout) {
+            case PROGRESO_PLANES -> progresoPlanes();
+            case ALTAS_BAJAS_ALUMNOS -> altasBajasAlumnos();
+            case RATINGS_ENTRENADOR -> ratingsEntrenador();
+            case RETENCION_COHORTES -> retencionCohortes();
+        };
+    }
+
+    // ---------- 1) Progreso planes del alumno ----------
+    private JasperReportBuilder progresoPlanes() {
+        Estilos st = new Estilos();
+
+        TextColumnBuilder<String> estadoCol =
+                Columns.column("Estado", "estado", DataTypes.stringType());
+        TextColumnBuilder<Integer> cantCol =
+                Columns.column("Cantidad", "cantidad", DataTypes.integerType());
+
+        PieChartBuilder pie = DynamicReports.cht.pieChart()
+                .setKey(estadoCol)
+                .series(DynamicReports.cht.serie(cantCol))
+                .setTitle("Distribución de rutinas")
+                .setTitleFont(fuenteTituloGrafico())
+                .setSubDataset(chartDataset(P_CHART_ESTADOS));
+
+        var header = Components.horizontalList(
+                logo(false),
+                Components.verticalList(
+                        Components.text("GrindSup").setStyle(st.brand),
+                        Components.text("Reporte de Progreso del Alumno").setStyle(st.title),
+                        param(P_GENERADO).setStyle(st.meta),
+                        param(P_ENTRENADOR).setStyle(st.meta)
+                )
+        ).setFixedHeight(70);
+
+        var resumen = Components.horizontalList(
+                param(P_RES_TOTAL),
+                param(P_RES_COMPLETAS),
+                param(P_RES_EN_PROCESO),
+                param(P_RES_INCOMPLETAS),
+                param(P_RES_CUMPLIMIENTO)
+        ).setStyle(st.meta);
+
+        var headerBar = Components.filler()
+                .setStyle(stl.style().setBackgroundColor(Color.decode("#2e7d32")))
+                .setFixedHeight(4);
+
+        return DynamicReports.report()
+                .parameters(params(String.class, P_GENERADO, P_ENTRENADOR, P_ALUMNO,
+                        P_RES_TOTAL, P_RES_COMPLETAS, P_RES_EN_PROCESO,
+                        P_RES_INCOMPLETAS, P_RES_CUMPLIMIENTO))
+                .parameters(params(JRDataSource.class, P_CHART_ESTADOS))
+                .setColumnTitleStyle(st.tableHeader)
+                .setColumnStyle(st.tableCell)
+                .title(
+                        header,
+                        Components.verticalGap(10),
+                        param(P_ALUMNO).setHorizontalTextAlignment(HorizontalTextAlignment.CENTER),
+                        Components.verticalGap(5),
+                        resumen,
+                        Components.verticalGap(10),
+                        headerBar,
+                        Components.verticalGap(10)
+                )
+                .columns(
+                        Columns.column("Alumno", "alumno", DataTypes.stringType()),
+                        Columns.column("Total Rutinas", "total", DataTypes.integerType()),
+                        Columns.column("Completas", "completas", DataTypes.integerType()),
+                        Columns.column("Incompletas", "incompletas", DataTypes.integerType()),
+                        Columns.column("En Proceso", "enProceso", DataTypes.integerType()),
+                        Columns.column("% Cumplimiento", "porcentaje", DataTypes.stringType())
+                )
+                .summary(
+                        Components.verticalGap(10),
+                        Components.text("Distribución de rutinas").setStyle(st.title),
+                        pie
+                )
+                .pageFooter(Components.pageXofY());
+    }
+
+    // ---------- 2) Altas / bajas / activos por mes ----------
+    private JasperReportBuilder altasBajasAlumnos() {
+        Estilos st = new Estilos();
+
+        var header = Components.horizontalList(
+                logo(false),
+                Components.verticalList(
+                        Components.text("GrindSup").setStyle(st.brand),
+                        Components.text("Reporte de Altas, Bajas y Activos de Alumnos").setStyle(st.title),
+                        param(P_GENERADO).setStyle(st.meta),
+                        param(P_ENTRENADOR).setStyle(st.meta),
+                        param(P_PERIODO).setStyle(st.meta)
+                )
+        ).setFixedHeight(70);
+
+        var resumen = Components.horizontalList(
+                param(P_RES_ALTAS),
+                param(P_RES_BAJAS)
+        ).setStyle(st.meta);
+
+        TextColumnBuilder<String> mesCol =
+                Columns.column("Mes", "mes", DataTypes.stringType());
+        TextColumnBuilder<Long> altasCol =
+                Columns.column("Altas", "altas", DataTypes.longType());
+        TextColumnBuilder<Long> bajasCol =
+                Columns.column("Bajas", "bajas", DataTypes.longType());
+        TextColumnBuilder<Long> activosCol =
+                Columns.column("Activos fin de mes", "activos", DataTypes.longType());
+
+        BarChartBuilder barChart = DynamicReports.cht.barChart()
+                .setCategory(mesCol)
+                .series(
+                        DynamicReports.cht.serie(altasCol),
+                        DynamicReports.cht.serie(bajasCol),
+                        DynamicReports.cht.serie(activosCol)
+                )
+                .setTitle("Altas, bajas y activos por mes")
+                .setTitleFont(fuenteTituloGrafico())
+                .setSubDataset(chartDataset(P_CHART_MESES));
+
+        TextColumnBuilder<String> tipoCol =
+                Columns.column("Tipo", "tipo", DataTypes.stringType());
+        TextColumnBuilder<Long> cantCol =
+                Columns.column("Cantidad", "cantidad", DataTypes.longType());
+
+        PieChartBuilder pieChart = DynamicReports.cht.pieChart()
+                .setKey(tipoCol)
+                .series(DynamicReports.cht.serie(cantCol))
+                .setTitle("Distribución total Altas vs Bajas")
+                .setTitleFont(fuenteTituloGrafico())
+                .setSubDataset(chartDataset(P_CHART_ALTAS_BAJAS));
+
+        return DynamicReports.report()
+                .parameters(params(String.class, P_GENERADO, P_ENTRENADOR, P_PERIODO,
+                        P_RES_ALTAS, P_RES_BAJAS))
+                .parameters(params(JRDataSource.class, P_CHART_MESES, P_CHART_ALTAS_BAJAS))
+                .setColumnTitleStyle(st.tableHeader)
+                .setColumnStyle(st.tableCell)
+                .title(
+                        header,
+                        Components.verticalGap(10),
+                        resumen,
+                        Components.verticalGap(10)
+                )
+                .columns(mesCol, altasCol, bajasCol, activosCol)
+                .summary(
+                        Components.verticalGap(10),
+                        barChart,
+                        Components.verticalGap(10),
+                        pieChart
+                )
+                .pageFooter(Components.pageXofY());
+    }
+
+    // ---------- 3) Ratings de planes por entrenador ----------
+    private JasperReportBuilder ratingsEntrenador() {
+        StyleBuilder bold = stl.style().bold();
+
+        StyleBuilder brand = stl.style(bold)
+                .setFontSize(20)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.decode("#258d19"));
+
+        StyleBuilder title = stl.style(bold)
+                .setFontSize(16)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.decode("#1B5E20"));
+
+        StyleBuilder meta = stl.style()
+                .setFontSize(10)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.DARK_GRAY);
+
+        StyleBuilder tableHeader = stl.style(bold)
+                .setBackgroundColor(Color.decode("#2E7D32"))
+                .setForegroundColor(Color.WHITE)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setVerticalTextAlignment(VerticalTextAlignment.MIDDLE)
+                .setBorder(stl.penThin());
+
+        StyleBuilder tableCell = stl.style()
+                .setFontSize(10)
+                .setBorder(stl.pen1Point())
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
+
+        TextColumnBuilder<String> mesCol =
+                Columns.column("Mes", "mes", DataTypes.stringType());
+        TextColumnBuilder<Double> promCol =
+                Columns.column("Promedio", "promedio", DataTypes.doubleType());
+        TextColumnBuilder<Long> evalCol =
+                Columns.column("Evaluaciones", "evaluaciones", DataTypes.longType());
+
+        TextColumnBuilder<String> bucketScore =
+                Columns.column("Score", "score", DataTypes.stringType());
+        TextColumnBuilder<Long> bucketCantidad =
+                Columns.column("Cantidad", "cantidad", DataTypes.longType());
+
+        var header = Components.horizontalList(
+                logo(true),
+                Components.verticalList(
+                        Components.text("GrindSup").setStyle(brand),
+                        Components.text("Reporte de Evaluaciones de Planes por Entrenador").setStyle(title),
+                        param(P_GENERADO).setStyle(meta),
+                        param(P_ENTRENADOR).setStyle(meta),
+                        param(P_PERIODO).setStyle(meta)
+                )
+        ).setFixedHeight(70);
+
+        var resumen = Components.horizontalList(
+                param(P_RES_PROMEDIO),
+                param(P_RES_EVALUACIONES),
+                param(P_RES_CALIFICADOS)
+        ).setStyle(meta);
+
+        BarChartBuilder bucketChart = DynamicReports.cht.barChart()
+                .setCategory(bucketScore)
+                .series(DynamicReports.cht.serie(bucketCantidad))
+                .setTitle("Distribución de puntajes")
+                .setTitleFont(fuenteTituloGrafico())
+                .setSubDataset(chartDataset(P_CHART_SCORES));
+
+        return DynamicReports.report()
+                .parameters(params(String.class, P_GENERADO, P_ENTRENADOR, P_PERIODO,
+                        P_RES_PROMEDIO, P_RES_EVALUACIONES, P_RES_CALIFICADOS))
+                .parameters(params(JRDataSource.class, P_CHART_SCORES))
+                .setColumnTitleStyle(tableHeader)
+                .setColumnStyle(tableCell)
+                .title(
+                        header,
+                        Components.verticalGap(10),
+                        resumen,
+                        Components.verticalGap(10)
+                )
+                .columns(mesCol, promCol, evalCol)
+                .summary(
+                        Components.verticalGap(10),
+                        bucketChart
+                )
+                .pageFooter(Components.pageXofY());
+    }
+
+    // ---------- 4) Retención de alumnos por cohorte ----------
+    private JasperReportBuilder retencionCohortes() {
+        Estilos st = new Estilos();
+
+        var header = Components.horizontalList(
+                logo(false),
+                Components.verticalList(
+                        Components.text("GrindSup").setStyle(st.brand),
+                        Components.text("Reporte de Retención de Alumnos por Cohorte").setStyle(st.title),
+                        param(P_GENERADO).setStyle(st.meta),
+                        param(P_ENTRENADOR).setStyle(st.meta),
+                        param(P_PERIODO).setStyle(st.meta)
+                )
+        ).setFixedHeight(70);
+
+        var resumen = Components.horizontalList(
+                param(P_RES_COHORTES),
+                param(P_RES_RETENCION)
+        ).setStyle(st.meta);
+
+        TextColumnBuilder<String> mesesCol =
+                Columns.column("Meses", "meses", DataTypes.stringType());
+        TextColumnBuilder<Double> porcentajeCol =
+                Columns.column("% activos", "porcentaje", DataTypes.doubleType());
+
+        BarChartBuilder barChart = DynamicReports.cht.barChart()
+                .setCategory(mesesCol)
+                .series(DynamicReports.cht.serie(porcentajeCol))
+                .setTitle("Retención promedio (cohortes cerradas)")
+                .setTitleFont(fuenteTituloGrafico())
+                .setSubDataset(chartDataset(P_CHART_RETENCION));
+
+        return DynamicReports.report()
+                .parameters(params(String.class, P_GENERADO, P_ENTRENADOR, P_PERIODO,
+                        P_RES_COHORTES, P_RES_RETENCION))
+                .parameters(params(JRDataSource.class, P_CHART_RETENCION))
+                .setColumnTitleStyle(st.tableHeader)
+                .setColumnStyle(st.tableCell)
+                .title(
+                        header,
+                        Components.verticalGap(10),
+                        resumen,
+                        Components.verticalGap(10)
+                )
+                .columns(
+                        Columns.column("Cohorte", "cohorte", DataTypes.stringType()),
+                        Columns.column("Altas", "altas", DataTypes.longType()),
+                        Columns.column("1 mes", "m1", DataTypes.stringType()),
+                        Columns.column("3 meses", "m3", DataTypes.stringType()),
+                        Columns.column("6 meses", "m6", DataTypes.stringType()),
+                        Columns.column("12 meses", "m12", DataTypes.stringType())
+                )
+                .summary(
+                        Components.verticalGap(10),
+                        barChart
+                )
+                .pageFooter(Components.pageXofY());
+    }
+
+    // ============================================================
+    // ========================= HELPERS ==========================
+    // ============================================================
+
+    /** Estilos base compartidos por los reportes 1, 2 y 4. */
+    private static final class Estilos {
+        final StyleBuilder base = stl.style().setFontSize(10);
+
+        final StyleBuilder brand = stl.style(base)
+                .bold()
+                .setFontSize(20)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.decode("#258d19"));
+
+        final StyleBuilder title = stl.style(base)
+                .bold()
+                .setFontSize(16)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.decode("#1B5E20"));
+
+        final StyleBuilder meta = stl.style(base)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setForegroundColor(Color.DARK_GRAY);
+
+        final StyleBuilder tableHeader = stl.style(base)
+                .bold()
+                .setBackgroundColor(Color.decode("#2E7D32"))
+                .setForegroundColor(Color.WHITE)
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER)
+                .setVerticalTextAlignment(VerticalTextAlignment.MIDDLE)
+                .setBorder(stl.penThin());
+
+        final StyleBuilder tableCell = stl.style(base)
+                .setBorder(stl.pen1Point())
+                .setHorizontalTextAlignment(HorizontalTextAlignment.CENTER);
+    }
+
+    private ImageBuilder logo(boolean alignLeft) {
+        // Imagen ya decodificada por ReportResourceRegistry: no se relee el PNG en cada fill
+        var logo = recursos.logoAwt();
+        ImageBuilder img = (logo != null)
+                ? Components.image(logo)
+                : Components.image("logo-grindsup.png");
+        if (alignLeft) {
+            img.setHorizontalImageAlignment(HorizontalImageAlignment.LEFT);
+        }
+        return img.setFixedDimension(60, 60);
+    }
+
+    // Antes Arial (no existe en los servidores Linux); ahora la fuente embebida.
+    // El TTF, el encoding y el embebido en el PDF salen de la extensión de
+    // fuentes (fonts/fonts.xml), no del estilo
+    private static FontBuilder fuenteTituloGrafico() {
+        return stl.font(ReportResourceRegistry.FAMILIA_SANS, true, false, 12);
+    }
+
+    private static TextFieldBuilder<String> param(String name) {
+        return Components.text(exp.jasperSyntax("$P{" + name + "}", String.class));
+    }
+
+    private static ParameterBuilder<?>[] params(Class<?> type, String... names) {
+        ParameterBuilder<?>[] out = new ParameterBuilder<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            out[i] = DynamicReports.parameter(names[i], type);
+        }
+        return out;
+    }
+
+    private static DatasetBuilder chartDataset(String paramName) {
+        return DynamicReports.dataset()
+                .setDataSource(exp.jasperSyntax("$P{" + paramName + "}", JRDataSource.class));
+    }
+}
@@ -0,0 +1,191 @@
+package com.grindsup.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.grindsup.backend.event.DatosEntrenadorModificadosEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache LRU de PDFs de reportes, acotada por tamaño total.
+ *
+ * La clave incluye una versión de datos por alumno / entrenador que avanza
+ * cada vez que cambia un Alumno, PlanEntrenamiento o PlanEvaluacion
+ * relacionado; así un cambio invalida implícitamente los PDFs anteriores
+ * (quedan sin usar hasta que el LRU los desaloja). La misma clave arma el
+ * ETag que usa el controller para responder 304.
+ */
+@Service
+public class ReportPdfCache {
+
+    public enum Tipo { PROGRESO_ALUMNO, ALTAS_BAJAS, RATINGS }
+
+    public record Key(Tipo tipo, Long id, YearMonth desde, YearMonth hasta, long version) {}
+
+    // Distingue ETags entre reinicios (las versiones arrancan de cero)
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, AtomicLong> versionPorAlumno = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> versionPorEntrenador = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Key, byte[]> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ReportPdfCache(MeterRegistry meterRegistry,
+                          @Value("${grindsup.reportes.cache.max-bytes:67108864}") long maxBytes,
+                          @Value("${grindsup.reportes.cache.max-entry-bytes:8388608}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.hits = meterRegistry.counter("grindsup.reportes.cache", "result", "hit");
+        this.misses = meterRegistry.counter("grindsup.reportes.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("grindsup.reportes.cache.evictions");
+        Gauge.builder("grindsup.reportes.cache.bytes", this, c -> c.sizeBytes()).register(meterRegistry);
+        Gauge.builder("grindsup.reportes.cache.entries", this, c -> c.entries()).register(meterRegistry);
+    }
+
+    // ============================================================
+    // ======================== VERSIONES =========================
+    // ============================================================
+
+    @EventListener
+    public void onDatosModificados(DatosEntrenadorModificadosEvent event) {
+        if (event.alumnoId() != null) {
+            versionPorAlumno.computeIfAbsent(event.alumnoId(), k -> new AtomicLong()).incrementAndGet();
+        }
+        if (event.entrenadorId() != null) {
+            versionPorEntrenador.computeIfAbsent(event.entrenadorId(), k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /** Clave con la versión vigente de los datos que usa el reporte. */
+    public Key key(Tipo tipo, Long id, YearMonth desde, YearMonth hasta) {
+        Map<Long, AtomicLong> versiones =
+                (tipo == Tipo.PROGRESO_ALUMNO) ? versionPorAlumno : versionPorEntrenador;
+        AtomicLong v = versiones.get(id);
+        return new Key(tipo, id, desde, hasta, v != null ? v.get() : 0L);
+    }
+
+    public String etag(Key key) {
+        return "\"" + key.tipo().name().toLowerCase() + "-" + key.id()
+                + "-" + key.desde() + "-" + key.hasta()
+                + "-" + epoch + "." + key.version() + "\"";
+    }
+
+    // ============================================================
+    // ========================== CACHE ===========================
+    // ============================================================
+
+    /** PDF cacheado para {@code key}, o {@code null} si hay que renderizarlo. */
+    public byte[] buscar(Key key) {
+        byte[] cached = get(key);
+        (cached != null ? hits : misses).increment();
+        return cached;
+    }
+
+    /**
+     * Envuelve el destino del render para quedarse con una copia del PDF
+     * mientras se escribe. La copia se descarta apenas pasa
+     * {@code max-entry-bytes}, así un PDF enorme nunca queda entero en
+     * memoria; solo se guarda si se llama a {@link Captura#guardar()} después
+     * de un render completo.
+     */
+    public Captura capturar(Key key, OutputStream destino) {
+        return new Captura(key, destino);
+    }
+
+    public final class Captura extends OutputStream {
+
+        private final Key key;
+        private final OutputStream destino;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream(64 * 1024);
+
+        private Captura(Key key, OutputStream destino) {
+            this.key = key;
+            this.destino = destino;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            destino.write(b);
+            if (cabe(1)) copia.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            destino.write(b, off, len);
+            if (cabe(len)) copia.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            destino.flush();
+        }
+
+        // El destino es del llamador (la respuesta): no se cierra acá
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        /** Guarda la copia en la cache si no se descartó por tamaño. */
+        public void guardar() {
+            if (copia != null) {
+                put(key, copia.toByteArray());
+                copia = null;
+            }
+        }
+
+        private boolean cabe(int len) {
+            if (copia != null && copia.size() + (long) len > maxEntryBytes) {
+                copia = null;
+            }
+            return copia != null;
+        }
+    }
+
+    private synchronized byte[] get(Key key) {
+        return lru.get(key);
+    }
+
+    private synchronized void put(Key key, byte[] pdf) {
+        byte[] prev = lru.put(key, pdf);
+        if (prev != null) bytes -= prev.length;
+        bytes += pdf.length;
+
+        Iterator<byte[]> it = lru.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().length;
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    private synchronized int entries() {
+        return lru.size();
+    }
+}
@@ -0,0 +1,160 @@
+package com.grindsup.backend.service;
+
+import java.awt.Color;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Fuentes y logo compartidos por todas las exportaciones PDF (OpenPDF y
+ * DynamicReports).
+ *
+ * Todo se lee del classpath una sola vez al levantar la app: las fuentes
+ * vienen embebidas en {@code resources/fonts} (no dependen del sistema
+ * operativo) y el logo queda decodificado en memoria. Así ninguna exportación
+ * hace I/O de archivos ni parsea fuentes por pedido.
+ */
+@Component
+public class ReportResourceRegistry {
+
+    // ===== Fuentes embebidas (rutas de classpath; Jasper las toma de fonts/fonts.xml) =====
+    public static final String TTF_SANS = "fonts/DejaVuSans.ttf";
+    public static final String TTF_SANS_BOLD = "fonts/DejaVuSans-Bold.ttf";
+    public static final String TTF_SERIF = "fonts/DejaVuSerif.ttf";
+    public static final String TTF_SERIF_BOLD = "fonts/DejaVuSerif-Bold.ttf";
+
+    // Familias tal como quedan registradas en AWT (las usa el fill de Jasper)
+    public static final String FAMILIA_SANS = "DejaVu Sans";
+    public static final String FAMILIA_SERIF = "DejaVu Serif";
+
+    private static final String LOGO = "static/logo-grindsup.png";
+
+    private final BaseFont serif;
+    private final BaseFont serifBold;
+    private final BaseFont sans;
+    private final BaseFont sansBold;
+
+    private final Image logoPdf;
+    private final BufferedImage logoAwt;
+
+    public ReportResourceRegistry() throws IOException {
+        byte[] serifTtf = leer(TTF_SERIF);
+        byte[] serifBoldTtf = leer(TTF_SERIF_BOLD);
+        byte[] sansTtf = leer(TTF_SANS);
+        byte[] sansBoldTtf = leer(TTF_SANS_BOLD);
+
+        this.serif = baseFont(TTF_SERIF, serifTtf);
+        this.serifBold = baseFont(TTF_SERIF_BOLD, serifBoldTtf);
+        this.sans = baseFont(TTF_SANS, sansTtf);
+        this.sansBold = baseFont(TTF_SANS_BOLD, sansBoldTtf);
+
+        // Jasper valida que la familia exista en la JVM antes de llenar el reporte
+        registrarEnAwt(serifTtf, serifBoldTtf, sansTtf, sansBoldTtf);
+
+        Image pdf = null;
+        BufferedImage awt = null;
+        try {
+            byte[] logo = leer(LOGO);
+            pdf = Image.getInstance(logo);
+            awt = ImageIO.read(new ByteArrayInputStream(logo));
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo cargar el logo de reportes: " + e.getMessage());
+        }
+        this.logoPdf = pdf;
+        this.logoAwt = awt;
+    }
+
+    // ============================================================
+    // ========================= OPENPDF ==========================
+    // ============================================================
+
+    /**
+     * Fuente serif lista para OpenPDF. Si el estilo pide negrita se usa el
+     * archivo bold real en lugar de simularla.
+     */
+    public Font serif(float size, int style, Color color) {
+        return fuente(serif, serifBold, size, style, color);
+    }
+
+    public Font sans(float size, int style, Color color) {
+        return fuente(sans, sansBold, size, style, color);
+    }
+
+    /**
+     * Copia del logo para un documento (Image es mutable: escalarlo o
+     * posicionarlo no debe afectar a otras exportaciones). {@code null} si no
+     * se pudo cargar.
+     */
+    public Image logoPdf() {
+        return logoPdf != null ? Image.getInstance(logoPdf) : null;
+    }
+
+    /**
+     * Arma un documento mínimo con las fuentes y el logo (descartado) para
+     * inicializar OpenPDF antes del primer export real.
+     */
+    public void precalentarOpenPdf() throws DocumentException {
+        Document doc = new Document();
+        PdfWriter.getInstance(doc, OutputStream.nullOutputStream());
+        doc.open();
+        doc.add(new Paragraph("Warm-up áéíóúñ", serif(12, Font.BOLD, Color.BLACK)));
+        doc.add(new Paragraph("Warm-up áéíóúñ", sans(10, Font.ITALIC, Color.GRAY)));
+        Image logo = logoPdf();
+        if (logo != null) doc.add(logo);
+        doc.close();
+    }
+
+    // ============================================================
+    // ====================== DYNAMICREPORTS ======================
+    // ============================================================
+
+    /** Logo ya decodificado; solo se lee, se puede compartir entre reportes. */
+    public java.awt.Image logoAwt() {
+        return logoAwt;
+    }
+
+    // ===== helpers =====
+    private static Font fuente(BaseFont regular, BaseFont bold, float size, int style, Color color) {
+        boolean esBold = style != Font.UNDEFINED && (style & Font.BOLD) != 0;
+        return esBold
+                ? new Font(bold, size, style & ~Font.BOLD, color)
+                : new Font(regular, size, style, color);
+    }
+
+    private static BaseFont baseFont(String nombre, byte[] ttf) throws IOException {
+        return BaseFont.createFont(nombre, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, true, ttf, null);
+    }
+
+    private static void registrarEnAwt(byte[]... ttfs) {
+        try {
+            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+            for (byte[] ttf : ttfs) {
+                ge.registerFont(java.awt.Font.createFont(java.awt.Font.TRUETYPE_FONT, new ByteArrayInputStream(ttf)));
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudieron registrar las fuentes de reportes en AWT: " + e.getMessage());
+        }
+    }
+
+    private static byte[] leer(String ruta) throws IOException {
+        try (InputStream in = new ClassPathResource(ruta).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
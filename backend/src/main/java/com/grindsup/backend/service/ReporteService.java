@@ -1,12 +1,22 @@
 package com.grindsup.backend.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.grindsup.backend.DTO.AlumnoListDTO;
 import com.grindsup.backend.DTO.ReporteProgresoPlanesDTO;
 import com.grindsup.backend.model.Alumno;
+import com.grindsup.backend.model.Entrenador;
 import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.repository.EntrenadorRepository;
 import com.grindsup.backend.repository.PlanEntrenamientoRepository;
+import com.grindsup.backend.repository.PlanEntrenamientoRepository.AlumnoEstadoCount;
+import com.grindsup.backend.repository.PlanEntrenamientoRepository.EstadoCount;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -19,22 +29,18 @@ public class ReporteService {
     @Autowired
     private AlumnoRepository alumnoRepository;
 
+    @Autowired
+    private EntrenadorRepository entrenadorRepository;
+
     public ReporteProgresoPlanesDTO generarReporteProgresoPlanesDeAlumno(Long idAlumno) {
         Alumno alumno = alumnoRepository.findById(idAlumno)
                 .orElseThrow(() -> new EntityNotFoundException("Alumno no encontrado"));
 
-        float total = planEntrenamientoRepository.findByAlumno_IdAlumno(idAlumno).size();
-
-        float completadas =
-                planEntrenamientoRepository.findByAlumno_IdAlumnoAndEstado_Nombre(idAlumno, "Completada").size();
-
-        float incompletas =
-                planEntrenamientoRepository.findByAlumno_IdAlumnoAndEstado_Nombre(idAlumno, "Incompleta").size();
-
-        float enProceso =
-                planEntrenamientoRepository.findByAlumno_IdAlumnoAndEstado_Nombre(idAlumno, "En Proceso").size();
-
-        float porcentaje = (total > 0) ? ((float) completadas / total) * 100 : 0;
+        // Un solo GROUP BY estado en lugar de cargar los planes 4 veces
+        ConteoProgreso c = new ConteoProgreso();
+        for (EstadoCount row : planEntrenamientoRepository.contarPorEstadoDeAlumno(idAlumno)) {
+            c.sumar(row.getEstado(), row.getCnt());
+        }
 
         // =======================
         // Datos del Entrenador
@@ -61,15 +67,78 @@ public class ReporteService {
         return new ReporteProgresoPlanesDTO(
                 alumno.getId_alumno(),
                 alumno.getNombre() + " " + alumno.getApellido(),
-                total,
-                completadas,
-                incompletas,
-                enProceso,
-                porcentaje,
+                c.total,
+                c.completadas,
+                c.incompletas,
+                c.enProceso,
+                c.porcentaje(),
                 idEntrenador,
                 nombreEntrenador,
                 correoEntrenador,
                 telefonoEntrenador
         );
     }
+
+    /**
+     * Progreso de todos los alumnos activos de un entrenador, con una sola
+     * consulta agrupada por alumno y estado (en lugar de 4 por alumno).
+     * Los alumnos sin planes aparecen con todo en cero.
+     */
+    public List<ReporteProgresoPlanesDTO> generarReporteProgresoPlanesDeEntrenador(Long entrenadorId) {
+        Entrenador entrenador = entrenadorRepository.findById(entrenadorId)
+                .orElseThrow(() -> new EntityNotFoundException("Entrenador no encontrado"));
+
+        String nombreEntrenador = null;
+        String correoEntrenador = null;
+        if (entrenador.getUsuario() != null) {
+            nombreEntrenador = entrenador.getUsuario().getNombre() + " " + entrenador.getUsuario().getApellido();
+            correoEntrenador = entrenador.getUsuario().getCorreo();
+        }
+
+        Map<Long, ConteoProgreso> conteos = new HashMap<>();
+        for (AlumnoEstadoCount row : planEntrenamientoRepository.contarPorEstadoDeAlumnosDeEntrenador(entrenadorId)) {
+            conteos.computeIfAbsent(row.getAlumnoId(), k -> new ConteoProgreso())
+                    .sumar(row.getEstado(), row.getCnt());
+        }
+
+        List<AlumnoListDTO> alumnos = alumnoRepository.findActivosDTOByEntrenador(entrenadorId);
+        List<ReporteProgresoPlanesDTO> out = new ArrayList<>(alumnos.size());
+        for (AlumnoListDTO a : alumnos) {
+            ConteoProgreso c = conteos.getOrDefault(a.getId_alumno(), new ConteoProgreso());
+            out.add(new ReporteProgresoPlanesDTO(
+                    a.getId_alumno(),
+                    a.getNombre() + " " + a.getApellido(),
+                    c.total,
+                    c.completadas,
+                    c.incompletas,
+                    c.enProceso,
+                    c.porcentaje(),
+                    entrenador.getIdEntrenador(),
+                    nombreEntrenador,
+                    correoEntrenador,
+                    entrenador.getTelefono()
+            ));
+        }
+        return out;
+    }
+
+    /** Acumula los conteos por estado de un alumno (filas del GROUP BY). */
+    private static final class ConteoProgreso {
+        long total;
+        long completadas;
+        long incompletas;
+        long enProceso;
+
+        void sumar(String estado, Long cnt) {
+            long n = cnt != null ? cnt : 0L;
+            total += n;
+            if ("Completada".equalsIgnoreCase(estado)) completadas += n;
+            else if ("Incompleta".equalsIgnoreCase(estado)) incompletas += n;
+            else if ("En Proceso".equalsIgnoreCase(estado)) enProceso += n;
+        }
+
+        float porcentaje() {
+            return (total > 0) ? ((float) completadas / total) * 100 : 0;
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package com.grindsup.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.grindsup.backend.DTO.ReporteProgresoPlanesDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Exportación en lote (ZIP) de los reportes de progreso de todos los alumnos
+ * de un entrenador.
+ *
+ * Los datos salen de una sola consulta agrupada; los PDFs se renderizan en un
+ * ForkJoinPool acotado y se escriben en el ZIP a medida que terminan. Nunca
+ * hay más de {@code parallelism} PDFs en memoria a la vez, así que el consumo
+ * no depende de la cantidad de alumnos.
+ *
+ * La exportación entera ocupa un solo lugar de {@link RenderBulkhead} (lo
+ * toma el controller): los workers no compiten con los pedidos del mismo
+ * entrenador ni entre ellos, y su concurrencia la acota {@code parallelism}.
+ */
+@Service
+public class ReporteZipService {
+
+    private final ReporteService reporteService;
+    private final DynamicsReportService dynamicsReportService;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public ReporteZipService(ReporteService reporteService,
+                             DynamicsReportService dynamicsReportService,
+                             @Value("${grindsup.reportes.zip.parallelism:0}") int parallelism) {
+        this.reporteService = reporteService;
+        this.dynamicsReportService = dynamicsReportService;
+        this.parallelism = parallelism > 0
+                ? parallelism
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /** Datos de progreso de todos los alumnos activos (una consulta). */
+    public List<ReporteProgresoPlanesDTO> cargarProgresoPlanesDeEntrenador(Long entrenadorId) {
+        return reporteService.generarReporteProgresoPlanesDeEntrenador(entrenadorId);
+    }
+
+    /**
+     * Escribe en {@code out} un ZIP con un PDF por alumno. Si algún PDF falla
+     * la exportación se corta con IOException sin cerrar el ZIP (el cliente
+     * recibe un archivo inválido, nunca uno al que le faltan alumnos).
+     * No cierra {@code out}.
+     */
+    public void writeZipProgresoPlanes(List<ReporteProgresoPlanesDTO> alumnos, OutputStream out) throws IOException {
+        ExecutorCompletionService<Entrada> ecs = new ExecutorCompletionService<>(pool);
+        List<Future<Entrada>> enviados = new ArrayList<>();
+        Iterator<ReporteProgresoPlanesDTO> pendientes = alumnos.iterator();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED); // el PDF ya viene comprimido
+        try {
+            int enVuelo = 0;
+            while (enVuelo < parallelism && pendientes.hasNext()) {
+                enviados.add(ecs.submit(render(pendientes.next())));
+                enVuelo++;
+            }
+
+            while (enVuelo > 0) {
+                Entrada e = ecs.take().get();
+                enVuelo--;
+                // Reponer antes de escribir, así el pool no queda ocioso mientras sale el ZIP
+                if (pendientes.hasNext()) {
+                    enviados.add(ecs.submit(render(pendientes.next())));
+                    enVuelo++;
+                }
+
+                zip.putNextEntry(new ZipEntry(e.nombre()));
+                zip.write(e.pdf());
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportación ZIP interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error generando la exportación ZIP", e.getCause());
+        } finally {
+            // Si el cliente cortó o algo falló, no seguir renderizando para nadie
+            for (Future<Entrada> f : enviados) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private Callable<Entrada> render(ReporteProgresoPlanesDTO datos) {
+        String nombre = nombreArchivo(datos);
+        return () -> {
+            try {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream(64 * 1024);
+                dynamicsReportService.writeReporteProgresoPlanesPdf(datos, baos);
+                return new Entrada(nombre, baos.toByteArray());
+            } catch (Exception e) {
+                System.err.println("⚠️ Error generando PDF de alumno " + datos.getIdAlumno() + ": " + e.getMessage());
+                throw e;
+            }
+        };
+    }
+
+    private static String nombreArchivo(ReporteProgresoPlanesDTO datos) {
+        String nombre = datos.getNombreAlumno() != null ? datos.getNombreAlumno() : "";
+        nombre = Normalizer.normalize(nombre, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("\\W+", "_")
+                .replaceAll("^_+|_+$", "");
+        return "reporte_planes_" + datos.getIdAlumno() + (nombre.isEmpty() ? "" : "_" + nombre) + ".pdf";
+    }
+
+    private record Entrada(String nombre, byte[] pdf) {}
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.grindsup.backend.service;
+
+/**
+ * Altas, bajas y activos al cierre de cada período de un entrenador, en
+ * arrays primitivos indexados como los {@link BucketsTemporales} del rango
+ * (índice 0 = primer período).
+ *
+ * Lo arma {@link StatsService#resumenAlumnos}: desde el rollup mensual si
+ * alcanza, o plegando los eventos crudos de alumnos en una sola lectura.
+ */
+public final class ResumenAlumnos {
+
+    private final BucketsTemporales buckets;
+    private final long[] altas;
+    private final long[] bajas;
+    private final long[] activos;
+
+    ResumenAlumnos(BucketsTemporales buckets, long[] altas, long[] bajas, long[] activos) {
+        this.buckets = buckets;
+        this.altas = altas;
+        this.bajas = bajas;
+        this.activos = activos;
+    }
+
+    public BucketsTemporales buckets() { return buckets; }
+
+    public int periodos() { return altas.length; }
+
+    /** 2025-03, 2025-W11, ... según la granularidad. */
+    public String periodo(int i) { return buckets.etiqueta(i); }
+
+    public long altas(int i) { return altas[i]; }
+
+    public long bajas(int i) { return bajas[i]; }
+
+    public long activos(int i) { return activos[i]; }
+
+    public long totalAltas() {
+        long t = 0;
+        for (long a : altas) t += a;
+        return t;
+    }
+
+    public long totalBajas() {
+        long t = 0;
+        for (long b : bajas) t += b;
+        return t;
+    }
+}
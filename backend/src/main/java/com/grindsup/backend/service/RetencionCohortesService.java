@@ -0,0 +1,91 @@
+package com.grindsup.backend.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.grindsup.backend.DTO.RetencionCohorteDTO;
+import com.grindsup.backend.DTO.RetencionCohortesDTO;
+import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.repository.AlumnoRepository.AltaBaja;
+
+/**
+ * Retención por cohorte: de los alumnos dados de alta en cada mes, cuántos
+ * siguen activos al cierre del mes +k (k = 1, 3, 6, 12 por defecto).
+ *
+ * Una sola lectura en streaming del par (alta, baja) de cada alumno; cada
+ * fila suma en una matriz primitiva [cohorte][mes de la baja relativo a la
+ * cohorte] y el triángulo sale de restar acumulados. Lineal en alumnos,
+ * sin una consulta por cohorte. Meses en la zona horaria del entrenador.
+ */
+@Service
+public class RetencionCohortesService {
+
+    public static final List<Integer> MESES_DEFAULT = List.of(1, 3, 6, 12);
+    static final int MAX_MESES = 24;
+
+    private final AlumnoRepository alumnoRepository;
+    private final ZonaHorariaService zonas;
+
+    public RetencionCohortesService(AlumnoRepository alumnoRepository, ZonaHorariaService zonas) {
+        this.alumnoRepository = alumnoRepository;
+        this.zonas = zonas;
+    }
+
+    /** Cohortes de los meses de [fromIncl, toExcl); {@code meses} entre 0 y {@value #MAX_MESES}. */
+    @Transactional(readOnly = true)
+    public RetencionCohortesDTO calcular(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl, List<Integer> meses) {
+        List<Integer> ks = (meses == null || meses.isEmpty()) ? MESES_DEFAULT : meses.stream().distinct().sorted().toList();
+        if (ks.get(0) < 0 || ks.get(ks.size() - 1) > MAX_MESES) {
+            throw new IllegalArgumentException("Los meses de retención van de 0 a " + MAX_MESES);
+        }
+        int maxK = ks.get(ks.size() - 1);
+
+        ZoneId zona = zonas.deEntrenador(entrenadorId);
+        BucketsTemporales cohortes = BucketsTemporales.de(Granularidad.MES, zona, fromIncl, toExcl);
+        int n = cohortes.periodos();
+        // Mismos meses extendidos maxK + 1 hacia adelante, para ubicar las bajas
+        BucketsTemporales calendario = BucketsTemporales.de(Granularidad.MES, zona,
+                cohortes.inicio(0), cohortes.inicio(n).plusMonths(maxK + 1L));
+        long finVentana = calendario.hasta().getTime();
+
+        long[] altas = new long[n];
+        // bajas[c][d]: alumnos de la cohorte c que se fueron en el mes c + d (d = 0..maxK)
+        long[][] bajas = new long[n][maxK + 1];
+
+        try (Stream<AltaBaja> filas = alumnoRepository.streamAltasYBajas(entrenadorId, cohortes.desde(), cohortes.hasta())) {
+            filas.forEach(f -> {
+                if (f.getAlta() == null) return;
+                int c = cohortes.indice(f.getAlta().getTime());
+                if (c < 0) return;
+                altas[c]++;
+                if (f.getBaja() == null || f.getBaja().getTime() >= finVentana) return;
+                int d = Math.max(0, calendario.indice(f.getBaja().getTime()) - c);
+                if (d <= maxK) bajas[c][d]++;
+            });
+        }
+
+        // Un mes cuenta recién cuando cerró
+        LocalDate hoy = LocalDate.now(zona);
+        List<RetencionCohorteDTO> out = new ArrayList<>(n);
+        for (int c = 0; c < n; c++) {
+            Long[] activos = new Long[ks.size()];
+            long acumuladoBajas = 0;
+            int d = 0;
+            for (int j = 0; j < ks.size(); j++) {
+                int k = ks.get(j);
+                for (; d <= k; d++) acumuladoBajas += bajas[c][d];
+                boolean cerrado = !calendario.inicio(c + k + 1).isAfter(hoy);
+                activos[j] = cerrado ? altas[c] - acumuladoBajas : null;
+            }
+            out.add(new RetencionCohorteDTO(cohortes.etiqueta(c), altas[c], Arrays.asList(activos)));
+        }
+        return new RetencionCohortesDTO(ks, out);
+    }
+}
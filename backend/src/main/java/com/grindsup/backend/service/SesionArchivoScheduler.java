@@ -0,0 +1,82 @@
+package com.grindsup.backend.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.grindsup.backend.repository.SesionDiaResumenRepository;
+import com.grindsup.backend.repository.SesionRepository;
+
+/**
+ * Mueve a {@code sesiones_archivo} las sesiones más viejas que la retención,
+ * en lotes chicos (una transacción por lote) para no bloquear los logins ni
+ * inflar el undo log. Así {@code sesiones} queda con los últimos días y entra
+ * en memoria; el historial completo sigue en el rollup diario.
+ */
+@Service
+public class SesionArchivoScheduler {
+
+    private final SesionRepository sesionRepository;
+    private final SesionDiaResumenRepository resumenRepository;
+    private final TransactionTemplate tx;
+    private final int retencionDias;
+    private final int lote;
+    private final long pausaMs;
+
+    public SesionArchivoScheduler(SesionRepository sesionRepository,
+                                  SesionDiaResumenRepository resumenRepository,
+                                  TransactionTemplate tx,
+                                  @Value("${grindsup.sesiones.retencion-dias:90}") int retencionDias,
+                                  @Value("${grindsup.sesiones.archivo.lote:500}") int lote,
+                                  @Value("${grindsup.sesiones.archivo.pausa-ms:50}") long pausaMs) {
+        this.sesionRepository = sesionRepository;
+        this.resumenRepository = resumenRepository;
+        this.tx = tx;
+        this.retencionDias = retencionDias;
+        this.lote = Math.max(1, lote);
+        this.pausaMs = Math.max(0, pausaMs);
+    }
+
+    // 🕒 Todos los días a la madrugada (configurable)
+    @Scheduled(cron = "${grindsup.sesiones.archivo.cron:0 30 3 * * *}")
+    public void archivar() {
+        if (retencionDias <= 0) return;
+
+        // Sin rollup no se archiva: los reportes perderían esas sesiones
+        if (resumenRepository.count() == 0) {
+            System.err.println("⚠️ Archivo de sesiones omitido: el resumen diario está vacío");
+            return;
+        }
+
+        OffsetDateTime corte = OffsetDateTime.now().minusDays(retencionDias);
+        long total = 0;
+        try {
+            while (true) {
+                Integer movidas = tx.execute(status -> {
+                    List<Long> ids = sesionRepository.findIdsAnterioresA(corte, lote);
+                    if (ids.isEmpty()) return 0;
+                    sesionRepository.copiarAlArchivo(ids);
+                    sesionRepository.borrarPorIds(ids);
+                    return ids.size();
+                });
+                int n = movidas != null ? movidas : 0;
+                total += n;
+                if (n < lote) break;
+                // Pausa corta entre lotes para dejar pasar el tráfico normal
+                if (pausaMs > 0) Thread.sleep(pausaMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("⚠️ Error archivando sesiones: " + e.getMessage());
+        }
+
+        if (total > 0) {
+            System.out.println("✅ Sesiones archivadas: " + total + " (anteriores a " + corte.toLocalDate() + ")");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.grindsup.backend.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.grindsup.backend.model.Sesion;
+import com.grindsup.backend.model.Usuario;
+import com.grindsup.backend.repository.SesionDiaResumenRepository;
+import com.grindsup.backend.repository.SesionRepository;
+
+/**
+ * Historial de sesiones: cada alta, cambio o baja de {@link Sesion} se
+ * aplica al rollup diario {@code sesiones_dia_resumen} en la misma
+ * transacción. Las filas crudas viejas las mueve a {@code sesiones_archivo}
+ * SesionArchivoScheduler; los reportes solo leen el rollup.
+ *
+ * El día se calcula en la misma zona con la que Hibernate guarda las fechas
+ * (hibernate.jdbc.time_zone), así coincide con DATE(inicio) en la base.
+ */
+@Service
+public class SesionHistorialService {
+
+    private final SesionRepository sesionRepository;
+    private final SesionDiaResumenRepository resumenRepository;
+    private final TransactionTemplate tx;
+    private final ZoneId zona;
+    private final boolean backfillAlIniciar;
+
+    public SesionHistorialService(SesionRepository sesionRepository,
+                                  SesionDiaResumenRepository resumenRepository,
+                                  TransactionTemplate tx,
+                                  ZonaHorariaService zonaHorariaService,
+                                  @Value("${grindsup.sesiones.resumen.backfill-al-iniciar:true}") boolean backfillAlIniciar) {
+        this.sesionRepository = sesionRepository;
+        this.resumenRepository = resumenRepository;
+        this.tx = tx;
+        this.zona = zonaHorariaService.app();
+        this.backfillAlIniciar = backfillAlIniciar;
+    }
+
+    public ZoneId zona() {
+        return zona;
+    }
+
+    /** Crea la sesión de un login y la suma al rollup del día. */
+    @Transactional
+    public Sesion registrarInicio(Usuario usuario) {
+        OffsetDateTime ahora = OffsetDateTime.now();
+        Sesion sesion = new Sesion();
+        sesion.setUsuario(usuario);
+        sesion.setInicio(ahora);
+        sesion.setCreated_at(ahora);
+        sesion.setUpdated_at(ahora);
+        return registrar(sesion);
+    }
+
+    /** Guarda una sesión nueva armada por el llamador y la suma al rollup. */
+    @Transactional
+    public Sesion registrar(Sesion sesion) {
+        Sesion saved = sesionRepository.save(sesion);
+        sumar(Aporte.de(saved));
+        return saved;
+    }
+
+    /** Usuario e inicio de una sesión antes de modificarla: lo que aporta al rollup. */
+    public record Aporte(Long usuarioId, OffsetDateTime inicio) {
+        public static Aporte de(Sesion s) {
+            return new Aporte(s.getUsuario() != null ? s.getUsuario().getId_usuario() : null, s.getInicio());
+        }
+    }
+
+    /**
+     * Guarda una sesión ya modificada y, si cambió el usuario o el inicio,
+     * pasa su aporte del día viejo ({@code antes}) al nuevo: −1 y +1.
+     */
+    @Transactional
+    public Sesion actualizar(Aporte antes, Sesion sesion) {
+        Sesion saved = sesionRepository.saveAndFlush(sesion);
+        Aporte ahora = Aporte.de(saved);
+        if (mismoAporte(antes, ahora)) return saved;
+        restar(antes);
+        sumar(ahora);
+        return saved;
+    }
+
+    /** Borra la sesión y la resta del rollup de su día. */
+    @Transactional
+    public void eliminar(Sesion sesion) {
+        Aporte antes = Aporte.de(sesion);
+        sesionRepository.delete(sesion);
+        sesionRepository.flush();
+        restar(antes);
+    }
+
+    private void sumar(Aporte a) {
+        if (a.usuarioId() == null || a.inicio() == null) return;
+        resumenRepository.sumar(a.usuarioId(), dia(a.inicio()), 1, a.inicio());
+    }
+
+    private void restar(Aporte a) {
+        if (a.usuarioId() == null || a.inicio() == null) return;
+        LocalDate dia = dia(a.inicio());
+        resumenRepository.restar(a.usuarioId(), dia,
+                dia.atStartOfDay(zona).toOffsetDateTime(), dia.plusDays(1).atStartOfDay(zona).toOffsetDateTime());
+        resumenRepository.borrarSiVacio(a.usuarioId(), dia);
+    }
+
+    private static boolean mismoAporte(Aporte a, Aporte b) {
+        return Objects.equals(a.usuarioId(), b.usuarioId())
+                && (a.inicio() == null ? b.inicio() == null : b.inicio() != null && a.inicio().isEqual(b.inicio()));
+    }
+
+    private LocalDate dia(OffsetDateTime inicio) {
+        return inicio.atZoneSameInstant(zona).toLocalDate();
+    }
+
+    // ============================================================
+    // ====================== RECONSTRUCCIÓN ======================
+    // ============================================================
+
+    /** Rehace el rollup desde sesiones + sesiones_archivo. Devuelve la cantidad de filas (usuario, día). */
+    public int reconstruir() {
+        Integer n = tx.execute(status -> {
+            resumenRepository.deleteTodo();
+            return resumenRepository.reconstruirDesdeHistorial();
+        });
+        return n != null ? n : 0;
+    }
+
+    // Backfill inicial: si el rollup está vacío (primer deploy) se llena desde el historial
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillAlIniciar || resumenRepository.count() > 0) return;
+        try {
+            int n = reconstruir();
+            System.out.println("✅ Resumen diario de sesiones reconstruido (" + n + " filas)");
+        } catch (Exception e) {
+            System.err.println("⚠️ No se pudo reconstruir el resumen diario de sesiones: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.grindsup.backend.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.grindsup.backend.event.DatosEntrenadorModificadosEvent;
+import com.grindsup.backend.event.DatosEntrenadorModificadosEvent.Origen;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache LRU en memoria de resultados de estadísticas, clave
+ * (método, entrenador, rango), acotada por cantidad de entradas.
+ *
+ * No hay TTL: cada escritura de alumnos o evaluaciones publica (después del
+ * commit) un {@link DatosEntrenadorModificadosEvent} y acá se borran las
+ * entradas de ese entrenador. Una versión por entrenador evita guardar un
+ * resultado que se empezó a calcular antes de la invalidación.
+ *
+ * Los valores se comparten entre requests: quien los use no debe modificarlos.
+ */
+@Component
+public class StatsCache {
+
+    public record Key(String metodo, Long entrenadorId, LocalDate desde, LocalDate hasta) {}
+
+    private record Entrada(Object valor) {}
+
+    private final LinkedHashMap<Key, Entrada> lru = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Long> versionPorEntrenador = new HashMap<>();
+    private long versionGlobal;
+
+    private final int maxEntradas;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter evictions;
+    private final Counter invalidaciones;
+    private long hits;
+    private long misses;
+
+    public StatsCache(MeterRegistry meterRegistry,
+                      @Value("${grindsup.stats.cache.max-entradas:2000}") int maxEntradas) {
+        this.maxEntradas = Math.max(0, maxEntradas);
+        this.meterRegistry = meterRegistry;
+        this.evictions = meterRegistry.counter("grindsup.stats.cache.evictions");
+        this.invalidaciones = meterRegistry.counter("grindsup.stats.cache.invalidaciones");
+        Gauge.builder("grindsup.stats.cache.entries", this, c -> c.entradas()).register(meterRegistry);
+        Gauge.builder("grindsup.stats.cache.hit_ratio", this, c -> c.hitRatio()).register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el valor cacheado para la clave o lo calcula con {@code loader}.
+     * El cálculo corre fuera del lock (dos requests simultáneos pueden
+     * calcularlo los dos; gana el último).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String metodo, Long entrenadorId, LocalDate desde, LocalDate hasta, Supplier<T> loader) {
+        if (maxEntradas == 0 || entrenadorId == null) {
+            return loader.get();
+        }
+        Key key = new Key(metodo, entrenadorId, desde, hasta);
+        long version;
+        synchronized (this) {
+            Entrada e = lru.get(key);
+            if (e != null) {
+                hits++;
+                contar(metodo, "hit");
+                return (T) e.valor();
+            }
+            misses++;
+            version = version(entrenadorId);
+        }
+        contar(metodo, "miss");
+
+        T valor = loader.get();
+
+        synchronized (this) {
+            // Si hubo una invalidación mientras se calculaba, el valor puede estar viejo
+            if (version == version(entrenadorId)) {
+                lru.put(key, new Entrada(valor));
+                desalojar();
+            }
+        }
+        return valor;
+    }
+
+    // ============================================================
+    // ====================== INVALIDACIÓN ========================
+    // ============================================================
+
+    @EventListener
+    public void onDatosModificados(DatosEntrenadorModificadosEvent event) {
+        // Los planes no alimentan estas estadísticas
+        if (event.origen() == Origen.PLAN || event.entrenadorId() == null) return;
+        invalidarEntrenador(event.entrenadorId());
+    }
+
+    public synchronized void invalidarEntrenador(Long entrenadorId) {
+        versionPorEntrenador.merge(entrenadorId, 1L, Long::sum);
+        lru.keySet().removeIf(k -> k.entrenadorId().equals(entrenadorId));
+        invalidaciones.increment();
+    }
+
+    /** Para reconstrucciones completas de los rollups. */
+    public synchronized void invalidarTodo() {
+        versionGlobal++;
+        lru.clear();
+        invalidaciones.increment();
+    }
+
+    // ===== helpers =====
+
+    private long version(Long entrenadorId) {
+        return versionGlobal + versionPorEntrenador.getOrDefault(entrenadorId, 0L);
+    }
+
+    private void desalojar() {
+        Iterator<Key> it = lru.keySet().iterator();
+        while (lru.size() > maxEntradas && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private void contar(String metodo, String resultado) {
+        meterRegistry.counter("grindsup.stats.cache", "metodo", metodo, "result", resultado).increment();
+    }
+
+    private synchronized int entradas() {
+        return lru.size();
+    }
+
+    private synchronized double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
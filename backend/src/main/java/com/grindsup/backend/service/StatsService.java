@@ -2,95 +2,163 @@
 package com.grindsup.backend.service;
 
 import com.grindsup.backend.DTO.AltasBajasMesDTO;
+import com.grindsup.backend.DTO.AlumnosResumenDTO;
+import com.grindsup.backend.DTO.AlumnosResumenMesDTO;
 import com.grindsup.backend.DTO.RatingBucketDTO;
 import com.grindsup.backend.DTO.RatingMesDTO;
+import com.grindsup.backend.model.AlumnoMesResumen;
+import com.grindsup.backend.model.PlanRatingMesResumen;
+import com.grindsup.backend.repository.AlumnoMesResumenRepository;
 import com.grindsup.backend.repository.AlumnoRepository;
-import com.grindsup.backend.repository.AlumnoRepository.MesCount;
+import com.grindsup.backend.repository.AlumnoRepository.EventoAlumno;
 import com.grindsup.backend.repository.PlanEvaluacionRepository;
-import com.grindsup.backend.repository.PlanEvaluacionRepository.RatingBucket;
-import com.grindsup.backend.repository.PlanEvaluacionRepository.RatingMes;
+import com.grindsup.backend.repository.PlanEvaluacionRepository.EvaluacionScore;
+import com.grindsup.backend.repository.PlanRatingMesResumenRepository;
+import com.grindsup.backend.util.TablaWriter;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Estadísticas por período (día / semana / mes / trimestre) en la zona
+ * horaria del entrenador. Todas salen de {@link BucketsTemporales}:
+ *
+ * - MES en la zona de la app: se leen los rollups mensuales (O(meses) filas).
+ * - Cualquier otra combinación: una sola lectura de las fechas crudas por
+ *   range scan indexado, plegadas en {@code long[]} por período.
+ *
+ * Los resultados pasan por StatsCache (clave con la granularidad).
+ */
 @Service
 public class StatsService {
 
+    private static final DateTimeFormatter YM = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final AlumnoMesResumenRepository resumenRepository;
+    private final PlanRatingMesResumenRepository ratingResumenRepository;
     private final AlumnoRepository alumnoRepository;
-    private final PlanEvaluacionRepository planEvaluacionRepository;
+    private final PlanEvaluacionRepository evalRepository;
+    private final ZonaHorariaService zonas;
+    private final StatsCache cache;
 
-    public StatsService(AlumnoRepository alumnoRepository,
-                        PlanEvaluacionRepository planEvaluacionRepository) {
+    public StatsService(AlumnoMesResumenRepository resumenRepository,
+                        PlanRatingMesResumenRepository ratingResumenRepository,
+                        AlumnoRepository alumnoRepository,
+                        PlanEvaluacionRepository evalRepository,
+                        ZonaHorariaService zonas,
+                        StatsCache cache) {
+        this.resumenRepository = resumenRepository;
+        this.ratingResumenRepository = ratingResumenRepository;
         this.alumnoRepository = alumnoRepository;
-        this.planEvaluacionRepository = planEvaluacionRepository;
+        this.evalRepository = evalRepository;
+        this.zonas = zonas;
+        this.cache = cache;
     }
 
     /* =======================
-     * Alumnos
+     * Períodos
      * ======================= */
 
-    public List<AltasBajasMesDTO> altasBajasPorMes(Long entrenadorId, LocalDate fromMonthIncl, LocalDate toMonthExcl) {
-        Date from = Date.from(fromMonthIncl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-        Date to   = Date.from(toMonthExcl.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    private BucketsTemporales periodos(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        return BucketsTemporales.de(g, zonas.deEntrenador(entrenadorId), fromIncl, toExcl);
+    }
+
+    // Los rollups están por mes calendario en la zona de la app
+    private boolean alcanzaRollup(BucketsTemporales b) {
+        return b.granularidad() == Granularidad.MES && b.zona().equals(zonas.app());
+    }
 
-        List<MesCount> altas = alumnoRepository.altasPorMes(entrenadorId, from, to);
-        List<MesCount> bajas = alumnoRepository.bajasPorMes(entrenadorId, from, to);
+    private static String mes(LocalDate dia) {
+        return YearMonth.from(dia).format(YM);
+    }
 
-        Map<String, Long> mapAltas = altas.stream()
-                .collect(Collectors.toMap(MesCount::getMonth, MesCount::getCnt));
-        Map<String, Long> mapBajas = bajas.stream()
-                .collect(Collectors.toMap(MesCount::getMonth, MesCount::getCnt));
+    /* =======================
+     * Alumnos
+     * ======================= */
 
-        Set<String> meses = new TreeSet<>();
-        meses.addAll(mapAltas.keySet());
-        meses.addAll(mapBajas.keySet());
+    public ResumenAlumnos resumenAlumnos(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl) {
+        return resumenAlumnos(entrenadorId, Granularidad.MES, fromIncl, toExcl);
+    }
 
-        List<AltasBajasMesDTO> out = new ArrayList<>();
-        for (String m : meses) {
-            out.add(new AltasBajasMesDTO(
-                    m,
-                    mapAltas.getOrDefault(m, 0L),
-                    mapBajas.getOrDefault(m, 0L)
-            ));
+    /**
+     * Altas, bajas y activos al cierre de cada período de [fromIncl, toExcl)
+     * en una sola pasada: una lectura (rollup o eventos) + el acumulado previo.
+     */
+    public ResumenAlumnos resumenAlumnos(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        return cache.get("alumnos.resumen." + g.getClave(), entrenadorId, fromIncl, toExcl, () -> {
+            BucketsTemporales b = periodos(entrenadorId, g, fromIncl, toExcl);
+            return alcanzaRollup(b) ? resumenDesdeRollup(entrenadorId, b) : resumenDesdeEventos(entrenadorId, b);
+        });
+    }
+
+    private ResumenAlumnos resumenDesdeRollup(Long entrenadorId, BucketsTemporales b) {
+        long[] altas = b.vector();
+        long[] bajas = b.vector();
+        String desde = mes(b.inicio(0));
+        for (AlumnoMesResumen r : resumenRepository.findRango(entrenadorId, desde, mes(b.inicio(b.periodos())))) {
+            int i = b.indice(YearMonth.parse(r.getMes(), YM).atDay(1));
+            if (i < 0) continue;
+            altas[i] += r.getAltas();
+            bajas[i] += r.getBajas();
         }
-        return out;
+        long neto = Optional.ofNullable(resumenRepository.netoAntesDe(entrenadorId, desde)).orElse(0L);
+        return acumular(b, altas, bajas, neto);
     }
 
-    public List<AltasBajasMesDTO> activosFinDeMes(Long entrenadorId, LocalDate fromMonthIncl, LocalDate toMonthExcl) {
-        Date from = Date.from(fromMonthIncl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-        Date to   = Date.from(toMonthExcl.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    // Mismo criterio que el rollup mensual (ver AlumnoResumenService): alta y baja salen del estado actual
+    private ResumenAlumnos resumenDesdeEventos(Long entrenadorId, BucketsTemporales b) {
+        long[] altas = b.vector();
+        long[] bajas = b.vector();
+        for (EventoAlumno e : alumnoRepository.eventosEnRango(entrenadorId, b.desde(), b.hasta())) {
+            boolean alta = e.getTipo() != null && e.getTipo() == 1;
+            b.sumar(alta ? altas : bajas, e.getFecha(), 1);
+        }
+        long neto = Optional.ofNullable(alumnoRepository.netoAntesDe(entrenadorId, b.desde())).orElse(0L);
+        return acumular(b, altas, bajas, neto);
+    }
 
-        List<MesCount> altas = alumnoRepository.altasPorMes(entrenadorId, from, to);
-        List<MesCount> bajas = alumnoRepository.bajasPorMes(entrenadorId, from, to);
+    private static ResumenAlumnos acumular(BucketsTemporales b, long[] altas, long[] bajas, long neto) {
+        long[] activos = b.vector();
+        long acumulado = neto;
+        for (int i = 0; i < activos.length; i++) {
+            acumulado += altas[i] - bajas[i];
+            activos[i] = acumulado;
+        }
+        return new ResumenAlumnos(b, altas, bajas, activos);
+    }
 
-        Map<String, Long> altasMap = new HashMap<>();
-        for (MesCount m : altas) altasMap.put(m.getMonth(), m.getCnt());
-        Map<String, Long> bajasMap = new HashMap<>();
-        for (MesCount m : bajas) bajasMap.put(m.getMonth(), m.getCnt());
+    // En los DTOs el campo "month" lleva la etiqueta del período (2025-03, 2025-W11, 2025-Q1, ...)
 
-        // activos antes del primer día del rango (corte exclusivo)
-        long activos = Optional.ofNullable(
-                alumnoRepository.countActivosAntesDe(
-                        entrenadorId,
-                        Date.from(fromMonthIncl.atStartOfDay(ZoneId.systemDefault()).toInstant())
-                )
-        ).orElse(0L);
+    public AlumnosResumenDTO resumenAlumnosDTO(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        ResumenAlumnos r = resumenAlumnos(entrenadorId, g, fromIncl, toExcl);
+        List<AlumnosResumenMesDTO> periodos = new ArrayList<>(r.periodos());
+        for (int i = 0; i < r.periodos(); i++) {
+            periodos.add(new AlumnosResumenMesDTO(r.periodo(i), r.altas(i), r.bajas(i), r.activos(i)));
+        }
+        return new AlumnosResumenDTO(r.totalAltas(), r.totalBajas(), periodos);
+    }
 
+    // Solo los períodos con movimiento (como la consulta original)
+    public List<AltasBajasMesDTO> altasBajasPorPeriodo(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        ResumenAlumnos r = resumenAlumnos(entrenadorId, g, fromIncl, toExcl);
         List<AltasBajasMesDTO> out = new ArrayList<>();
-        LocalDate cursor = fromMonthIncl;
-        DateTimeFormatter ym = DateTimeFormatter.ofPattern("yyyy-MM");
-        while (cursor.isBefore(toMonthExcl)) {
-            String key = cursor.format(ym);
-            long a = Optional.ofNullable(altasMap.get(key)).orElse(0L);
-            long b = Optional.ofNullable(bajasMap.get(key)).orElse(0L);
-            activos = activos + a - b;
-
-            out.add(new AltasBajasMesDTO(key, activos, 0L));
-            cursor = cursor.plusMonths(1);
+        for (int i = 0; i < r.periodos(); i++) {
+            if (r.altas(i) == 0 && r.bajas(i) == 0) continue;
+            out.add(new AltasBajasMesDTO(r.periodo(i), r.altas(i), r.bajas(i)));
+        }
+        return out;
+    }
+
+    // En este DTO el campo "altas" lleva los activos al cierre del período
+    public List<AltasBajasMesDTO> activosFinDePeriodo(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        ResumenAlumnos r = resumenAlumnos(entrenadorId, g, fromIncl, toExcl);
+        List<AltasBajasMesDTO> out = new ArrayList<>(r.periodos());
+        for (int i = 0; i < r.periodos(); i++) {
+            out.add(new AltasBajasMesDTO(r.periodo(i), r.activos(i), 0L));
         }
         return out;
     }
@@ -100,35 +168,113 @@ public class StatsService {
      * ======================= */
 
     public List<RatingMesDTO> planesRatingMensual(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl) {
-        Date from = Date.from(fromIncl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-        Date to   = Date.from(toExcl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-        List<RatingMes> rows = planEvaluacionRepository.ratingPromedioMensual(entrenadorId, from, to);
-        List<RatingMesDTO> out = new ArrayList<>();
-        for (RatingMes r : rows) {
-            out.add(new RatingMesDTO(
-                    r.getMonth(),
-                    r.getAvg() == null ? 0.0 : r.getAvg(),
-                    r.getCnt() == null ? 0L   : r.getCnt()
-            ));
-        }
-        return out;
+        return planesRating(entrenadorId, Granularidad.MES, fromIncl, toExcl);
+    }
+
+    /** Promedio y cantidad por período (solo los períodos con evaluaciones). */
+    public List<RatingMesDTO> planesRating(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl) {
+        return cache.get("planes.rating." + g.getClave(), entrenadorId, fromIncl, toExcl, () -> {
+            BucketsTemporales b = periodos(entrenadorId, g, fromIncl, toExcl);
+            long[] suma = b.vector();
+            long[] cantidad = b.vector();
+            if (alcanzaRollup(b)) {
+                for (PlanRatingMesResumen r : ratingsEnRango(entrenadorId, b)) {
+                    int i = b.indice(YearMonth.parse(r.getMes(), YM).atDay(1));
+                    if (i < 0) continue;
+                    suma[i] += r.getSuma();
+                    cantidad[i] += r.getCantidad();
+                }
+            } else {
+                for (EvaluacionScore e : evalRepository.evaluacionesEnRango(entrenadorId, b.desde(), b.hasta())) {
+                    int i = e.getFecha() != null ? b.indice(e.getFecha().getTime()) : -1;
+                    if (i < 0) continue;
+                    suma[i] += e.getScore();
+                    cantidad[i]++;
+                }
+            }
+            List<RatingMesDTO> out = new ArrayList<>();
+            for (int i = 0; i < b.periodos(); i++) {
+                if (cantidad[i] == 0) continue;
+                out.add(new RatingMesDTO(b.etiqueta(i), (double) suma[i] / cantidad[i], cantidad[i]));
+            }
+            return List.copyOf(out);
+        });
     }
 
     public List<RatingBucketDTO> planesRatingDistribucion(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl) {
-        Date from = Date.from(fromIncl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-        Date to   = Date.from(toExcl.atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-        List<RatingBucket> rows = planEvaluacionRepository.ratingDistribucion(entrenadorId, from, to);
-        // Normalizo a buckets 0..5
-        Map<Integer, Long> m = new HashMap<>();
-        for (RatingBucket r : rows) {
-            m.put(r.getScore(), r.getCnt());
-        }
+        long[] cnt = histograma(entrenadorId, fromIncl, toExcl);
         List<RatingBucketDTO> out = new ArrayList<>();
         for (int s = 0; s <= 5; s++) {
-            out.add(new RatingBucketDTO(s, m.getOrDefault(s, 0L)));
+            out.add(new RatingBucketDTO(s, cnt[s]));
         }
         return out;
     }
+
+    private List<PlanRatingMesResumen> ratingsEnRango(Long entrenadorId, BucketsTemporales b) {
+        return ratingResumenRepository.findRango(entrenadorId, mes(b.inicio(0)), mes(b.inicio(b.periodos())));
+    }
+
+    // Buckets 0..5 de todo el rango (compartido vía cache: solo lectura)
+    private long[] histograma(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl) {
+        return cache.get("planes.rating-distribucion", entrenadorId, fromIncl, toExcl, () -> {
+            BucketsTemporales b = periodos(entrenadorId, Granularidad.MES, fromIncl, toExcl);
+            long[] cnt = new long[6];
+            if (alcanzaRollup(b)) {
+                for (PlanRatingMesResumen r : ratingsEnRango(entrenadorId, b)) {
+                    for (int s = 0; s <= 5; s++) {
+                        cnt[s] += r.conScore(s);
+                    }
+                }
+            } else {
+                for (EvaluacionScore e : evalRepository.evaluacionesEnRango(entrenadorId, b.desde(), b.hasta())) {
+                    int s = e.getScore();
+                    if (s >= 0 && s <= 5) cnt[s]++;
+                }
+            }
+            return cnt;
+        });
+    }
+
+    /* =======================
+     * Exportaciones (CSV / XLSX)
+     * Escriben fila por fila desde los arrays por período,
+     * sin armar las listas de DTOs.
+     * ======================= */
+
+    public void exportarAltasBajas(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl,
+                                   TablaWriter out) throws IOException {
+        ResumenAlumnos r = resumenAlumnos(entrenadorId, g, fromIncl, toExcl);
+        out.encabezado(g.getClave(), "altas", "bajas");
+        for (int i = 0; i < r.periodos(); i++) {
+            if (r.altas(i) == 0 && r.bajas(i) == 0) continue;
+            out.fila(r.periodo(i), r.altas(i), r.bajas(i));
+        }
+    }
+
+    public void exportarActivosFinDePeriodo(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl,
+                                            TablaWriter out) throws IOException {
+        ResumenAlumnos r = resumenAlumnos(entrenadorId, g, fromIncl, toExcl);
+        out.encabezado(g.getClave(), "activos");
+        for (int i = 0; i < r.periodos(); i++) {
+            out.fila(r.periodo(i), r.activos(i));
+        }
+    }
+
+    public void exportarPlanesRating(Long entrenadorId, Granularidad g, LocalDate fromIncl, LocalDate toExcl,
+                                     TablaWriter out) throws IOException {
+        out.encabezado(g.getClave(), "promedio", "evaluaciones");
+        for (RatingMesDTO r : planesRating(entrenadorId, g, fromIncl, toExcl)) {
+            out.fila(r.month(), r.avg(), r.count());
+        }
+    }
+
+    public void exportarPlanesRatingDistribucion(Long entrenadorId, LocalDate fromIncl, LocalDate toExcl,
+                                                 TablaWriter out) throws IOException {
+        // Buckets 0..5 (incluye los vacíos, igual que el JSON)
+        long[] cnt = histograma(entrenadorId, fromIncl, toExcl);
+        out.encabezado("score", "cantidad");
+        for (int sc = 0; sc <= 5; sc++) {
+            out.fila(sc, cnt[sc]);
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.grindsup.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.grindsup.backend.DTO.TurnoResponseDTO;
+import com.grindsup.backend.DTO.TurnosPaginaDTO;
+import com.grindsup.backend.repository.TurnoRepository;
+import com.grindsup.backend.repository.TurnoRepository.AlumnoDeTurno;
+import com.grindsup.backend.repository.TurnoRepository.TurnoFila;
+
+/**
+ * Lectura de turnos sin entidades: una consulta con las filas (nombres de
+ * entrenador y tipo resueltos por JOIN) y otra con los alumnos de todos esos
+ * turnos por IN. Listar un mes de turnos o armar los recordatorios de un
+ * tramo cuesta siempre las mismas consultas, sin importar cuántos turnos haya.
+ *
+ * Los listados van por páginas con cursor sobre (fecha, id_turno) y siempre
+ * dentro de una ventana de fechas: sin desde / hasta se usa la ventana por
+ * defecto alrededor de hoy, nunca todo el historial.
+ */
+@Service
+public class TurnoLecturaService {
+
+    // Tope de parámetros por IN (MySQL no tiene límite duro, pero el plan y el
+    // paquete crecen con la lista)
+    static final int MAX_IN = 1000;
+
+    private final TurnoRepository turnoRepository;
+    private final Duration ventanaAtras;
+    private final Duration ventanaAdelante;
+    private final int paginaDefault;
+    private final int paginaMax;
+
+    public TurnoLecturaService(TurnoRepository turnoRepository,
+                               @Value("${grindsup.turnos.listado.ventana-dias-atras:90}") int diasAtras,
+                               @Value("${grindsup.turnos.listado.ventana-dias-adelante:180}") int diasAdelante,
+                               @Value("${grindsup.turnos.listado.pagina:200}") int paginaDefault,
+                               @Value("${grindsup.turnos.listado.pagina-max:1000}") int paginaMax) {
+        this.turnoRepository = turnoRepository;
+        this.ventanaAtras = Duration.ofDays(Math.max(0, diasAtras));
+        this.ventanaAdelante = Duration.ofDays(Math.max(0, diasAdelante));
+        this.paginaMax = Math.max(1, paginaMax);
+        this.paginaDefault = Math.min(this.paginaMax, Math.max(1, paginaDefault));
+    }
+
+    /**
+     * Página de turnos del entrenador en [desde, hasta], después del cursor.
+     * Cursor inválido o límite fuera de rango = IllegalArgumentException.
+     */
+    @Transactional(readOnly = true)
+    public TurnosPaginaDTO listarPorEntrenador(Long entrenadorId, OffsetDateTime desde, OffsetDateTime hasta,
+                                               String tipo, String cursor, Integer limite) {
+        Ventana v = ventana(desde, hasta, cursor, limite);
+        return pagina(turnoRepository.paginaPorEntrenador(entrenadorId, v.fecha, v.id, v.hasta, tipo,
+                PageRequest.ofSize(v.limite + 1)), v.limite);
+    }
+
+    @Transactional(readOnly = true)
+    public TurnosPaginaDTO listarTodos(OffsetDateTime desde, OffsetDateTime hasta, String cursor, Integer limite) {
+        Ventana v = ventana(desde, hasta, cursor, limite);
+        return pagina(turnoRepository.paginaTodas(v.fecha, v.id, v.hasta,
+                PageRequest.ofSize(v.limite + 1)), v.limite);
+    }
+
+    /** Filas de esos turnos (tipo opcional); el orden no está garantizado. */
+    public List<TurnoFila> filas(List<Long> ids) {
+        List<TurnoFila> out = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += MAX_IN) {
+            out.addAll(turnoRepository.filasPorIds(ids.subList(i, Math.min(ids.size(), i + MAX_IN))));
+        }
+        return out;
+    }
+
+    /** Alumnos agrupados por id de turno; los turnos sin alumnos no aparecen. */
+    public Map<Long, List<AlumnoDeTurno>> alumnosPorTurno(Collection<Long> ids) {
+        Map<Long, List<AlumnoDeTurno>> out = new HashMap<>();
+        List<Long> lista = List.copyOf(ids);
+        for (int i = 0; i < lista.size(); i += MAX_IN) {
+            for (AlumnoDeTurno a : turnoRepository.alumnosDeTurnos(lista.subList(i, Math.min(lista.size(), i + MAX_IN)))) {
+                out.computeIfAbsent(a.getIdTurno(), k -> new ArrayList<>()).add(a);
+            }
+        }
+        return out;
+    }
+
+    // ===== paginación =====
+
+    private record Ventana(OffsetDateTime fecha, long id, OffsetDateTime hasta, int limite) {}
+
+    private Ventana ventana(OffsetDateTime desde, OffsetDateTime hasta, String cursor, Integer limite) {
+        int n = limite == null ? paginaDefault : limite;
+        if (n < 1 || n > paginaMax) {
+            throw new IllegalArgumentException("El límite de la página va de 1 a " + paginaMax);
+        }
+        OffsetDateTime ahora = OffsetDateTime.now();
+        OffsetDateTime d = desde != null ? desde : ahora.minus(ventanaAtras);
+        OffsetDateTime h = hasta != null ? hasta : ahora.plus(ventanaAdelante);
+        if (cursor == null || cursor.isBlank()) {
+            // Primera página: "después de (desde, 0)" = fecha >= desde
+            return new Ventana(d, 0L, h, n);
+        }
+        String[] partes = decodificar(cursor);
+        try {
+            OffsetDateTime fecha = Instant.parse(partes[0]).atOffset(ZoneOffset.UTC);
+            long id = Long.parseLong(partes[1]);
+            // Si piden un desde posterior al cursor, manda el desde
+            return fecha.isBefore(d) ? new Ventana(d, 0L, h, n) : new Ventana(fecha, id, h, n);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private TurnosPaginaDTO pagina(List<TurnoFila> filas, int limite) {
+        String siguiente = null;
+        if (filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            TurnoFila ultima = filas.get(limite - 1);
+            siguiente = codificar(ultima.getFecha(), ultima.getIdTurno());
+        }
+        return new TurnosPaginaDTO(aResponse(filas), siguiente);
+    }
+
+    // Cursor opaco: base64url de "instante,id_turno" de la última fila
+    static String codificar(OffsetDateTime fecha, Long idTurno) {
+        String plano = fecha.toInstant() + "," + idTurno;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificar(String cursor) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] partes = plano.split(",", -1);
+            if (partes.length == 2) return partes;
+        } catch (IllegalArgumentException ignore) {
+            // cae al error de abajo
+        }
+        throw new IllegalArgumentException("Cursor inválido");
+    }
+
+    // ===== mapeo =====
+
+    List<TurnoResponseDTO> aResponse(List<TurnoFila> filas) {
+        if (filas.isEmpty()) return List.of();
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (TurnoFila f : filas) ids.add(f.getIdTurno());
+        Map<Long, List<AlumnoDeTurno>> alumnos = alumnosPorTurno(ids);
+
+        List<TurnoResponseDTO> out = new ArrayList<>(filas.size());
+        for (TurnoFila f : filas) {
+            List<AlumnoDeTurno> delTurno = alumnos.getOrDefault(f.getIdTurno(), List.of());
+            List<String> nombres = new ArrayList<>(delTurno.size());
+            for (AlumnoDeTurno a : delTurno) nombres.add(a.getNombre());
+            out.add(new TurnoResponseDTO(f.getIdTurno(), f.getEntrenador(), f.getTipoTurno(), f.getFecha(), nombres));
+        }
+        return out;
+    }
+}
@@ -1,88 +1,286 @@
 package com.grindsup.backend.service;
 
-import com.grindsup.backend.model.Turno;
 import com.grindsup.backend.repository.TurnoRepository;
+import com.grindsup.backend.repository.TurnoRepository.AlumnoDeTurno;
+import com.grindsup.backend.repository.TurnoRepository.RecordatorioPendiente;
+import com.grindsup.backend.repository.TurnoRepository.TurnoFila;
+import com.grindsup.backend.service.NotificacionService.NotificacionNueva;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Recordatorios de turnos una hora antes de la fecha.
+ *
+ * Los turnos de las próximas horas (horizonte configurable) viven en una
+ * DelayQueue en memoria: un hilo dedicado duerme hasta el próximo vencimiento
+ * y manda el recordatorio en ese momento, sin consultar la base cada minuto.
+ * TurnoService avisa al commit cuando crea, modifica o borra un turno. Un
+ * barrido de baja frecuencia recarga el horizonte y manda lo que haya quedado
+ * atrasado (reinicio, otra instancia, un alta que no pasó por TurnoService).
+ *
+ * Lo que vence junto se manda junto, en tramos de grindsup.notificaciones.lote:
+ * por tramo se bloquean los turnos aún sin aviso, se insertan las
+ * notificaciones en un batch JDBC y se marca el flag con un solo UPDATE ... IN.
+ * El bloqueo evita que dos disparos del mismo turno dupliquen la notificación.
+ */
 @Service
 public class TurnoNotificationScheduler {
 
+    static final Duration ANTICIPACION = Duration.ofHours(1);
+
     private final TurnoRepository turnoRepository;
     private final NotificacionService notificacionService;
+    private final TurnoLecturaService turnoLecturaService;
+    private final TransactionTemplate tx;
+    private final Duration horizonte;
 
     private static final DateTimeFormatter HORA_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a",
             new Locale("es", "AR"));
 
     private static final ZoneId ZONA_LOCAL = ZoneId.of("America/Argentina/Cordoba");
 
+    // Último recordatorio programado por turno; lo que sale de la cola y no
+    // coincide con esta entrada quedó reemplazado o cancelado (borrado perezoso)
+    private final Map<Long, Recordatorio> vigentes = new ConcurrentHashMap<>();
+    private final DelayQueue<Recordatorio> cola = new DelayQueue<>();
+    private volatile Thread worker;
+
     public TurnoNotificationScheduler(TurnoRepository turnoRepository,
-            NotificacionService notificacionService) {
+            NotificacionService notificacionService,
+            TurnoLecturaService turnoLecturaService,
+            TransactionTemplate tx,
+            @Value("${grindsup.turnos.recordatorio.horizonte-horas:24}") long horizonteHoras) {
         this.turnoRepository = turnoRepository;
         this.notificacionService = notificacionService;
+        this.turnoLecturaService = turnoLecturaService;
+        this.tx = tx;
+        this.horizonte = Duration.ofHours(Math.max(1, horizonteHoras));
     }
 
     // =================================================================
-    // 1. NOTIFICACIÓN DE TURNOS PRÓXIMOS
+    // 1. COLA EN MEMORIA
     // =================================================================
 
-    @Scheduled(fixedRate = 60000) // Se ejecuta cada minuto
-    @Transactional
-    public void enviarNotificacionesPrevias() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Thread t = new Thread(this::consumir, "recordatorios-turnos");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+        reconciliar();
+    }
+
+    @PreDestroy
+    public void detener() {
+        Thread t = worker;
+        worker = null;
+        if (t != null) t.interrupt();
+    }
+
+    /** Programa (o reprograma) el recordatorio de un turno al confirmar la transacción en curso. */
+    public void programarAlCommit(Long idTurno, OffsetDateTime fecha) {
+        alCommit(() -> programar(idTurno, fecha));
+    }
+
+    /** Quita el recordatorio de un turno al confirmar la transacción en curso. */
+    public void cancelarAlCommit(Long idTurno) {
+        alCommit(() -> cancelar(idTurno));
+    }
+
+    void programar(Long idTurno, OffsetDateTime fecha) {
+        if (idTurno == null || fecha == null) return;
+        long ahora = System.currentTimeMillis();
+        long inicio = fecha.toInstant().toEpochMilli();
+        // Turnos ya empezados no se avisan; los lejanos los carga el barrido
+        if (inicio <= ahora || inicio > ahora + ANTICIPACION.plus(horizonte).toMillis()) {
+            cancelar(idTurno);
+            return;
+        }
+        Recordatorio r = new Recordatorio(idTurno, inicio - ANTICIPACION.toMillis());
+        Recordatorio anterior = vigentes.put(idTurno, r);
+        if (anterior != null && anterior.disparo == r.disparo) {
+            // Ya estaba igual en la cola: se deja la entrada vieja
+            vigentes.put(idTurno, anterior);
+            return;
+        }
+        cola.offer(r);
+    }
+
+    void cancelar(Long idTurno) {
+        if (idTurno != null) vigentes.remove(idTurno);
+    }
+
+    private void consumir() {
+        while (worker == Thread.currentThread()) {
+            try {
+                // Espera el próximo vencimiento y se lleva todos los que vencieron
+                List<Recordatorio> vencidos = new ArrayList<>();
+                vencidos.add(cola.take());
+                cola.drainTo(vencidos);
+                List<Long> ids = new ArrayList<>(vencidos.size());
+                for (Recordatorio r : vencidos) {
+                    if (vigentes.remove(r.idTurno, r)) ids.add(r.idTurno);
+                }
+                enviar(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Queda sin flag: lo levanta el próximo barrido
+                System.err.println("⚠️ Error enviando recordatorio de turno: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void alCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // =================================================================
+    // 2. RECONCILIACIÓN (red de seguridad)
+    // =================================================================
+
+    @Scheduled(fixedDelayString = "${grindsup.turnos.recordatorio.reconciliacion-ms:600000}",
+            initialDelayString = "${grindsup.turnos.recordatorio.reconciliacion-ms:600000}")
+    public void reconciliar() {
         OffsetDateTime ahora = OffsetDateTime.now();
-        // Buscar turnos que comiencen dentro de 1 hora y 1 minuto (rango de chequeo)
-        OffsetDateTime dentroDeUnaHora = ahora.plusHours(1).plusSeconds(60);
+        OffsetDateTime limiteEnvio = ahora.plus(ANTICIPACION);
+        try {
+            // Atrasados: ya tendrían que haber salido
+            List<Long> atrasados = new ArrayList<>();
+            for (RecordatorioPendiente p : turnoRepository.findRecordatoriosPendientes(ahora, limiteEnvio)) {
+                atrasados.add(p.getIdTurno());
+            }
+            atrasados.forEach(this::cancelar);
+            int enviados = enviar(atrasados);
+
+            // Horizonte: se reprograma todo lo pendiente (idempotente)
+            List<RecordatorioPendiente> pendientes = turnoRepository.findRecordatoriosPendientes(
+                    limiteEnvio, limiteEnvio.plus(horizonte));
+            for (RecordatorioPendiente p : pendientes) {
+                programar(p.getIdTurno(), p.getFecha());
+            }
+
+            if (enviados > 0) {
+                System.out.println("✅ Recordatorios de turnos atrasados enviados: " + enviados);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Error en la reconciliación de recordatorios de turnos: " + e.getMessage());
+        }
+    }
+
+    // =================================================================
+    // 3. ENVÍO
+    // =================================================================
 
-        List<Turno> turnosProximos = turnoRepository.findByFechaBetweenAndNotificacionPreviaEnviadaFalse(ahora,
-                dentroDeUnaHora);
+    /** Manda los recordatorios pendientes de esos turnos; devuelve cuántos salieron. */
+    private int enviar(List<Long> ids) {
+        int lote = notificacionService.tamanioLote();
+        int enviados = 0;
+        for (int desde = 0; desde < ids.size(); desde += lote) {
+            List<Long> tramo = ids.subList(desde, Math.min(ids.size(), desde + lote));
+            Integer n = tx.execute(status -> enviarTramo(tramo));
+            enviados += n != null ? n : 0;
+        }
+        return enviados;
+    }
 
-        for (Turno turno : turnosProximos) {
+    private int enviarTramo(List<Long> ids) {
+        List<Long> bloqueados = turnoRepository.bloquearPendientesDeAviso(ids);
+        if (bloqueados.isEmpty()) return 0;
 
-            OffsetDateTime fechaTurno = turno.getFecha();
+        // Read model: filas + alumnos del tramo en dos consultas
+        List<TurnoFila> turnos = turnoLecturaService.filas(bloqueados);
+        Map<Long, List<AlumnoDeTurno>> alumnos = turnoLecturaService.alumnosPorTurno(bloqueados);
+
+        List<NotificacionNueva> nuevas = new ArrayList<>(turnos.size());
+        List<Long> avisados = new ArrayList<>(turnos.size());
+        for (TurnoFila turno : turnos) {
             // Traducción explícita a la hora de Córdoba
-            OffsetDateTime fechaLocal = fechaTurno
+            OffsetDateTime fechaLocal = turno.getFecha()
                     .atZoneSameInstant(ZONA_LOCAL)
                     .toOffsetDateTime();
 
             // Formatear la hora del turno (ej: 09:30 AM)
             String horaTurno = fechaLocal.format(HORA_FORMATTER);
-            String listaAlumnos = obtenerListaAlumnos(turno);
+            String listaAlumnos = obtenerListaAlumnos(alumnos.get(turno.getIdTurno()));
 
             String titulo = "Turno Próximo";
             String mensaje = String.format("Tienes un turno a las %s con %s.", horaTurno, listaAlumnos);
 
-            // Crear notificación (asumiendo que id_turno y tipo son el nuevo formato)
-            notificacionService.crearNotificacionParaEntrenador(
-                    titulo,
-                    mensaje,
-                    turno.getEntrenador(),
-                    turno.getId_turno(),
-                    "TURNO");
-
-            turno.setNotificacionPreviaEnviada(true);
-            turnoRepository.save(turno);
+            nuevas.add(new NotificacionNueva(titulo, mensaje,
+                    turno.getIdEntrenador(), turno.getIdTurno(), "TURNO"));
+            avisados.add(turno.getIdTurno());
         }
+
+        notificacionService.insertarEnLote(nuevas);
+        turnoRepository.marcarNotificacionesPrevias(avisados);
+        return avisados.size();
     }
 
     // =================================================================
-    // 3. FUNCIÓN AUXILIAR
+    // 4. FUNCIÓN AUXILIAR
     // =================================================================
 
-    private String obtenerListaAlumnos(Turno turno) {
-        if (turno.getAlumnos() == null || turno.getAlumnos().isEmpty()) {
+    private String obtenerListaAlumnos(List<AlumnoDeTurno> alumnos) {
+        if (alumnos == null || alumnos.isEmpty()) {
             return "sin alumnos";
         }
-        return turno.getAlumnos()
+        return alumnos
                 .stream()
                 .map(a -> a.getNombre() + " " + a.getApellido())
                 .reduce((a, b) -> a + ", " + b)
                 .orElse("varios alumnos");
     }
-}
\ No newline at end of file
+
+    private static final class Recordatorio implements Delayed {
+        final Long idTurno;
+        final long disparo;
+
+        Recordatorio(Long idTurno, long disparo) {
+            this.idTurno = idTurno;
+            this.disparo = disparo;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(disparo - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(disparo, ((Recordatorio) o).disparo);
+        }
+    }
+}
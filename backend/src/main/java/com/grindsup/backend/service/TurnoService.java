@@ -3,9 +3,9 @@ package com.grindsup.backend.service;
 import com.grindsup.backend.DTO.AlumnoMinDTO;
 import com.grindsup.backend.DTO.TurnoRequestDTO;
 import com.grindsup.backend.DTO.TurnoResponseDTO;
+import com.grindsup.backend.DTO.TurnosPaginaDTO;
 import com.grindsup.backend.model.Alumno;
 import com.grindsup.backend.model.Turno;
-import com.grindsup.backend.model.Usuario;
 import com.grindsup.backend.repository.AlumnoRepository;
 import com.grindsup.backend.repository.EntrenadorRepository;
 import com.grindsup.backend.repository.EstadoRepository;
@@ -15,12 +15,9 @@ import com.grindsup.backend.repository.TurnoRepository;
 import jakarta.transaction.Transactional;
 
 import java.time.OffsetDateTime;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,19 +41,27 @@ public class TurnoService {
     @Autowired
     private AlumnoRepository alumnoRepository;
 
-    // 💡 Inyección opcional. Si Spring no puede crearlo (por configuración o falta
-    // de dependencia), será null.
-    @Autowired(required = false)
-    private GoogleCalendarNotificationService googleCalendarNotificationService;
+    @Autowired
+    private TurnoNotificationScheduler turnoNotificationScheduler;
+
+    @Autowired
+    private TurnoLecturaService turnoLecturaService;
 
-    // ======== LISTAR: por entrenador + filtros ========
-    public List<TurnoResponseDTO> listarPorEntrenador(Long entrenadorId,
+    // Google Calendar va por outbox: acá solo se encola en la misma
+    // transacción; las llamadas las hace CalendarOutboxService en segundo plano.
+    @Autowired
+    private CalendarOutboxService calendarOutboxService;
+
+    // ======== LISTAR: por entrenador + filtros (paginado) ========
+    public TurnosPaginaDTO listarPorEntrenador(Long entrenadorId,
             OffsetDateTime desde,
             OffsetDateTime hasta,
-            String tipo) {
+            String tipo,
+            String cursor,
+            Integer limite) {
 
-        var turnos = turnoRepository.findByEntrenadorAndFilters(entrenadorId, desde, hasta, tipo);
-        return turnos.stream().map(this::mapToResponseDTO).collect(Collectors.toList());
+        // Read model: filas + alumnos en dos consultas (sin N+1 por turno)
+        return turnoLecturaService.listarPorEntrenador(entrenadorId, desde, hasta, tipo, cursor, limite);
     }
 
     // ======== OBTENER: alumnos (con id) de un turno ========
@@ -95,34 +100,16 @@ public class TurnoService {
         turno.setUpdated_at(OffsetDateTime.now());
 
         Turno turnoGuardado = turnoRepository.save(turno);
+        turnoNotificationScheduler.programarAlCommit(turnoGuardado.getId_turno(), turnoGuardado.getFecha());
 
         String resolvedUserId = resolveUserId(providedUserId, turnoGuardado);
-
-        // 💡 Bloque condicional: Solo intenta sincronizar si el servicio existe
-        if (googleCalendarNotificationService != null) {
-            ZonedDateTime start = turnoGuardado.getFecha().toZonedDateTime();
-            ZonedDateTime end = turnoGuardado.getFecha().plusHours(1).toZonedDateTime();
-
-            String title = buildEventSummary(turnoGuardado);
-            String description = buildEventDescription(turnoGuardado);
-
-            try {
-                if (resolvedUserId != null) {
-                    var event = googleCalendarNotificationService.createEvent(
-                            resolvedUserId, title, description, start, end);
-                    turnoGuardado.setGoogleEventId(event.getId());
-                    turnoRepository.save(turnoGuardado);
-                }
-            } catch (Exception e) {
-                // Registrar el error pero NO bloquear la creación del turno
-                System.err.println("⚠️ Error al crear evento en Google Calendar: " + e.getMessage());
-            }
-        }
+        calendarOutboxService.encolarCrear(turnoGuardado, resolvedUserId);
 
         return mapToResponseDTO(turnoGuardado);
     }
 
     // ======== CRUD: ASIGNAR ALUMNOS ========
+    @Transactional
     public TurnoResponseDTO asignarAlumnos(Long turnoId, List<Long> alumnosIds, String userId) {
         Turno turno = turnoRepository.findById(turnoId)
                 .orElseThrow(() -> new RuntimeException("Turno no encontrado"));
@@ -133,16 +120,12 @@ public class TurnoService {
 
         turnoRepository.save(turno);
 
-        // Sincronizar evento de Google Calendar solo si el servicio existe
-        if (googleCalendarNotificationService != null) {
-            syncCalendarEvent(turno, userId);
-        }
+        calendarOutboxService.encolarActualizar(turno, resolveUserId(userId, turno));
         return mapToResponseDTO(turno);
     }
 
-    public List<TurnoResponseDTO> getAllTurnos() {
-        return turnoRepository.findAllWithEntrenadorAndTipoTurno()
-                .stream().map(this::mapToResponseDTO).collect(Collectors.toList());
+    public TurnosPaginaDTO getAllTurnos(OffsetDateTime desde, OffsetDateTime hasta, String cursor, Integer limite) {
+        return turnoLecturaService.listarTodos(desde, hasta, cursor, limite);
     }
 
     public TurnoResponseDTO getTurnoById(Long id) {
@@ -152,15 +135,14 @@ public class TurnoService {
     }
 
     // ======== CRUD: ELIMINAR TURNO ========
+    @Transactional
     public void deleteTurno(Long id, String userId) {
         Turno turno = turnoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Turno no encontrado"));
 
-        // Eliminar evento de Google Calendar solo si el servicio existe
-        if (googleCalendarNotificationService != null) {
-            deleteCalendarEvent(turno, userId);
-        }
+        calendarOutboxService.encolarBorrar(turno, resolveUserId(userId, turno));
         turnoRepository.delete(turno);
+        turnoNotificationScheduler.cancelarAlCommit(id);
     }
 
     // -------- mapper entidad -> DTO (null-safe, Java 11) --------
@@ -218,34 +200,13 @@ public class TurnoService {
         nuevoTurno.setUpdated_at(OffsetDateTime.now());
 
         Turno turnoCreado = turnoRepository.save(nuevoTurno);
+        turnoNotificationScheduler.cancelarAlCommit(turnoOriginal.getId_turno());
+        turnoNotificationScheduler.programarAlCommit(turnoCreado.getId_turno(), turnoCreado.getFecha());
 
-        // 3. Crear nuevo evento de Google Calendar y eliminar el original
-        if (googleCalendarNotificationService != null) {
-            String resolvedUserId = resolveUserId(providedUserId, turnoCreado);
-            ZonedDateTime start = turnoCreado.getFecha().toZonedDateTime();
-            ZonedDateTime end = turnoCreado.getFecha().plusHours(1).toZonedDateTime();
-
-            try {
-                if (resolvedUserId != null) {
-                    var newEvent = googleCalendarNotificationService.createEvent(
-                            resolvedUserId,
-                            buildEventSummary(turnoCreado),
-                            buildEventDescription(turnoCreado),
-                            start,
-                            end);
-
-                    turnoCreado.setGoogleEventId(newEvent.getId());
-                    turnoRepository.save(turnoCreado);
-                }
-            } catch (Exception e) {
-                System.err.println("⚠️ Error al crear evento actualizado en Google Calendar: " + e.getMessage());
-            }
-
-            // 4. Eliminar evento de Google Calendar original
-            if (turnoOriginal.getGoogleEventId() != null) {
-                deleteCalendarEvent(turnoOriginal, resolvedUserId); // Reutilizamos la función de borrado
-            }
-        }
+        // 3. Nuevo evento de Google Calendar para la copia y baja del original
+        String resolvedUserId = resolveUserId(providedUserId, turnoCreado);
+        calendarOutboxService.encolarCrear(turnoCreado, resolvedUserId);
+        calendarOutboxService.encolarBorrar(turnoOriginal, resolvedUserId);
 
         return mapToResponseDTO(turnoCreado);
     }
@@ -261,10 +222,7 @@ public class TurnoService {
         turno.getAlumnos().add(alumno);
         turnoRepository.save(turno);
 
-        // Sincronizar evento de Google Calendar solo si el servicio existe
-        if (googleCalendarNotificationService != null) {
-            syncCalendarEvent(turno, userId);
-        }
+        calendarOutboxService.encolarActualizar(turno, resolveUserId(userId, turno));
     }
 
     // ======== REMOVER ALUMNO (Con resolución de ID) ========
@@ -278,90 +236,13 @@ public class TurnoService {
         turno.getAlumnos().remove(alumno);
         turnoRepository.save(turno);
 
-        // Sincronizar evento de Google Calendar solo si el servicio existe
-        if (googleCalendarNotificationService != null) {
-            syncCalendarEvent(turno, userId);
-        }
+        calendarOutboxService.encolarActualizar(turno, resolveUserId(userId, turno));
     }
 
     // ======================================================
     // -------- MÉTODOS PRIVADOS DE CALENDARIZACIÓN Y UTILS --------
     // ======================================================
 
-    private void syncCalendarEvent(Turno turno, String providedUserId) {
-        if (turno == null || turno.getFecha() == null || turno.getGoogleEventId() == null) {
-            return;
-        }
-
-        String resolvedUserId = resolveUserId(providedUserId, turno);
-        if (resolvedUserId == null) {
-            return;
-        }
-
-        ZonedDateTime start = turno.getFecha().toZonedDateTime();
-        ZonedDateTime end = turno.getFecha().plusHours(1).toZonedDateTime();
-
-        try {
-            googleCalendarNotificationService.updateEvent(
-                    resolvedUserId,
-                    turno.getGoogleEventId(),
-                    buildEventSummary(turno),
-                    buildEventDescription(turno),
-                    start,
-                    end);
-        } catch (Exception e) {
-            System.err.println("⚠️ No se pudo actualizar el evento de Google Calendar: " + e.getMessage());
-        }
-    }
-
-    private void deleteCalendarEvent(Turno turno, String providedUserId) {
-        if (turno.getGoogleEventId() == null) {
-            return;
-        }
-
-        String resolvedUserId = resolveUserId(providedUserId, turno);
-        if (resolvedUserId == null) {
-            return;
-        }
-
-        try {
-            googleCalendarNotificationService.deleteEvent(resolvedUserId, turno.getGoogleEventId());
-        } catch (Exception e) {
-            System.err.println("⚠️ No se pudo eliminar el evento de Google Calendar: " + e.getMessage());
-        }
-    }
-
-    private String buildEventSummary(Turno turno) {
-        String tipo = (turno.getTipoTurno() != null) ? turno.getTipoTurno().getNombre() : "Turno";
-        Usuario usuario = (turno.getEntrenador() != null) ? turno.getEntrenador().getUsuario() : null;
-        String entrenadorNombre = (usuario != null && usuario.getNombre() != null)
-                ? usuario.getNombre()
-                : "Entrenador";
-        return tipo + " con " + entrenadorNombre;
-    }
-
-    private String buildEventDescription(Turno turno) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm", Locale.getDefault());
-        ZonedDateTime start = turno.getFecha().toZonedDateTime();
-        StringBuilder description = new StringBuilder();
-        description.append("Turno programado para el ")
-                .append(start.format(formatter))
-                .append(".");
-
-        List<String> alumnos = (turno.getAlumnos() != null)
-                ? turno.getAlumnos().stream().map(Alumno::getNombre).collect(Collectors.toList())
-                : Collections.emptyList();
-
-        if (alumnos.isEmpty()) {
-            description.append("\nSin alumnos asignados todavía.");
-        } else {
-            description.append("\nAlumnos: ")
-                    .append(String.join(", ", alumnos));
-        }
-
-        return description.toString();
-    }
-
     /**
      * Intenta resolver el userId usando el ID provisto, o cae al ID del Usuario del
      * Entrenador
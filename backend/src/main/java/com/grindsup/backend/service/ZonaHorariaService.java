@@ -0,0 +1,51 @@
+package com.grindsup.backend.service;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.grindsup.backend.repository.EntrenadorRepository;
+
+/**
+ * Zonas horarias para agrupar fechas por día / mes.
+ *
+ * La de la app es la que usa Hibernate para guardar las fechas
+ * (hibernate.jdbc.time_zone): en esa zona están los rollups y DATE_FORMAT /
+ * DATE() en la base. Cada entrenador puede tener la suya; si no, usa esa.
+ */
+@Service
+public class ZonaHorariaService {
+
+    private final EntrenadorRepository entrenadorRepository;
+    private final ZoneId app;
+
+    public ZonaHorariaService(EntrenadorRepository entrenadorRepository,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String zonaJdbc) {
+        this.entrenadorRepository = entrenadorRepository;
+        this.app = zonaJdbc.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zonaJdbc);
+    }
+
+    public ZoneId app() {
+        return app;
+    }
+
+    public ZoneId deEntrenador(Long entrenadorId) {
+        if (entrenadorId == null) return app;
+        String zona = entrenadorRepository.findZonaHoraria(entrenadorId);
+        if (zona == null || zona.isBlank()) return app;
+        try {
+            return ZoneId.of(zona);
+        } catch (DateTimeException e) {
+            System.err.println("⚠️ Zona horaria inválida para el entrenador " + entrenadorId + ": " + zona);
+            return app;
+        }
+    }
+
+    /** Valida una zona IANA recibida por API; null/vacío = usar la de la app. */
+    public static String normalizar(String zona) {
+        if (zona == null || zona.isBlank()) return null;
+        return ZoneId.of(zona.trim()).getId();
+    }
+}
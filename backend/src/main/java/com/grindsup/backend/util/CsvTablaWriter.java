@@ -0,0 +1,59 @@
+package com.grindsup.backend.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV (RFC 4180) en UTF-8 con BOM, para que Excel respete los acentos.
+ * Los números se escriben con punto decimal.
+ */
+public class CsvTablaWriter implements TablaWriter {
+
+    private final Writer out;
+
+    public CsvTablaWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.out.write('\uFEFF');
+    }
+
+    @Override
+    public void encabezado(String... columnas) throws IOException {
+        fila((Object[]) columnas);
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) out.write(',');
+            Object v = valores[i];
+            if (v == null) continue;
+            if (v instanceof Number) {
+                out.write(v.toString());
+            } else {
+                escribirTexto(v.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void escribirTexto(String s) throws IOException {
+        boolean comillas = s.indexOf(',') >= 0 || s.indexOf('"') >= 0
+                || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0;
+        if (!comillas) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
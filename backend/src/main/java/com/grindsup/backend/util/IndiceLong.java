@@ -0,0 +1,44 @@
+package com.grindsup.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de ids {@code long} a posiciones 0..n-1, sin boxing: las claves
+ * quedan ordenadas en un {@code long[]} y se buscan por búsqueda binaria.
+ * Sirve para juntar en memoria resultados de varias consultas agrupadas por
+ * id en arrays primitivos paralelos (una posición por id).
+ */
+public final class IndiceLong {
+
+    private final long[] claves;
+
+    private IndiceLong(long[] claves) {
+        this.claves = claves;
+    }
+
+    /** Ordena y descarta repetidos; el array recibido no se modifica. */
+    public static IndiceLong de(long[] ids) {
+        long[] c = ids.clone();
+        Arrays.sort(c);
+        int n = 0;
+        for (int i = 0; i < c.length; i++) {
+            if (i == 0 || c[i] != c[i - 1]) c[n++] = c[i];
+        }
+        return new IndiceLong(Arrays.copyOf(c, n));
+    }
+
+    public int size() {
+        return claves.length;
+    }
+
+    public long clave(int posicion) {
+        return claves[posicion];
+    }
+
+    /** Posición del id, o -1 si no está (también para {@code null}). */
+    public int posicion(Long id) {
+        if (id == null) return -1;
+        int i = Arrays.binarySearch(claves, id);
+        return i >= 0 ? i : -1;
+    }
+}
@@ -0,0 +1,48 @@
+package com.grindsup.backend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escritor de tablas en streaming (una fila a la vez) para exportaciones
+ * livianas de estadísticas. No arma listas intermedias ni pasa por el motor
+ * de reportes PDF.
+ *
+ * {@link #close()} termina el formato pero no cierra el stream de destino.
+ */
+public interface TablaWriter extends Closeable {
+
+    void encabezado(String... columnas) throws IOException;
+
+    /** Valores admitidos: {@code null}, {@link Number} o cualquier otro (se escribe como texto). */
+    void fila(Object... valores) throws IOException;
+
+    enum Formato {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        /** @throws IllegalArgumentException si el formato no es csv ni xlsx */
+        public static Formato parse(String valor) {
+            return Formato.valueOf(valor == null ? "CSV" : valor.trim().toUpperCase());
+        }
+    }
+
+    static TablaWriter de(Formato formato, OutputStream out, String hoja) throws IOException {
+        return switch (formato) {
+            case CSV -> new CsvTablaWriter(out);
+            case XLSX -> new XlsxTablaWriter(out, hoja);
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.grindsup.backend.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX mínimo escrito en streaming: una sola hoja, textos inline y números
+ * nativos. Las partes fijas del paquete se escriben al crear el writer y las
+ * filas van directo a {@code xl/worksheets/sheet1.xml} dentro del ZIP, sin
+ * armar el libro en memoria (ni depender de Apache POI).
+ */
+public class XlsxTablaWriter implements TablaWriter {
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>
+            </Types>""";
+
+    private static final String RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>
+            </Relationships>""";
+
+    // Estilo 0 = normal, estilo 1 = negrita (encabezado)
+    private static final String STYLES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+            <fonts count="2"><font><sz val="11"/><name val="Calibri"/></font><font><b/><sz val="11"/><name val="Calibri"/></font></fonts>
+            <fills count="2"><fill><patternFill patternType="none"/></fill><fill><patternFill patternType="gray125"/></fill></fills>
+            <borders count="1"><border><left/><right/><top/><bottom/><diagonal/></border></borders>
+            <cellStyleXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0"/></cellStyleXfs>
+            <cellXfs count="2"><xf numFmtId="0" fontId="0" fillId="0" borderId="0" xfId="0"/><xf numFmtId="0" fontId="1" fillId="0" borderId="0" xfId="0" applyFont="1"/></cellXfs>
+            </styleSheet>""";
+
+    private final ZipOutputStream zip;
+    private final Writer xml;
+
+    public XlsxTablaWriter(OutputStream out, String nombreHoja) throws IOException {
+        this.zip = new ZipOutputStream(out);
+        this.xml = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+        parte("[Content_Types].xml", CONTENT_TYPES);
+        parte("_rels/.rels", RELS);
+        parte("xl/workbook.xml", String.format(WORKBOOK, escapar(nombreHoja(nombreHoja))));
+        parte("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        parte("xl/styles.xml", STYLES);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void encabezado(String... columnas) throws IOException {
+        fila(1, (Object[]) columnas);
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        fila(0, valores);
+    }
+
+    private void fila(int estilo, Object... valores) throws IOException {
+        String s = estilo != 0 ? " s=\"" + estilo + "\"" : "";
+        xml.write("<row>");
+        for (Object v : valores) {
+            if (v == null) {
+                xml.write("<c" + s + "/>");
+            } else if (v instanceof Number n && Double.isFinite(n.doubleValue())) {
+                xml.write("<c" + s + "><v>" + n + "</v></c>");
+            } else {
+                xml.write("<c" + s + " t=\"inlineStr\"><is><t>");
+                xml.write(escapar(v.toString()));
+                xml.write("</t></is></c>");
+            }
+        }
+        xml.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        xml.write("</sheetData></worksheet>");
+        xml.flush();
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void parte(String nombre, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(nombre));
+        xml.write(contenido);
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    // Excel limita el nombre de hoja a 31 caracteres y prohíbe algunos símbolos
+    private static String nombreHoja(String nombre) {
+        String n = (nombre == null || nombre.isBlank()) ? "Datos" : nombre.replaceAll("[\\\\/?*\\[\\]:]", "_");
+        return n.length() > 31 ? n.substring(0, 31) : n;
+    }
+
+    private static String escapar(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // Caracteres de control no válidos en XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,269 @@
+-- =====================================================================
+-- V1: esquema inicial (el que generaba ddl-auto=update a partir de las
+-- entidades). En bases existentes no se ejecuta: Flyway las registra
+-- como V1 (baseline-on-migrate) y aplica solo las versiones siguientes.
+-- =====================================================================
+
+CREATE TABLE estados (
+    id_estado   BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre      VARCHAR(50)  NOT NULL,
+    descripcion VARCHAR(255),
+    ambito      VARCHAR(50),
+    created_at  DATETIME(6)  DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at  DATETIME(6)  DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    deleted_at  DATETIME(6),
+    PRIMARY KEY (id_estado)
+);
+
+CREATE TABLE roles (
+    id_rol      BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre      VARCHAR(50)  NOT NULL,
+    descripcion VARCHAR(255),
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6)  NOT NULL,
+    deleted_at  DATETIME(6),
+    PRIMARY KEY (id_rol),
+    CONSTRAINT uk_roles_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE usuarios (
+    id_usuario  BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre      VARCHAR(100) NOT NULL,
+    apellido    VARCHAR(100) NOT NULL,
+    correo      VARCHAR(150) NOT NULL,
+    contrasena  TEXT         NOT NULL,
+    id_rol      BIGINT       NOT NULL,
+    id_estado   BIGINT,
+    foto_perfil TEXT,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6)  NOT NULL,
+    deleted_at  DATETIME(6),
+    PRIMARY KEY (id_usuario),
+    CONSTRAINT uk_usuarios_correo UNIQUE (correo),
+    CONSTRAINT fk_usuarios_rol    FOREIGN KEY (id_rol)    REFERENCES roles (id_rol),
+    CONSTRAINT fk_usuarios_estado FOREIGN KEY (id_estado) REFERENCES estados (id_estado)
+);
+
+CREATE TABLE entrenadores (
+    id_entrenador BIGINT      NOT NULL AUTO_INCREMENT,
+    id_usuario    BIGINT      NOT NULL,
+    experiencia   TEXT,
+    telefono      VARCHAR(50),
+    id_estado     BIGINT,
+    created_at    DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at    DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    deleted_at    DATETIME(6),
+    PRIMARY KEY (id_entrenador),
+    CONSTRAINT uk_entrenadores_usuario UNIQUE (id_usuario),
+    CONSTRAINT fk_entrenadores_usuario FOREIGN KEY (id_usuario) REFERENCES usuarios (id_usuario),
+    CONSTRAINT fk_entrenadores_estado  FOREIGN KEY (id_estado)  REFERENCES estados (id_estado)
+);
+
+CREATE TABLE tipos_turno (
+    id_tipoturno BIGINT      NOT NULL AUTO_INCREMENT,
+    nombre       VARCHAR(50) NOT NULL,
+    descripcion  TEXT,
+    created_at   DATETIME(6) NOT NULL,
+    updated_at   DATETIME(6) NOT NULL,
+    deleted_at   DATETIME(6),
+    PRIMARY KEY (id_tipoturno),
+    CONSTRAINT uk_tipos_turno_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE alumnos (
+    id_alumno        BIGINT       NOT NULL AUTO_INCREMENT,
+    id_entrenador    BIGINT,
+    nombre           VARCHAR(100) NOT NULL,
+    apellido         VARCHAR(100),
+    documento        VARCHAR(20)  NOT NULL,
+    telefono         VARCHAR(50),
+    fecha_nacimiento DATE,
+    peso             DOUBLE,
+    altura           DOUBLE,
+    lesiones         TEXT,
+    enfermedades     TEXT,
+    informe_medico   BOOLEAN      NOT NULL DEFAULT FALSE,
+    id_estado        BIGINT,
+    created_at       DATETIME(6)  NOT NULL,
+    updated_at       DATETIME(6)  NOT NULL,
+    deleted_at       DATETIME(6),
+    motivo_baja      TEXT,
+    PRIMARY KEY (id_alumno),
+    CONSTRAINT uk_alumnos_documento_entrenador UNIQUE (documento, id_entrenador),
+    CONSTRAINT fk_alumnos_entrenador FOREIGN KEY (id_entrenador) REFERENCES entrenadores (id_entrenador),
+    CONSTRAINT fk_alumnos_estado     FOREIGN KEY (id_estado)     REFERENCES estados (id_estado)
+);
+
+CREATE TABLE ejercicios (
+    id_ejercicio BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre       VARCHAR(100) NOT NULL,
+    descripcion  TEXT,
+    dificultad   VARCHAR(50),
+    id_estado    BIGINT,
+    created_at   DATETIME(6)  NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    deleted_at   DATETIME(6),
+    PRIMARY KEY (id_ejercicio),
+    CONSTRAINT fk_ejercicios_estado FOREIGN KEY (id_estado) REFERENCES estados (id_estado)
+);
+
+CREATE TABLE ejercicio_musculos_principales (
+    id_ejercicio BIGINT NOT NULL,
+    musculo      VARCHAR(255),
+    CONSTRAINT fk_ej_mus_principales_ejercicio FOREIGN KEY (id_ejercicio) REFERENCES ejercicios (id_ejercicio)
+);
+
+CREATE TABLE ejercicio_musculos_secundarios (
+    id_ejercicio BIGINT NOT NULL,
+    musculo      VARCHAR(255),
+    CONSTRAINT fk_ej_mus_secundarios_ejercicio FOREIGN KEY (id_ejercicio) REFERENCES ejercicios (id_ejercicio)
+);
+
+CREATE TABLE ejercicio_equipamiento (
+    id_ejercicio BIGINT NOT NULL,
+    equipamiento VARCHAR(255),
+    CONSTRAINT fk_ej_equipamiento_ejercicio FOREIGN KEY (id_ejercicio) REFERENCES ejercicios (id_ejercicio)
+);
+
+CREATE TABLE planes_entrenamiento (
+    id_plan                           BIGINT      NOT NULL AUTO_INCREMENT,
+    id_alumno                         BIGINT      NOT NULL,
+    id_entrenador                     BIGINT,
+    objetivo                          TEXT,
+    fecha_inicio                      DATE,
+    fecha_fin                         DATE,
+    id_estado                         BIGINT,
+    notificacion_calificacion_enviada BOOLEAN     NOT NULL DEFAULT FALSE,
+    created_at                        DATETIME(6) NOT NULL,
+    updated_at                        DATETIME(6) NOT NULL,
+    deleted_at                        DATETIME(6),
+    PRIMARY KEY (id_plan),
+    CONSTRAINT fk_planes_alumno     FOREIGN KEY (id_alumno)     REFERENCES alumnos (id_alumno),
+    CONSTRAINT fk_planes_entrenador FOREIGN KEY (id_entrenador) REFERENCES entrenadores (id_entrenador),
+    CONSTRAINT fk_planes_estado     FOREIGN KEY (id_estado)     REFERENCES estados (id_estado)
+);
+
+CREATE TABLE rutinas (
+    id_rutina      BIGINT       NOT NULL AUTO_INCREMENT,
+    id_plan        BIGINT,
+    id_rutina_base BIGINT,
+    nombre         VARCHAR(100),
+    descripcion    TEXT,
+    id_estado      BIGINT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    deleted_at     DATETIME(6),
+    PRIMARY KEY (id_rutina),
+    CONSTRAINT fk_rutinas_plan   FOREIGN KEY (id_plan)        REFERENCES planes_entrenamiento (id_plan),
+    CONSTRAINT fk_rutinas_base   FOREIGN KEY (id_rutina_base) REFERENCES rutinas (id_rutina),
+    CONSTRAINT fk_rutinas_estado FOREIGN KEY (id_estado)      REFERENCES estados (id_estado)
+);
+
+CREATE TABLE rutina_ejercicios (
+    id_ejercicio   BIGINT       NOT NULL,
+    id_rutina      BIGINT       NOT NULL,
+    repeticiones   INT,
+    series         INT,
+    id_estado      BIGINT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    deleted_at     DATETIME(6),
+    observaciones  TEXT,
+    grupo_muscular VARCHAR(100),
+    PRIMARY KEY (id_ejercicio, id_rutina),
+    CONSTRAINT fk_rutina_ejercicios_ejercicio FOREIGN KEY (id_ejercicio) REFERENCES ejercicios (id_ejercicio),
+    CONSTRAINT fk_rutina_ejercicios_rutina    FOREIGN KEY (id_rutina)    REFERENCES rutinas (id_rutina),
+    CONSTRAINT fk_rutina_ejercicios_estado    FOREIGN KEY (id_estado)    REFERENCES estados (id_estado)
+);
+
+CREATE TABLE turnos (
+    id_turno                    BIGINT       NOT NULL AUTO_INCREMENT,
+    id_entrenador               BIGINT       NOT NULL,
+    id_tipoturno                BIGINT,
+    fecha                       DATETIME(6)  NOT NULL,
+    id_estado                   BIGINT,
+    created_at                  DATETIME(6)  NOT NULL,
+    updated_at                  DATETIME(6)  NOT NULL,
+    deleted_at                  DATETIME(6),
+    google_event_id             VARCHAR(255),
+    notificacion_previa_enviada BOOLEAN      NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id_turno),
+    CONSTRAINT fk_turnos_entrenador FOREIGN KEY (id_entrenador) REFERENCES entrenadores (id_entrenador),
+    CONSTRAINT fk_turnos_tipo       FOREIGN KEY (id_tipoturno)  REFERENCES tipos_turno (id_tipoturno),
+    CONSTRAINT fk_turnos_estado     FOREIGN KEY (id_estado)     REFERENCES estados (id_estado)
+);
+
+-- Mapeada como @ManyToMany en Turno (que solo inserta los ids) y como entidad TurnoAlumno
+CREATE TABLE turno_alumno (
+    id_turno   BIGINT      NOT NULL,
+    id_alumno  BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id_turno, id_alumno),
+    CONSTRAINT fk_turno_alumno_turnos  FOREIGN KEY (id_turno)  REFERENCES turnos (id_turno),
+    CONSTRAINT fk_turno_alumno_alumnos FOREIGN KEY (id_alumno) REFERENCES alumnos (id_alumno)
+);
+
+CREATE TABLE agendas (
+    id_agenda  BIGINT      NOT NULL AUTO_INCREMENT,
+    id_turno   BIGINT      NOT NULL,
+    id_estado  BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id_agenda),
+    CONSTRAINT fk_agendas_turno  FOREIGN KEY (id_turno)  REFERENCES turnos (id_turno),
+    CONSTRAINT fk_agendas_estado FOREIGN KEY (id_estado) REFERENCES estados (id_estado)
+);
+
+CREATE TABLE sesiones (
+    id_sesion   BIGINT      NOT NULL AUTO_INCREMENT,
+    id_usuario  BIGINT      NOT NULL,
+    inicio      DATETIME(6) NOT NULL,
+    fin         DATETIME(6),
+    ip          VARCHAR(50),
+    dispositivo TEXT,
+    id_estado   BIGINT,
+    created_at  DATETIME(6) NOT NULL,
+    updated_at  DATETIME(6) NOT NULL,
+    deleted_at  DATETIME(6),
+    PRIMARY KEY (id_sesion),
+    CONSTRAINT fk_sesiones_usuario FOREIGN KEY (id_usuario) REFERENCES usuarios (id_usuario),
+    CONSTRAINT fk_sesiones_estado  FOREIGN KEY (id_estado)  REFERENCES estados (id_estado)
+);
+
+CREATE TABLE notificacion (
+    id_notificaciones BIGINT       NOT NULL AUTO_INCREMENT,
+    titulo            VARCHAR(255),
+    mensaje           TEXT,
+    leida             BOOLEAN      NOT NULL DEFAULT FALSE,
+    id_referencia     BIGINT,
+    tipo_referencia   VARCHAR(50),
+    id_entrenador     BIGINT       NOT NULL,
+    created_at        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id_notificaciones),
+    CONSTRAINT fk_notificacion_entrenador FOREIGN KEY (id_entrenador) REFERENCES entrenadores (id_entrenador)
+);
+
+CREATE TABLE plan_evaluacion (
+    id_evaluacion BIGINT      NOT NULL AUTO_INCREMENT,
+    id_plan       BIGINT,
+    id_alumno     BIGINT,
+    id_entrenador BIGINT,
+    score         INT,
+    comentario    TEXT,
+    created_at    DATETIME(6),
+    PRIMARY KEY (id_evaluacion)
+);
+
+CREATE TABLE tokens_recuperacion_contrasena (
+    id_token   BIGINT      NOT NULL AUTO_INCREMENT,
+    id_usuario BIGINT      NOT NULL,
+    hash_token VARCHAR(64) NOT NULL,
+    expired_at DATETIME(6) NOT NULL,
+    usado      BOOLEAN     NOT NULL DEFAULT FALSE,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_token),
+    CONSTRAINT uk_tokens_hash UNIQUE (hash_token)
+);
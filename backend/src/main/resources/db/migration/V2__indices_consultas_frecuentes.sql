@@ -0,0 +1,23 @@
+-- =====================================================================
+-- V2: índices compuestos para los caminos de acceso frecuentes.
+-- Columnas de igualdad primero y la de rango al final, así cada consulta
+-- resuelve con un solo range scan sobre el índice.
+-- =====================================================================
+
+-- Estadísticas de alumnos: altas por created_at y bajas por deleted_at
+-- (AlumnoRepository.altasPorMes / bajasPorMes / countActivos*)
+CREATE INDEX idx_alumnos_entrenador_created ON alumnos (id_entrenador, created_at);
+CREATE INDEX idx_alumnos_entrenador_deleted ON alumnos (id_entrenador, deleted_at);
+
+-- Ratings por entrenador y fecha (PlanEvaluacionRepository, reconstrucción del rollup)
+CREATE INDEX idx_plan_evaluacion_entrenador_created ON plan_evaluacion (id_entrenador, created_at);
+
+-- Recordatorios: turnos no notificados en una ventana de fechas
+-- (TurnoRepository.findByFechaBetweenAndNotificacionPreviaEnviadaFalse)
+CREATE INDEX idx_turnos_notif_previa_fecha ON turnos (notificacion_previa_enviada, fecha);
+
+-- Bandeja de notificaciones del entrenador (no leídas, más nuevas primero)
+CREATE INDEX idx_notificacion_entrenador_leida_created ON notificacion (id_entrenador, leida, created_at);
+
+-- Ejercicios de una rutina: la PK es (id_ejercicio, id_rutina) y no sirve para filtrar por rutina
+CREATE INDEX idx_rutina_ejercicios_rutina ON rutina_ejercicios (id_rutina);
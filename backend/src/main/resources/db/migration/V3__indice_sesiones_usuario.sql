@@ -0,0 +1,6 @@
+-- =====================================================================
+-- V3: sesiones por usuario y fecha de inicio. Cubre COUNT, MAX(inicio) y
+-- el conteo de los últimos 30 días de los reportes de admin sin leer la tabla.
+-- =====================================================================
+
+CREATE INDEX idx_sesiones_usuario_inicio ON sesiones (id_usuario, inicio);
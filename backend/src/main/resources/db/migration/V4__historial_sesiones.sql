@@ -0,0 +1,39 @@
+-- =====================================================================
+-- V4: historial de sesiones.
+--  * sesiones_dia_resumen: una fila por usuario y día (cantidad, primer y
+--    último acceso). Los reportes leen de acá.
+--  * sesiones_archivo: filas de sesiones más viejas que la retención; las
+--    mueve SesionArchivoScheduler en lotes chicos.
+-- =====================================================================
+
+CREATE TABLE sesiones_dia_resumen (
+    id_resumen    BIGINT      NOT NULL AUTO_INCREMENT,
+    id_usuario    BIGINT      NOT NULL,
+    dia           DATE        NOT NULL,
+    cantidad      BIGINT      NOT NULL,
+    primer_acceso DATETIME(6) NOT NULL,
+    ultimo_acceso DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_resumen),
+    CONSTRAINT uk_sesiones_dia_resumen UNIQUE (id_usuario, dia)
+);
+
+-- Sin FKs: el archivo tiene que poder sobrevivir a cambios en usuarios/estados
+CREATE TABLE sesiones_archivo (
+    id_sesion    BIGINT      NOT NULL,
+    id_usuario   BIGINT      NOT NULL,
+    inicio       DATETIME(6) NOT NULL,
+    fin          DATETIME(6),
+    ip           VARCHAR(50),
+    dispositivo  TEXT,
+    id_estado    BIGINT,
+    created_at   DATETIME(6) NOT NULL,
+    updated_at   DATETIME(6) NOT NULL,
+    deleted_at   DATETIME(6),
+    archivado_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_sesion)
+);
+
+CREATE INDEX idx_sesiones_archivo_usuario_inicio ON sesiones_archivo (id_usuario, inicio);
+
+-- El archivador toma las sesiones más viejas primero
+CREATE INDEX idx_sesiones_inicio ON sesiones (inicio);
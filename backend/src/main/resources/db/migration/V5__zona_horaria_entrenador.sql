@@ -0,0 +1,6 @@
+-- =====================================================================
+-- V5: zona horaria del entrenador para agrupar sus estadísticas por
+-- día / semana / mes / trimestre. NULL = la zona de la app.
+-- =====================================================================
+
+ALTER TABLE entrenadores ADD COLUMN zona_horaria VARCHAR(64);
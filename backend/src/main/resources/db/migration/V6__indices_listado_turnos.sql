@@ -0,0 +1,9 @@
+-- =====================================================================
+-- V6: listado de turnos paginado por keyset sobre (fecha, id_turno)
+-- (TurnoRepository.paginaPorEntrenador / paginaTodas). InnoDB agrega la PK
+-- al final de cada índice secundario: id_turno ya desempata dentro de la
+-- misma fecha sin ordenar aparte.
+-- =====================================================================
+
+CREATE INDEX idx_turnos_entrenador_fecha ON turnos (id_entrenador, fecha);
+CREATE INDEX idx_turnos_fecha ON turnos (fecha);
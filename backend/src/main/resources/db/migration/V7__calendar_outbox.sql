@@ -0,0 +1,27 @@
+-- =====================================================================
+-- V7: outbox de sincronización con Google Calendar.
+--  * TurnoService escribe una fila por cambio en la misma transacción
+--    que el turno; CalendarOutboxService las drena en segundo plano.
+--  * Sin FK a turnos: la fila de un borrado sobrevive al turno.
+--  * lote + proximo_intento hacen de lease: una fila reclamada no se
+--    vuelve a tomar hasta que vence, aunque el worker se caiga.
+-- =====================================================================
+
+CREATE TABLE calendar_outbox (
+    id_outbox       BIGINT       NOT NULL AUTO_INCREMENT,
+    id_turno        BIGINT       NOT NULL,
+    operacion       VARCHAR(16)  NOT NULL,
+    user_id         VARCHAR(64),
+    google_event_id VARCHAR(255),
+    estado          VARCHAR(16)  NOT NULL,
+    intentos        INT          NOT NULL DEFAULT 0,
+    proximo_intento DATETIME(6)  NOT NULL,
+    lote            VARCHAR(36),
+    ultimo_error    VARCHAR(500),
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id_outbox)
+);
+
+CREATE INDEX idx_calendar_outbox_estado_proximo ON calendar_outbox (estado, proximo_intento);
+CREATE INDEX idx_calendar_outbox_turno_estado ON calendar_outbox (id_turno, estado);
+CREATE INDEX idx_calendar_outbox_lote ON calendar_outbox (lote);
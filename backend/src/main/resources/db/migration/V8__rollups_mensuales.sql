@@ -0,0 +1,35 @@
+-- =====================================================================
+-- V8: rollups mensuales de estadísticas.
+--  * alumnos_mes_resumen: altas y bajas por entrenador y mes
+--    (AlumnoResumenService).
+--  * plan_rating_mes_resumen: suma, cantidad e histograma 0..5 de las
+--    evaluaciones por entrenador y mes (RatingResumenService).
+--  * IF NOT EXISTS: en bases que venían de ddl-auto=update las tablas
+--    pueden existir ya. Vacías se llenan solas al iniciar (backfill).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS alumnos_mes_resumen (
+    id_resumen    BIGINT     NOT NULL AUTO_INCREMENT,
+    id_entrenador BIGINT     NOT NULL,
+    mes           VARCHAR(7) NOT NULL,
+    altas         BIGINT     NOT NULL,
+    bajas         BIGINT     NOT NULL,
+    PRIMARY KEY (id_resumen),
+    CONSTRAINT uk_alumnos_mes_resumen UNIQUE (id_entrenador, mes)
+);
+
+CREATE TABLE IF NOT EXISTS plan_rating_mes_resumen (
+    id_resumen    BIGINT     NOT NULL AUTO_INCREMENT,
+    id_entrenador BIGINT     NOT NULL,
+    mes           VARCHAR(7) NOT NULL,
+    suma          BIGINT     NOT NULL,
+    cantidad      BIGINT     NOT NULL,
+    s0            BIGINT     NOT NULL,
+    s1            BIGINT     NOT NULL,
+    s2            BIGINT     NOT NULL,
+    s3            BIGINT     NOT NULL,
+    s4            BIGINT     NOT NULL,
+    s5            BIGINT     NOT NULL,
+    PRIMARY KEY (id_resumen),
+    CONSTRAINT uk_plan_rating_mes_resumen UNIQUE (id_entrenador, mes)
+);
@@ -0,0 +1,215 @@
+package com.grindsup.backend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.repository.CalendarOutboxRepository;
+import com.grindsup.backend.repository.EntrenadorRepository;
+import com.grindsup.backend.repository.NotificacionRepository;
+import com.grindsup.backend.repository.PlanEvaluacionRepository;
+import com.grindsup.backend.repository.RutinaEjercicioRepository;
+import com.grindsup.backend.repository.SesionDiaResumenRepository;
+import com.grindsup.backend.repository.SesionRepository;
+import com.grindsup.backend.repository.TurnoRepository;
+
+/**
+ * Revisa con EXPLAIN (H2 en modo MySQL, migrado por Flyway) que las
+ * consultas frecuentes usen los índices de las migraciones y no un recorrido
+ * completo. No hay SQL copiado a mano: cada caso llama al método del
+ * repositorio y explica la sentencia que Hibernate mandó de verdad (nativa,
+ * JPQL o derivada), o, si H2 no la puede ejecutar, la que está en su @Query.
+ * Si alguien cambia una consulta a un predicado no indexable (DATE_FORMAT,
+ * OR entre columnas, etc.) o borra un índice, esto falla.
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTests {
+
+    private static final Date DESDE = Date.from(OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant());
+    private static final Date HASTA = Date.from(OffsetDateTime.of(2025, 7, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant());
+    private static final OffsetDateTime AHORA = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    // Sentencias que Hibernate prepara en este hilo, en orden
+    private static final ThreadLocal<List<String>> CAPTURADAS = ThreadLocal.withInitial(ArrayList::new);
+
+    @TestConfiguration
+    static class Captura {
+        @Bean
+        HibernatePropertiesCustomizer capturarSql() {
+            StatementInspector inspector = sql -> {
+                CAPTURADAS.get().add(sql);
+                return sql;
+            };
+            return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired private DataSource dataSource;
+    @Autowired private AlumnoRepository alumnoRepository;
+    @Autowired private PlanEvaluacionRepository planEvaluacionRepository;
+    @Autowired private TurnoRepository turnoRepository;
+    @Autowired private NotificacionRepository notificacionRepository;
+    @Autowired private EntrenadorRepository entrenadorRepository;
+    @Autowired private RutinaEjercicioRepository rutinaEjercicioRepository;
+    @Autowired private SesionRepository sesionRepository;
+    @Autowired private SesionDiaResumenRepository sesionDiaResumenRepository;
+    @Autowired private CalendarOutboxRepository calendarOutboxRepository;
+
+    @Test
+    void altasDeAlumnosParaCohortes() throws SQLException {
+        // Con fetch size negativo (streaming de Connector/J) H2 no la ejecuta: sale de la anotación
+        assertUsaIndice(sqlNativo(AlumnoRepository.class, "streamAltasYBajas"),
+                "idx_alumnos_entrenador_created");
+    }
+
+    @Test
+    void eventosDeAlumnosParaSeries() throws SQLException {
+        String sql = sql(() -> alumnoRepository.eventosEnRango(1L, DESDE, HASTA));
+        assertUsaIndice(sql, "idx_alumnos_entrenador_created");
+        assertUsaIndice(sql, "idx_alumnos_entrenador_deleted");
+    }
+
+    @Test
+    void ratingsPorEntrenadorYFecha() throws SQLException {
+        assertUsaIndice(sql(() -> planEvaluacionRepository.evaluacionesEnRango(1L, DESDE, HASTA)),
+                "idx_plan_evaluacion_entrenador_created");
+    }
+
+    @Test
+    void recordatoriosPendientesDelHorizonte() throws SQLException {
+        assertUsaIndice(sql(() -> turnoRepository.findRecordatoriosPendientes(AHORA, AHORA.plusDays(1))),
+                "idx_turnos_notif_previa_fecha");
+    }
+
+    @Test
+    void paginaDeTurnosDelEntrenador() throws SQLException {
+        assertUsaIndice(sql(() -> turnoRepository.paginaPorEntrenador(
+                        1L, AHORA, 42L, AHORA.plusMonths(6), null, PageRequest.of(0, 201))),
+                "idx_turnos_entrenador_fecha");
+    }
+
+    @Test
+    void paginaDeTodosLosTurnos() throws SQLException {
+        assertUsaIndice(sql(() -> turnoRepository.paginaTodas(
+                        AHORA, 42L, AHORA.plusMonths(6), PageRequest.of(0, 201))),
+                "idx_turnos_fecha");
+    }
+
+    @Test
+    void alumnosDeUnaPaginaDeTurnos() throws SQLException {
+        // Un solo IN por página sobre la PK (id_turno, id_alumno)
+        assertSinTableScan(sql(() -> turnoRepository.alumnosDeTurnos(List.of(1L, 2L, 3L, 4L, 5L))));
+    }
+
+    @Test
+    void notificacionesNoLeidasDelEntrenador() throws SQLException {
+        // Con la tabla vacía H2 empata el índice de la FK con el compuesto y
+        // elige el primero; alcanza con que no recorra la tabla
+        assertSinTableScan(sql(() -> notificacionRepository.findByEntrenadorAndLeidaFalseOrderByCreatedAtDesc(
+                entrenadorRepository.getReferenceById(1L))));
+    }
+
+    @Test
+    void ejerciciosDeUnaRutina() throws SQLException {
+        // H2 también indexa la FK sobre id_rutina; alcanza con que no recorra la tabla
+        assertSinTableScan(sql(() -> rutinaEjercicioRepository.findActivosByRutinaId(1L)));
+    }
+
+    @Test
+    void restarSesionDelResumenDiario() throws SQLException {
+        assertUsaIndice(sql(() -> sesionDiaResumenRepository.restar(
+                        1L, LocalDate.of(2025, 1, 1), AHORA, AHORA.plusDays(1))),
+                "idx_sesiones_usuario_inicio");
+    }
+
+    @Test
+    void loteDeSesionesParaArchivar() throws SQLException {
+        assertUsaIndice(sql(() -> sesionRepository.findIdsAnterioresA(AHORA, 500)),
+                "idx_sesiones_inicio");
+    }
+
+    @Test
+    void outboxDeCalendarVencido() throws SQLException {
+        assertUsaIndice(sql(() -> calendarOutboxRepository.turnosListos(AHORA, PageRequest.of(0, 8))),
+                "idx_calendar_outbox_estado_proximo");
+
+        assertUsaIndice(sql(() -> calendarOutboxRepository.reclamar("lote", AHORA, AHORA, List.of(1L, 2L, 3L))),
+                "idx_calendar_outbox_turno_estado");
+    }
+
+    // ===== helpers =====
+
+    // Última sentencia que mandó la llamada al repositorio
+    private static String sql(Runnable llamada) {
+        CAPTURADAS.get().clear();
+        llamada.run();
+        List<String> sentencias = CAPTURADAS.get();
+        assertThat(sentencias).as("sentencias capturadas").isNotEmpty();
+        return sentencias.get(sentencias.size() - 1);
+    }
+
+    // SQL de una consulta nativa tal como está en su @Query, con los parámetros con nombre como ?
+    private static String sqlNativo(Class<?> repositorio, String metodo) {
+        Query query = Arrays.stream(repositorio.getMethods())
+                .filter(m -> m.getName().equals(metodo))
+                .findFirst()
+                .map(m -> m.getAnnotation(Query.class))
+                .orElseThrow();
+        assertThat(query.nativeQuery()).as(metodo + " es nativa").isTrue();
+        return query.value().replaceAll(":\\w+", "?");
+    }
+
+    private void assertUsaIndice(String sql, String indice) throws SQLException {
+        String plan = explain(sql);
+        assertThat(plan).as(plan).containsIgnoringCase(indice);
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private void assertSinTableScan(String sql) throws SQLException {
+        String plan = explain(sql);
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    // El plan no depende de los valores: los parámetros van en null
+    private String explain(String sql) throws SQLException {
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql)) {
+            int n = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= n; i++) ps.setObject(i, null);
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder sb = new StringBuilder();
+                while (rs.next()) sb.append(rs.getString(1)).append('\n');
+                return sb.toString();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.grindsup.backend.model.Alumno;
+import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.service.AlumnoResumenService.Snapshot;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * El rollup mensual de altas / bajas tiene que dar lo mismo actualizado
+ * paso a paso (registrarCambio) que reconstruido desde la tabla alumnos, y
+ * lo mismo que las series que StatsService arma desde los eventos crudos.
+ *
+ * Los cambios de estado van por JDBC porque el @PreUpdate de Alumno pisa
+ * updated_at con la hora actual y acá cada paso cae en otro mes.
+ */
+@SpringBootTest
+@Transactional
+class AlumnoResumenServiceTests {
+
+    private static final long ENTRENADOR = 9101L;
+    private static final long ALUMNO = 9201L;
+    private static final long ESTADO_ACTIVO = 1L;
+    private static final long ESTADO_INACTIVO = 2L;
+
+    @Autowired private AlumnoResumenService alumnoResumenService;
+    @Autowired private StatsService statsService;
+    @Autowired private AlumnoRepository alumnoRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private EntityManager entityManager;
+
+    @BeforeEach
+    void datos() {
+        Timestamp t = Timestamp.valueOf("2024-12-01 12:00:00");
+        jdbc.update("INSERT INTO estados (id_estado, nombre) VALUES (?, 'ACTIVO'), (?, 'INACTIVO')",
+                ESTADO_ACTIVO, ESTADO_INACTIVO);
+        jdbc.update("INSERT INTO roles (id_rol, nombre, created_at, updated_at) VALUES (9001, 'TEST', ?, ?)", t, t);
+        jdbc.update("""
+                INSERT INTO usuarios (id_usuario, nombre, apellido, correo, contrasena, id_rol, created_at, updated_at)
+                VALUES (9001, 'Ent', 'Renador', 'rollup@test.com', 'x', 9001, ?, ?)
+                """, t, t);
+        jdbc.update("INSERT INTO entrenadores (id_entrenador, id_usuario) VALUES (?, 9001)", ENTRENADOR);
+    }
+
+    @Test
+    void incrementalIgualAReconstruido() {
+        // Alta (enero)
+        LocalDateTime alta = LocalDateTime.of(2025, 1, 15, 12, 0);
+        jdbc.update("""
+                INSERT INTO alumnos (id_alumno, id_entrenador, nombre, documento, id_estado, created_at, updated_at)
+                VALUES (?, ?, 'Ana', '30111222', ?, ?, ?)
+                """, ALUMNO, ENTRENADOR, ESTADO_ACTIVO, Timestamp.valueOf(alta), Timestamp.valueOf(alta));
+        Alumno a = recargar();
+        alumnoResumenService.registrarCambio(null, a);
+        assertConsistente(Map.of("2025-01", new long[] {1, 0}));
+
+        // Pasa a INACTIVO (marzo)
+        a = cambiarEstado(a, ESTADO_INACTIVO, LocalDateTime.of(2025, 3, 15, 12, 0));
+        assertConsistente(Map.of("2025-01", new long[] {1, 0}, "2025-03", new long[] {0, 1}));
+
+        // Vuelve a ACTIVO (mayo): deja de contar como baja
+        a = cambiarEstado(a, ESTADO_ACTIVO, LocalDateTime.of(2025, 5, 15, 12, 0));
+        assertConsistente(Map.of("2025-01", new long[] {1, 0}));
+
+        // INACTIVO otra vez (junio)
+        a = cambiarEstado(a, ESTADO_INACTIVO, LocalDateTime.of(2025, 6, 15, 12, 0));
+        assertConsistente(Map.of("2025-01", new long[] {1, 0}, "2025-06", new long[] {0, 1}));
+
+        // Baja lógica (julio): la baja pasa al mes del borrado
+        Snapshot antes = Snapshot.de(a);
+        Timestamp borrado = Timestamp.valueOf(LocalDateTime.of(2025, 7, 15, 12, 0));
+        jdbc.update("UPDATE alumnos SET deleted_at = ?, updated_at = ? WHERE id_alumno = ?", borrado, borrado, ALUMNO);
+        alumnoResumenService.registrarCambio(antes, recargar());
+        assertConsistente(Map.of("2025-01", new long[] {1, 0}, "2025-07", new long[] {0, 1}));
+
+        // Las series desde eventos (trimestre) cuentan lo mismo que el rollup (mes)
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2026, 1, 1);
+        ResumenAlumnos porMes = statsService.resumenAlumnos(ENTRENADOR, Granularidad.MES, desde, hasta);
+        ResumenAlumnos porTrimestre = statsService.resumenAlumnos(ENTRENADOR, Granularidad.TRIMESTRE, desde, hasta);
+        assertThat(porTrimestre.periodos()).isEqualTo(4);
+        for (int q = 0; q < 4; q++) {
+            long altas = 0, bajas = 0;
+            for (int m = q * 3; m < q * 3 + 3; m++) {
+                altas += porMes.altas(m);
+                bajas += porMes.bajas(m);
+            }
+            assertThat(porTrimestre.altas(q)).as("altas T%d", q + 1).isEqualTo(altas);
+            assertThat(porTrimestre.bajas(q)).as("bajas T%d", q + 1).isEqualTo(bajas);
+            assertThat(porTrimestre.activos(q)).as("activos T%d", q + 1).isEqualTo(porMes.activos(q * 3 + 2));
+        }
+    }
+
+    private Alumno cambiarEstado(Alumno a, long estado, LocalDateTime cuando) {
+        Snapshot antes = Snapshot.de(a);
+        jdbc.update("UPDATE alumnos SET id_estado = ?, updated_at = ? WHERE id_alumno = ?",
+                estado, Timestamp.valueOf(cuando), ALUMNO);
+        Alumno despues = recargar();
+        alumnoResumenService.registrarCambio(antes, despues);
+        return despues;
+    }
+
+    private Alumno recargar() {
+        entityManager.clear();
+        return alumnoRepository.findById(ALUMNO).orElseThrow();
+    }
+
+    // El rollup incremental coincide con lo esperado y con la reconstrucción
+    private void assertConsistente(Map<String, long[]> esperado) {
+        Map<String, String> incremental = rollup();
+        assertThat(incremental).isEqualTo(comoTexto(esperado));
+        alumnoResumenService.reconstruir(ENTRENADOR);
+        assertThat(rollup()).as("reconstruido").isEqualTo(incremental);
+    }
+
+    // Meses con algún movimiento, como "altas/bajas" (los meses en 0/0 no cuentan)
+    private Map<String, String> rollup() {
+        Map<String, String> out = new TreeMap<>();
+        jdbc.query("SELECT mes, altas, bajas FROM alumnos_mes_resumen WHERE id_entrenador = ?", rs -> {
+            long altas = rs.getLong("altas");
+            long bajas = rs.getLong("bajas");
+            if (altas != 0 || bajas != 0) out.put(rs.getString("mes"), altas + "/" + bajas);
+        }, ENTRENADOR);
+        return out;
+    }
+
+    private static Map<String, String> comoTexto(Map<String, long[]> m) {
+        Map<String, String> out = new TreeMap<>();
+        m.forEach((mes, ab) -> out.put(mes, ab[0] + "/" + ab[1]));
+        return out;
+    }
+}
@@ -0,0 +1,158 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Límites de los períodos (cambios de horario incluidos), etiquetas de
+ * semanas ISO alrededor de año nuevo y bordes de la búsqueda binaria.
+ */
+class BucketsTemporalesTests {
+
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+    // Hasta 2019 el horario de verano de Brasil empezaba a medianoche: ese día arranca 01:00
+    private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+
+    @Test
+    void diaDeCambioDeHorarioDuraLoQueDuraEnLaZona() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.DIA, MADRID,
+                LocalDate.of(2025, 3, 29), LocalDate.of(2025, 4, 1));
+
+        assertThat(b.periodos()).isEqualTo(3);
+        assertThat(largo(b, 0)).isEqualTo(Duration.ofHours(24));
+        assertThat(largo(b, 1)).isEqualTo(Duration.ofHours(23));
+        assertThat(largo(b, 2)).isEqualTo(Duration.ofHours(24));
+
+        assertThat(b.indice(millis(LocalDateTime.of(2025, 3, 30, 23, 59), MADRID))).isEqualTo(1);
+        assertThat(b.indice(millis(LocalDateTime.of(2025, 3, 31, 0, 0), MADRID))).isEqualTo(2);
+    }
+
+    @Test
+    void diaQueNoTieneMedianocheArrancaALaPrimeraHoraValida() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.DIA, SAO_PAULO,
+                LocalDate.of(2018, 11, 3), LocalDate.of(2018, 11, 5));
+
+        assertThat(b.inicio(1)).isEqualTo(LocalDate.of(2018, 11, 4));
+        assertThat(b.desde().getTime()).isEqualTo(millis(LocalDateTime.of(2018, 11, 3, 0, 0), SAO_PAULO));
+        assertThat(largo(b, 0)).isEqualTo(Duration.ofHours(24));
+        assertThat(largo(b, 1)).isEqualTo(Duration.ofHours(23));
+        assertThat(b.indice(millis(LocalDateTime.of(2018, 11, 3, 23, 59), SAO_PAULO))).isEqualTo(0);
+        assertThat(b.indice(millis(LocalDateTime.of(2018, 11, 4, 1, 0), SAO_PAULO))).isEqualTo(1);
+    }
+
+    @Test
+    void mesConCambioDeHorarioCubreElMesCalendario() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.MES, MADRID,
+                LocalDate.of(2025, 10, 1), LocalDate.of(2025, 11, 1));
+
+        assertThat(b.periodos()).isEqualTo(1);
+        assertThat(largo(b, 0)).isEqualTo(Duration.ofDays(31).plusHours(1));
+        assertThat(b.indice(millis(LocalDateTime.of(2025, 10, 31, 23, 59), MADRID))).isEqualTo(0);
+        assertThat(b.indice(millis(LocalDateTime.of(2025, 11, 1, 0, 0), MADRID))).isEqualTo(-1);
+    }
+
+    @Test
+    void semanasIsoAlrededorDeAnioNuevo() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.SEMANA, ZoneOffset.UTC,
+                LocalDate.of(2025, 12, 24), LocalDate.of(2026, 1, 6));
+
+        assertThat(b.inicio(0)).isEqualTo(LocalDate.of(2025, 12, 22));
+        assertThat(b.etiqueta(0)).isEqualTo("2025-W52");
+        // 29 al 31 de diciembre caen en la semana 1 del año ISO siguiente
+        assertThat(b.etiqueta(1)).isEqualTo("2026-W01");
+        assertThat(b.etiqueta(2)).isEqualTo("2026-W02");
+
+        assertThat(Granularidad.SEMANA.etiqueta(Granularidad.SEMANA.inicio(LocalDate.of(2025, 12, 31))))
+                .isEqualTo("2026-W01");
+        // Y al revés: el 1 de enero de 2027 es de la semana 53 de 2026
+        assertThat(Granularidad.SEMANA.etiqueta(Granularidad.SEMANA.inicio(LocalDate.of(2027, 1, 1))))
+                .isEqualTo("2026-W53");
+    }
+
+    @Test
+    void etiquetasPorGranularidad() {
+        LocalDate dia = LocalDate.of(2025, 3, 14);
+        assertThat(Granularidad.DIA.etiqueta(Granularidad.DIA.inicio(dia))).isEqualTo("2025-03-14");
+        assertThat(Granularidad.SEMANA.etiqueta(Granularidad.SEMANA.inicio(dia))).isEqualTo("2025-W11");
+        assertThat(Granularidad.MES.etiqueta(Granularidad.MES.inicio(dia))).isEqualTo("2025-03");
+        assertThat(Granularidad.TRIMESTRE.etiqueta(Granularidad.TRIMESTRE.inicio(dia))).isEqualTo("2025-Q1");
+    }
+
+    @Test
+    void indiceEnLosBordes() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.MES, ZoneOffset.UTC,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1));
+        long desde = b.desde().getTime();
+        long hasta = b.hasta().getTime();
+        long febrero = millis(LocalDateTime.of(2025, 2, 1, 0, 0), ZoneOffset.UTC);
+
+        assertThat(b.indice(desde - 1)).isEqualTo(-1);
+        assertThat(b.indice(desde)).isEqualTo(0);
+        assertThat(b.indice(febrero - 1)).isEqualTo(0);
+        assertThat(b.indice(febrero)).isEqualTo(1);
+        assertThat(b.indice(hasta - 1)).isEqualTo(2);
+        assertThat(b.indice(hasta)).isEqualTo(-1);
+
+        assertThat(b.indice(LocalDate.of(2025, 3, 1))).isEqualTo(2);
+        assertThat(b.indice(LocalDate.of(2025, 3, 2))).isEqualTo(-1);
+        assertThat(b.indice(LocalDate.of(2025, 4, 1))).isEqualTo(-1);
+    }
+
+    @Test
+    void rangoQueEmpiezaAMitadDePeriodoArrancaEnSuInicio() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.TRIMESTRE, ZoneOffset.UTC,
+                LocalDate.of(2025, 2, 15), LocalDate.of(2025, 7, 1));
+
+        assertThat(b.periodos()).isEqualTo(2);
+        assertThat(b.inicio(0)).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(b.inicio(2)).isEqualTo(LocalDate.of(2025, 7, 1));
+    }
+
+    @Test
+    void rangoVacioNoTienePeriodos() {
+        BucketsTemporales b = BucketsTemporales.de(Granularidad.DIA, ZoneOffset.UTC,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1));
+
+        assertThat(b.periodos()).isZero();
+        assertThat(b.indice(b.desde().getTime())).isEqualTo(-1);
+    }
+
+    @Test
+    void topeDePeriodos() {
+        LocalDate desde = LocalDate.of(2020, 1, 1);
+
+        BucketsTemporales justo = BucketsTemporales.de(Granularidad.DIA, ZoneOffset.UTC,
+                desde, desde.plusDays(BucketsTemporales.MAX_PERIODOS));
+        assertThat(justo.periodos()).isEqualTo(BucketsTemporales.MAX_PERIODOS);
+
+        assertThatThrownBy(() -> BucketsTemporales.de(Granularidad.DIA, ZoneOffset.UTC,
+                desde, desde.plusDays(BucketsTemporales.MAX_PERIODOS + 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseAceptaCastellanoEInglesYPorDefectoMes() {
+        assertThat(Granularidad.parse(" Semana ")).isEqualTo(Granularidad.SEMANA);
+        assertThat(Granularidad.parse("quarter")).isEqualTo(Granularidad.TRIMESTRE);
+        assertThat(Granularidad.parse(null)).isEqualTo(Granularidad.MES);
+        assertThatThrownBy(() -> Granularidad.parse("anio")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Largo real del período i, según los límites que calcula BucketsTemporales
+    private static Duration largo(BucketsTemporales b, int i) {
+        BucketsTemporales uno = BucketsTemporales.de(b.granularidad(), b.zona(), b.inicio(i), b.inicio(i + 1));
+        return Duration.ofMillis(uno.hasta().getTime() - uno.desde().getTime());
+    }
+
+    private static long millis(LocalDateTime local, ZoneId zona) {
+        return local.atZone(zona).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,82 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.grindsup.backend.service.ReportLayoutRegistry.Layout;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+
+/**
+ * Cada layout compila y llena con los datos sintéticos del warm-up, y el pool
+ * de instancias compiladas no deja colgado a quien espera una libre.
+ */
+class ReportLayoutRegistryTests {
+
+    @ParameterizedTest
+    @EnumSource(Layout.class)
+    void warmUpGeneraUnPdf(Layout layout) throws Exception {
+        ReportLayoutRegistry registry = new ReportLayoutRegistry(
+                new SimpleMeterRegistry(), new ReportResourceRegistry(), 1, 200, false);
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+
+        registry.precalentar(layout, pdf);
+
+        assertThat(pdf.toString(StandardCharsets.ISO_8859_1)).startsWith("%PDF").contains("%%EOF");
+    }
+
+    // Con todas las instancias ocupadas, la espera por una libre vence y se
+    // rechaza como el bulkhead (503)
+    @Test
+    void esperaPorLayoutLibreVenceConRechazo() throws Exception {
+        ReportLayoutRegistry registry = new ReportLayoutRegistry(
+                new SimpleMeterRegistry(), new ReportResourceRegistry(), 1, 200, false);
+
+        // Ocupa la única instancia: el export queda trabado escribiendo el PDF
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        OutputStream trabado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                escribiendo.countDown();
+                try {
+                    soltar.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        CompletableFuture<Void> ocupado = CompletableFuture.runAsync(() -> {
+            try {
+                registry.fillPdf(Layout.RATINGS_ENTRENADOR, new HashMap<>(), new JREmptyDataSource(0), trabado);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(escribiendo.await(60, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> registry.fillPdf(Layout.RATINGS_ENTRENADOR,
+                    new HashMap<>(), new JREmptyDataSource(0), OutputStream.nullOutputStream()))
+                    .isInstanceOfSatisfying(RenderBulkhead.Rechazo.class,
+                            r -> assertThat(r.getMotivo()).isEqualTo(RenderBulkhead.Motivo.TIMEOUT));
+        } finally {
+            soltar.countDown();
+        }
+        ocupado.get(60, TimeUnit.SECONDS);
+    }
+}
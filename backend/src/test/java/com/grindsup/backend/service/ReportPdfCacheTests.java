@@ -0,0 +1,64 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.grindsup.backend.service.ReportPdfCache.Captura;
+import com.grindsup.backend.service.ReportPdfCache.Key;
+import com.grindsup.backend.service.ReportPdfCache.Tipo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * La captura copia el PDF mientras va a la respuesta: todo lo escrito llega
+ * al destino, y a la cache solo si entra en max-entry-bytes y se confirma.
+ */
+class ReportPdfCacheTests {
+
+    private final ReportPdfCache cache = new ReportPdfCache(new SimpleMeterRegistry(), 1024, 8);
+
+    @Test
+    void guardaLoEscritoAlConfirmar() throws IOException {
+        Key key = cache.key(Tipo.RATINGS, 1L, null, null);
+        ByteArrayOutputStream respuesta = new ByteArrayOutputStream();
+
+        Captura captura = cache.capturar(key, respuesta);
+        captura.write("%PDF".getBytes());
+        captura.write('-');
+        assertThat(cache.buscar(key)).isNull();
+
+        captura.guardar();
+        assertThat(respuesta.toString()).isEqualTo("%PDF-");
+        assertThat(cache.buscar(key)).isEqualTo("%PDF-".getBytes());
+    }
+
+    @Test
+    void pasadoElTopeSoloVaALaRespuesta() throws IOException {
+        Key key = cache.key(Tipo.RATINGS, 1L, null, null);
+        ByteArrayOutputStream respuesta = new ByteArrayOutputStream();
+
+        Captura captura = cache.capturar(key, respuesta);
+        captura.write("12345678".getBytes());
+        captura.write('9');
+        captura.write("0".getBytes());
+        captura.guardar();
+
+        assertThat(respuesta.toString()).isEqualTo("1234567890");
+        assertThat(cache.buscar(key)).isNull();
+    }
+
+    @Test
+    void sinConfirmarNoGuarda() throws IOException {
+        Key key = cache.key(Tipo.ALTAS_BAJAS, 2L, null, null);
+
+        Captura captura = cache.capturar(key, new ByteArrayOutputStream());
+        captura.write("%PDF".getBytes());
+        captura.close();
+
+        assertThat(cache.buscar(key)).isNull();
+    }
+}
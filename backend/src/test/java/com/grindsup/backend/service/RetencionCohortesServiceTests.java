@@ -0,0 +1,129 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.grindsup.backend.DTO.RetencionCohorteDTO;
+import com.grindsup.backend.DTO.RetencionCohortesDTO;
+import com.grindsup.backend.repository.AlumnoRepository;
+import com.grindsup.backend.repository.AlumnoRepository.AltaBaja;
+
+/**
+ * Triángulo de retención sobre filas (alta, baja) armadas a mano: bajas
+ * dentro del mismo mes, en el mes +k justo, después de la ventana y meses
+ * que todavía no cerraron.
+ */
+class RetencionCohortesServiceTests {
+
+    private static final Long ENTRENADOR = 7L;
+
+    private record Fila(Date getAlta, Date getBaja) implements AltaBaja {}
+
+    private final AlumnoRepository alumnoRepository = mock(AlumnoRepository.class);
+    private final ZonaHorariaService zonas = mock(ZonaHorariaService.class);
+    private final RetencionCohortesService service = new RetencionCohortesService(alumnoRepository, zonas);
+
+    @Test
+    void trianguloPorCohorte() {
+        zona(ZoneOffset.UTC);
+        filas(
+                // 2024-01: uno sigue, uno se va el mismo mes, uno se va en el mes +2
+                new Fila(fecha(2024, 1, 10), null),
+                new Fila(fecha(2024, 1, 20), fecha(2024, 1, 25)),
+                new Fila(fecha(2024, 1, 5), fecha(2024, 3, 15)),
+                // 2024-02: se va en el mes +4, después de k = 3
+                new Fila(fecha(2024, 2, 10), fecha(2024, 6, 10)),
+                // 2024-03: la baja cae fuera de la ventana de cálculo
+                new Fila(fecha(2024, 3, 10), fecha(2030, 1, 1)));
+
+        RetencionCohortesDTO r = service.calcular(ENTRENADOR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1), List.of(3, 1));
+
+        assertThat(r.meses()).containsExactly(1, 3);
+        assertThat(r.cohortes()).containsExactly(
+                new RetencionCohorteDTO("2024-01", 3, List.of(2L, 1L)),
+                new RetencionCohorteDTO("2024-02", 1, List.of(1L, 1L)),
+                new RetencionCohorteDTO("2024-03", 1, List.of(1L, 1L)));
+    }
+
+    @Test
+    void bajaElUltimoDiaDelMesKCuentaEnK() {
+        zona(ZoneOffset.UTC);
+        filas(
+                new Fila(fecha(2024, 1, 10), Date.from(LocalDateTime.of(2024, 2, 29, 23, 59).toInstant(ZoneOffset.UTC))),
+                new Fila(fecha(2024, 1, 10), Date.from(LocalDateTime.of(2024, 3, 1, 0, 0).toInstant(ZoneOffset.UTC))));
+
+        RetencionCohortesDTO r = service.calcular(ENTRENADOR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), List.of(0, 1, 2));
+
+        assertThat(r.cohortes().get(0).activos()).containsExactly(2L, 1L, 0L);
+    }
+
+    @Test
+    void mesesEnLaZonaDelEntrenador() {
+        ZoneId cordoba = ZoneId.of("America/Argentina/Cordoba");
+        zona(cordoba);
+        // 1 de febrero 01:00 UTC = 31 de enero 22:00 en Córdoba: cohorte de enero
+        filas(new Fila(Date.from(LocalDateTime.of(2024, 2, 1, 1, 0).toInstant(ZoneOffset.UTC)), null));
+
+        RetencionCohortesDTO r = service.calcular(ENTRENADOR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1), List.of(1));
+
+        assertThat(r.cohortes()).extracting(RetencionCohorteDTO::altas).containsExactly(1L, 0L);
+    }
+
+    @Test
+    void mesQueNoCerroQuedaEnNull() {
+        zona(ZoneOffset.UTC);
+        YearMonth actual = YearMonth.now(ZoneOffset.UTC);
+        filas(new Fila(Date.from(actual.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)), null));
+
+        RetencionCohortesDTO r = service.calcular(ENTRENADOR,
+                actual.atDay(1), actual.plusMonths(1).atDay(1), List.of(1));
+
+        assertThat(r.cohortes().get(0).altas()).isEqualTo(1);
+        assertThat(r.cohortes().get(0).activos()).isEqualTo(Arrays.asList((Long) null));
+    }
+
+    @Test
+    void mesesFueraDeRango() {
+        zona(ZoneOffset.UTC);
+
+        assertThatThrownBy(() -> service.calcular(ENTRENADOR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), List.of(RetencionCohortesService.MAX_MESES + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.calcular(ENTRENADOR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), List.of(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void zona(ZoneId zona) {
+        when(zonas.deEntrenador(ENTRENADOR)).thenReturn(zona);
+    }
+
+    private void filas(AltaBaja... filas) {
+        when(alumnoRepository.streamAltasYBajas(eq(ENTRENADOR), any(Date.class), any(Date.class)))
+                .thenAnswer(inv -> Stream.of(filas));
+    }
+
+    // Mediodía UTC: lejos de cualquier borde de mes
+    private static Date fecha(int anio, int mes, int dia) {
+        return Date.from(LocalDateTime.of(anio, mes, dia, 12, 0).toInstant(ZoneOffset.UTC));
+    }
+}
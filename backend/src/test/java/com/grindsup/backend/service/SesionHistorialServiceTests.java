@@ -0,0 +1,113 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.grindsup.backend.model.Sesion;
+import com.grindsup.backend.model.Usuario;
+import com.grindsup.backend.repository.UsuarioRepository;
+import com.grindsup.backend.service.SesionHistorialService.Aporte;
+
+/**
+ * El rollup diario de sesiones tiene que quedar igual actualizado paso a
+ * paso (alta, cambio de día, cambio de usuario, baja) que reconstruido
+ * desde sesiones + sesiones_archivo.
+ */
+@SpringBootTest
+@Transactional
+class SesionHistorialServiceTests {
+
+    private static final long USUARIO_A = 9301L;
+    private static final long USUARIO_B = 9302L;
+
+    @Autowired private SesionHistorialService sesionHistorialService;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void datos() {
+        Timestamp t = Timestamp.valueOf("2025-01-01 12:00:00");
+        jdbc.update("INSERT INTO roles (id_rol, nombre, created_at, updated_at) VALUES (9301, 'TEST', ?, ?)", t, t);
+        jdbc.update("""
+                INSERT INTO usuarios (id_usuario, nombre, apellido, correo, contrasena, id_rol, created_at, updated_at)
+                VALUES (?, 'A', 'A', 'a@sesiones.test', 'x', 9301, ?, ?), (?, 'B', 'B', 'b@sesiones.test', 'x', 9301, ?, ?)
+                """, USUARIO_A, t, t, USUARIO_B, t, t);
+    }
+
+    @Test
+    void incrementalIgualAReconstruido() {
+        Sesion temprano = registrar(USUARIO_A, hora(10, 9));
+        Sesion tarde = registrar(USUARIO_A, hora(10, 18));
+        Sesion otra = registrar(USUARIO_A, hora(10, 12));
+        assertConsistente();
+
+        // Cambia de día: el 10 pierde el último acceso de las 18
+        Aporte antes = Aporte.de(tarde);
+        tarde.setInicio(hora(11, 8));
+        sesionHistorialService.actualizar(antes, tarde);
+        assertConsistente();
+        assertThat(jdbc.queryForObject(
+                "SELECT cantidad FROM sesiones_dia_resumen WHERE id_usuario = ? AND dia = DATE '2025-03-10'",
+                Long.class, USUARIO_A)).isEqualTo(2L);
+
+        // Mismo día, otro usuario
+        antes = Aporte.de(temprano);
+        temprano.setUsuario(usuario(USUARIO_B));
+        sesionHistorialService.actualizar(antes, temprano);
+        assertConsistente();
+
+        // Sin cambios en usuario ni inicio: el rollup no se toca
+        antes = Aporte.de(otra);
+        otra.setIp("10.0.0.1");
+        sesionHistorialService.actualizar(antes, otra);
+        assertConsistente();
+
+        // Baja: el día que queda vacío no deja fila
+        sesionHistorialService.eliminar(tarde);
+        assertConsistente();
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM sesiones_dia_resumen WHERE dia = DATE '2025-03-11'", Long.class)).isZero();
+    }
+
+    private Sesion registrar(long usuarioId, OffsetDateTime inicio) {
+        Sesion s = new Sesion();
+        s.setUsuario(usuario(usuarioId));
+        s.setInicio(inicio);
+        s.setCreated_at(inicio);
+        s.setUpdated_at(inicio);
+        return sesionHistorialService.registrar(s);
+    }
+
+    private Usuario usuario(long id) {
+        return usuarioRepository.findById(id).orElseThrow();
+    }
+
+    private static OffsetDateTime hora(int dia, int hora) {
+        return OffsetDateTime.of(2025, 3, dia, hora, 0, 0, 0, ZoneOffset.UTC);
+    }
+
+    private void assertConsistente() {
+        List<String> incremental = rollup();
+        sesionHistorialService.reconstruir();
+        assertThat(rollup()).as("reconstruido").isEqualTo(incremental);
+    }
+
+    private List<String> rollup() {
+        return jdbc.query("""
+                SELECT id_usuario, dia, cantidad, primer_acceso, ultimo_acceso
+                FROM sesiones_dia_resumen ORDER BY id_usuario, dia
+                """, (rs, i) -> rs.getLong(1) + " " + rs.getDate(2) + " " + rs.getLong(3)
+                        + " " + rs.getTimestamp(4).toInstant() + " " + rs.getTimestamp(5).toInstant());
+    }
+}
@@ -0,0 +1,127 @@
+package com.grindsup.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.grindsup.backend.DTO.TurnosPaginaDTO;
+import com.grindsup.backend.repository.TurnoRepository;
+import com.grindsup.backend.repository.TurnoRepository.TurnoFila;
+
+/**
+ * Cursor de los listados de turnos: lo que devuelve una página tiene que
+ * volver a entrar como el mismo (fecha, id_turno), y cualquier otra cosa es
+ * un cursor inválido.
+ */
+class TurnoLecturaServiceTests {
+
+    private static final Long ENTRENADOR = 3L;
+    private static final OffsetDateTime DESDE = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime HASTA = OffsetDateTime.of(2025, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private record Fila(Long getIdTurno, Long getIdEntrenador, String getEntrenador,
+                        String getTipoTurno, OffsetDateTime getFecha) implements TurnoFila {}
+
+    private final TurnoRepository turnoRepository = mock(TurnoRepository.class);
+    private final TurnoLecturaService service = new TurnoLecturaService(turnoRepository, 90, 180, 2, 10);
+
+    @Test
+    void cursorDeLaPaginaVuelveComoFechaEId() {
+        OffsetDateTime t1 = OffsetDateTime.of(2025, 3, 10, 9, 0, 0, 0, ZoneOffset.ofHours(-3));
+        OffsetDateTime t2 = t1.plusMinutes(30);
+        pagina(new Fila(11L, ENTRENADOR, "Ent", "Funcional", t1),
+               new Fila(12L, ENTRENADOR, "Ent", "Funcional", t2),
+               new Fila(13L, ENTRENADOR, "Ent", "Funcional", t2));
+
+        TurnosPaginaDTO primera = service.listarPorEntrenador(ENTRENADOR, DESDE, HASTA, null, null, null);
+        assertThat(primera.turnos()).hasSize(2);
+        assertThat(primera.siguiente()).isEqualTo(TurnoLecturaService.codificar(t2, 12L));
+
+        service.listarPorEntrenador(ENTRENADOR, DESDE, HASTA, null, primera.siguiente(), null);
+        // El mismo instante, normalizado a UTC
+        verify(turnoRepository).paginaPorEntrenador(eq(ENTRENADOR), eq(t2.withOffsetSameInstant(ZoneOffset.UTC)),
+                eq(12L), eq(HASTA), isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void ultimaPaginaSinCursor() {
+        pagina(new Fila(11L, ENTRENADOR, "Ent", "Funcional", DESDE.plusDays(1)));
+
+        TurnosPaginaDTO r = service.listarPorEntrenador(ENTRENADOR, DESDE, HASTA, null, null, null);
+
+        assertThat(r.turnos()).hasSize(1);
+        assertThat(r.siguiente()).isNull();
+    }
+
+    @Test
+    void codificarEsBase64UrlSinRelleno() {
+        String cursor = TurnoLecturaService.codificar(
+                OffsetDateTime.of(2025, 3, 10, 12, 0, 0, 0, ZoneOffset.UTC), Long.MAX_VALUE);
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8))
+                .isEqualTo("2025-03-10T12:00:00Z," + Long.MAX_VALUE);
+    }
+
+    @Test
+    void cursorAnteriorAlDesdeArrancaEnElDesde() {
+        pagina();
+        String viejo = TurnoLecturaService.codificar(DESDE.minusDays(10), 5L);
+
+        service.listarPorEntrenador(ENTRENADOR, DESDE, HASTA, null, viejo, null);
+
+        verify(turnoRepository).paginaPorEntrenador(eq(ENTRENADOR), eq(DESDE), eq(0L), eq(HASTA),
+                isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void cursoresInvalidos() {
+        pagina();
+        List<String> invalidos = List.of(
+                "%%%",                                  // no es base64
+                b64("2025-03-10T12:00:00Z"),            // sin id
+                b64("2025-03-10T12:00:00Z,1,2"),        // de más
+                b64("ayer,1"),                          // fecha mala
+                b64("2025-03-10T12:00:00Z,uno"),        // id malo
+                b64(","));
+        for (String c : invalidos) {
+            assertThatThrownBy(() -> service.listarPorEntrenador(ENTRENADOR, DESDE, HASTA, null, c, null))
+                    .as(c)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cursor inválido");
+        }
+    }
+
+    @Test
+    void limiteFueraDeRango() {
+        assertThatThrownBy(() -> service.listarTodos(DESDE, HASTA, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.listarTodos(DESDE, HASTA, null, 11))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void pagina(TurnoFila... filas) {
+        when(turnoRepository.paginaPorEntrenador(any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(filas));
+        when(turnoRepository.alumnosDeTurnos(anyCollection())).thenReturn(List.of());
+    }
+
+    private static String b64(String plano) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package com.grindsup.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class CsvTablaWriterTests {
+
+    @Test
+    void empiezaConBomUtf8() throws IOException {
+        byte[] bytes = escribir(w -> w.encabezado("Mes"));
+
+        assertThat(bytes).startsWith(0xEF, 0xBB, 0xBF);
+        assertThat(texto(bytes)).isEqualTo("Mes\r\n");
+    }
+
+    @Test
+    void escapaSoloLoQueHaceFalta() throws IOException {
+        String csv = texto(escribir(w -> {
+            w.encabezado("Nombre", "Nota");
+            w.fila("Peña", "simple");
+            w.fila("Pérez, Juan", "dijo \"hola\"");
+            w.fila("dos\nlíneas", "retorno\r");
+        }));
+
+        assertThat(csv).isEqualTo("Nombre,Nota\r\n"
+                + "Peña,simple\r\n"
+                + "\"Pérez, Juan\",\"dijo \"\"hola\"\"\"\r\n"
+                + "\"dos\nlíneas\",\"retorno\r\"\r\n");
+    }
+
+    @Test
+    void numerosConPuntoYNulosVacios() throws IOException {
+        String csv = texto(escribir(w -> w.fila(3, 2.5, null, 10L, "x")));
+
+        assertThat(csv).isEqualTo("3,2.5,,10,x\r\n");
+    }
+
+    @Test
+    void closeNoCierraElDestino() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("no debería cerrarse");
+            }
+        };
+        try (TablaWriter w = new CsvTablaWriter(out)) {
+            w.fila("a");
+        }
+        assertThat(out.size()).isPositive();
+    }
+
+    private interface Cuerpo {
+        void escribir(TablaWriter w) throws IOException;
+    }
+
+    private static byte[] escribir(Cuerpo cuerpo) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TablaWriter w = new CsvTablaWriter(out)) {
+            cuerpo.escribir(w);
+        }
+        return out.toByteArray();
+    }
+
+    // Sin el BOM
+    private static String texto(byte[] bytes) {
+        return new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+    }
+}
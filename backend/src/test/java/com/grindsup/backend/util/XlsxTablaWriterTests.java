@@ -0,0 +1,122 @@
+package com.grindsup.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * El archivo tiene que ser un ZIP con las partes mínimas de un XLSX y XML
+ * bien formado en cada una (si no, Excel lo rechaza entero).
+ */
+class XlsxTablaWriterTests {
+
+    @Test
+    void paqueteConLasPartesMinimasYXmlValido() throws Exception {
+        Map<String, Document> partes = leer(escribir("Altas", w -> {
+            w.encabezado("Mes", "Altas");
+            w.fila("2025-01", 3);
+        }));
+
+        assertThat(partes.keySet()).containsExactly(
+                "[Content_Types].xml",
+                "_rels/.rels",
+                "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels",
+                "xl/styles.xml",
+                "xl/worksheets/sheet1.xml");
+    }
+
+    @Test
+    void encabezadoEnNegritaNumerosNativosYTextoInline() throws Exception {
+        Document hoja = leer(escribir("Altas", w -> {
+            w.encabezado("Mes", "Altas");
+            w.fila("2025-01", 3, 2.5, null);
+        })).get("xl/worksheets/sheet1.xml");
+
+        NodeList filas = hoja.getElementsByTagName("row");
+        assertThat(filas.getLength()).isEqualTo(2);
+
+        Element titulo = celda(filas, 0, 0);
+        assertThat(titulo.getAttribute("s")).isEqualTo("1");
+        assertThat(titulo.getAttribute("t")).isEqualTo("inlineStr");
+        assertThat(titulo.getTextContent()).isEqualTo("Mes");
+
+        assertThat(celda(filas, 1, 0).getAttribute("s")).isEmpty();
+        assertThat(celda(filas, 1, 1).getAttribute("t")).isEmpty();
+        assertThat(celda(filas, 1, 1).getTextContent()).isEqualTo("3");
+        assertThat(celda(filas, 1, 2).getTextContent()).isEqualTo("2.5");
+        assertThat(celda(filas, 1, 3).hasChildNodes()).isFalse();
+    }
+
+    @Test
+    void escapaTextoYQuitaCaracteresDeControl() throws Exception {
+        Document hoja = leer(escribir("Datos", w -> w.fila("<a & \"b\">", "x\u0001y\tz", Double.NaN)))
+                .get("xl/worksheets/sheet1.xml");
+
+        NodeList filas = hoja.getElementsByTagName("row");
+        assertThat(celda(filas, 0, 0).getTextContent()).isEqualTo("<a & \"b\">");
+        assertThat(celda(filas, 0, 1).getTextContent()).isEqualTo("xy\tz");
+        // NaN no es un número válido en la celda: va como texto
+        assertThat(celda(filas, 0, 2).getAttribute("t")).isEqualTo("inlineStr");
+    }
+
+    @Test
+    void nombreDeHojaSaneadoYRecortado() throws Exception {
+        Document libro = leer(escribir("Altas/bajas: [2025] por entrenador y mes", w -> { }))
+                .get("xl/workbook.xml");
+
+        String nombre = ((Element) libro.getElementsByTagName("sheet").item(0)).getAttribute("name");
+        assertThat(nombre).isEqualTo("Altas_bajas_ _2025_ por entrena");
+        assertThat(nombre).hasSize(31);
+    }
+
+    @Test
+    void hojaSinNombreSeLlamaDatos() throws Exception {
+        Document libro = leer(escribir(null, w -> { })).get("xl/workbook.xml");
+
+        assertThat(((Element) libro.getElementsByTagName("sheet").item(0)).getAttribute("name")).isEqualTo("Datos");
+    }
+
+    private interface Cuerpo {
+        void escribir(TablaWriter w) throws IOException;
+    }
+
+    private static byte[] escribir(String hoja, Cuerpo cuerpo) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TablaWriter w = new XlsxTablaWriter(out, hoja)) {
+            cuerpo.escribir(w);
+        }
+        return out.toByteArray();
+    }
+
+    // Entradas del ZIP en orden, cada una parseada como XML
+    private static Map<String, Document> leer(byte[] xlsx) throws Exception {
+        DocumentBuilderFactory f = DocumentBuilderFactory.newInstance();
+        Map<String, Document> partes = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(xlsx))) {
+            ZipEntry e;
+            while ((e = zip.getNextEntry()) != null) {
+                byte[] contenido = zip.readAllBytes();
+                partes.put(e.getName(), f.newDocumentBuilder().parse(new ByteArrayInputStream(contenido)));
+            }
+        }
+        return partes;
+    }
+
+    private static Element celda(NodeList filas, int fila, int columna) {
+        return (Element) ((Element) filas.item(fila)).getElementsByTagName("c").item(columna);
+    }
+}
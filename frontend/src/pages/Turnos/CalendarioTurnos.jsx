@@ -42,6 +42,8 @@ export default function CalendarioTurnos() {
   const [turnos, setTurnos] = useState([]);
   const [y, setY] = useState(new Date().getFullYear());
   const [m, setM] = useState(new Date().getMonth());
+  // El back cortó el listado del mes (ver MAX_PAGINAS en turnos.servicio)
+  const [truncado, setTruncado] = useState(false);
 
   useEffect(() => {
     (async () => {
@@ -52,8 +54,14 @@ export default function CalendarioTurnos() {
         return;
       }
 
-      const { data } = await listarTurnos(id);
+      // Solo el mes visible
+      const mes = String(m + 1).padStart(2, "0");
+      const { data, truncado: cortado } = await listarTurnos(id, {
+        desde: `${y}-${mes}-01`,
+        hasta: `${y}-${mes}-${String(daysInMonth(y, m)).padStart(2, "0")}`,
+      });
       const rows = Array.isArray(data) ? data : [];
+      setTruncado(Boolean(cortado));
 
       const usuario = getUsuario();
       const myName = `${usuario?.nombre ?? ""} ${usuario?.apellido ?? ""}`
@@ -73,7 +81,7 @@ export default function CalendarioTurnos() {
 
       setTurnos(propios);
     })();
-  }, []);
+  }, [y, m]);
 
   const porDia = useMemo(() => {
     const map = new Map();
@@ -115,6 +123,14 @@ export default function CalendarioTurnos() {
         </Alert>
       )}
 
+      {truncado && (
+        <Alert status="info" mb={6} borderRadius="lg">
+          <AlertIcon />
+          Este mes tiene más turnos de los que se pueden mostrar. Faltan algunos:
+          usá la lista de turnos con un rango de fechas para verlos todos.
+        </Alert>
+      )}
+
       <HStack justify="space-between" mb={6} opacity={entrenadorId ? 1 : 0.5}>
         <Button leftIcon={<ArrowBackIcon />} onClick={() => navigate("/InicioDashboard")} bg="#258d19" color="white">
           Volver
@@ -24,7 +24,7 @@ import {
 } from "@chakra-ui/react";
 import { useNavigate } from "react-router-dom";
 import { SearchIcon, CalendarIcon, TimeIcon, ArrowBackIcon } from "@chakra-ui/icons";
-import { listarTurnos } from "../../services/turnos.servicio.js";
+import { listarTurnosPagina } from "../../services/turnos.servicio.js";
 import { ensureEntrenadorId } from "../../context/auth.js";
 
 function alumnosToString(alumnos, fallback = "—") {
@@ -48,6 +48,9 @@ export default function HistorialTurnos() {
   const [entrenadorId, setEntrenadorId] = useState(null);
   const [turnos, setTurnos] = useState([]);
   const [loading, setLoading] = useState(true);
+  // Cursor de la siguiente página (null = no hay más)
+  const [cursor, setCursor] = useState(null);
+  const [cargandoMas, setCargandoMas] = useState(false);
 
   // filtros
   const [desde, setDesde] = useState("");
@@ -58,6 +61,36 @@ export default function HistorialTurnos() {
   const normalizarTipo = (t) =>
     (t?.nombre ?? t?.tipo ?? t ?? "").toString().trim().toLowerCase();
 
+  const filtros = () => ({
+    desde: desde || undefined,
+    hasta: hasta || undefined,
+    tipo: tipo || undefined,
+  });
+
+  // 🔹 Sólo turnos PASADOS (fecha/hora < ahora)
+  const soloPasados = (rows) => {
+    const ahora = new Date();
+    return (Array.isArray(rows) ? rows : []).filter((t) => {
+      const f = new Date(t.fecha);
+      return !Number.isNaN(f.getTime()) && f < ahora;
+    });
+  };
+
+  // Siguiente página del back (mismo filtro); se agrega a lo ya cargado
+  const cargarMas = async () => {
+    if (!cursor || !entrenadorId) return;
+    setCargandoMas(true);
+    try {
+      const { data, nextCursor } = await listarTurnosPagina(entrenadorId, { ...filtros(), cursor });
+      setTurnos((prev) => [...prev, ...soloPasados(data)]);
+      setCursor(nextCursor);
+    } catch {
+      setCursor(null);
+    } finally {
+      setCargandoMas(false);
+    }
+  };
+
   useEffect(() => {
     (async () => {
       setLoading(true);
@@ -66,29 +99,18 @@ export default function HistorialTurnos() {
 
       if (!id) {
         setTurnos([]);
+        setCursor(null);
         setLoading(false);
         return;
       }
 
       try {
-        const { data } = await listarTurnos(id, {
-          desde: desde || undefined,
-          hasta: hasta || undefined,
-          tipo: tipo || undefined,
-        });
-
-        const rows = Array.isArray(data) ? data : [];
-        const ahora = new Date();
-
-        // 🔹 Sólo turnos PASADOS (fecha/hora < ahora)
-        const pasados = rows.filter((t) => {
-          const f = new Date(t.fecha);
-          return !Number.isNaN(f.getTime()) && f < ahora;
-        });
-
-        setTurnos(pasados);
+        const { data, nextCursor } = await listarTurnosPagina(id, filtros());
+        setTurnos(soloPasados(data));
+        setCursor(nextCursor);
       } catch {
         setTurnos([]);
+        setCursor(null);
       } finally {
         setLoading(false);
       }
@@ -279,6 +301,14 @@ export default function HistorialTurnos() {
           </Tbody>
         </Table>
       </Box>
+
+      {!loading && cursor && (
+        <HStack justify="center" mt={4}>
+          <Button onClick={cargarMas} isLoading={cargandoMas} bg="#258d19" color="white">
+            Cargar más
+          </Button>
+        </HStack>
+      )}
     </Container>
   );
 }
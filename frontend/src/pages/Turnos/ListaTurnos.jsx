@@ -31,7 +31,7 @@ import {
 } from "@chakra-ui/react";
 import { useNavigate } from "react-router-dom";
 import { SearchIcon, CalendarIcon, AddIcon, TimeIcon, ArrowBackIcon } from "@chakra-ui/icons";
-import { listarTurnos, eliminarTurno } from "../../services/turnos.servicio.js";
+import { listarTurnosPagina, eliminarTurno } from "../../services/turnos.servicio.js";
 import { ensureEntrenadorId } from "../../context/auth.js";
 
 /* ============================================================
@@ -135,6 +135,9 @@ export default function ListaTurnos() {
   const [entrenadorId, setEntrenadorId] = useState(null);
   const [turnos, setTurnos] = useState([]);
   const [loading, setLoading] = useState(true);
+  // Cursor de la siguiente página (null = no hay más)
+  const [cursor, setCursor] = useState(null);
+  const [cargandoMas, setCargandoMas] = useState(false);
 
   // 🚀 ESTADO PARA EL DIÁLOGO DE CONFIRMACIÓN
   const [turnoAEliminar, setTurnoAEliminar] = useState(null); // Contiene { id: number, tipo: 'simple' | 'serie', data: turno | row }
@@ -148,6 +151,36 @@ export default function ListaTurnos() {
   const normalizarTipo = (t) =>
     (t?.nombre ?? t?.tipo ?? t ?? "").toString().trim().toLowerCase();
 
+  const filtros = () => ({
+    desde: desde || undefined,
+    hasta: hasta || undefined,
+    tipo: tipo || undefined,
+  });
+
+  // 🔹 Sólo turnos PENDIENTES (fecha/hora >= ahora)
+  const soloPendientes = (rows) => {
+    const ahora = new Date();
+    return (Array.isArray(rows) ? rows : []).filter((t) => {
+      const f = new Date(t.fecha);
+      return !Number.isNaN(f.getTime()) && f >= ahora;
+    });
+  };
+
+  // Siguiente página del back (mismo filtro); se agrega a lo ya cargado
+  const cargarMas = async () => {
+    if (!cursor || !entrenadorId) return;
+    setCargandoMas(true);
+    try {
+      const { data, nextCursor } = await listarTurnosPagina(entrenadorId, { ...filtros(), cursor });
+      setTurnos((prev) => [...prev, ...soloPendientes(data)]);
+      setCursor(nextCursor);
+    } catch {
+      setCursor(null);
+    } finally {
+      setCargandoMas(false);
+    }
+  };
+
   useEffect(() => {
     (async () => {
       setLoading(true);
@@ -156,29 +189,18 @@ export default function ListaTurnos() {
 
       if (!id) {
         setTurnos([]);
+        setCursor(null);
         setLoading(false);
         return;
       }
 
       try {
-        const { data } = await listarTurnos(id, {
-          desde: desde || undefined,
-          hasta: hasta || undefined,
-          tipo: tipo || undefined,
-        });
-
-        const rows = Array.isArray(data) ? data : [];
-        const ahora = new Date();
-
-        // 🔹 Sólo turnos PENDIENTES (fecha/hora >= ahora)
-        const pendientes = rows.filter((t) => {
-          const f = new Date(t.fecha);
-          return !Number.isNaN(f.getTime()) && f >= ahora;
-        });
-
-        setTurnos(pendientes);
+        const { data, nextCursor } = await listarTurnosPagina(id, filtros());
+        setTurnos(soloPendientes(data));
+        setCursor(nextCursor);
       } catch {
         setTurnos([]);
+        setCursor(null);
       } finally {
         setLoading(false);
       }
@@ -597,6 +619,14 @@ export default function ListaTurnos() {
           </Tbody>
         </Table>
       </Box>
+
+      {!loading && cursor && (
+        <HStack justify="center" mt={4}>
+          <Button onClick={cargarMas} isLoading={cargandoMas} bg="#258d19" color="white">
+            Cargar más
+          </Button>
+        </HStack>
+      )}
       
       {/* 🚀 DIÁLOGO DE CONFIRMACIÓN - AlertDialog */}
       <AlertDialog
@@ -69,24 +69,81 @@ const getAuthHeaders = (optUserId) => {
 };
 
 /* ============================================================
-   LISTAR TURNOS
+   PAGINADO: el back devuelve páginas y el cursor de la
+   siguiente en el header X-Next-Cursor
 ============================================================ */
-export async function listarTurnos(entrenadorId, { desde, hasta, tipo } = {}) {
+const MAX_PAGINAS = 50;
+
+const siguienteCursor = (r) => r?.headers?.["x-next-cursor"] || null;
+
+async function getTodasLasPaginas(url, params) {
+    let r = await axios.get(url, { params });
+    if (!ok(r) || !Array.isArray(r.data)) return r;
+
+    const data = [...r.data];
+    let cursor = siguienteCursor(r);
+    for (let i = 1; cursor && i < MAX_PAGINAS; i++) {
+        r = await axios.get(url, { params: { ...params, cursor } });
+        if (!ok(r) || !Array.isArray(r.data)) break;
+        data.push(...r.data);
+        cursor = siguienteCursor(r);
+    }
+    // truncado: quedaron páginas sin traer (acotar desde / hasta o paginar)
+    return { ...r, data, truncado: Boolean(cursor) };
+}
+
+/** Params comunes de los listados */
+const filtrosTurnos = ({ desde, hasta, tipo } = {}) => {
     const params = {};
     if (desde) params.desde = desde;
     if (hasta) params.hasta = hasta;
     if (tipo)  params.tipo  = tipo;
+    return params;
+};
+
+/* ============================================================
+   LISTAR TURNOS (una página)
+   Devuelve { data, nextCursor }; para la siguiente página
+   repetir con cursor = nextCursor (null = no hay más)
+============================================================ */
+export async function listarTurnosPagina(entrenadorId, { cursor, ...filtros } = {}) {
+    const params = filtrosTurnos(filtros);
+    if (cursor) params.cursor = cursor;
 
     if (entrenadorId != null) {
         try {
             const r1 = await axios.get(`${API}/turnos/entrenador/${entrenadorId}`, { params });
+            if (ok(r1)) return { data: Array.isArray(r1.data) ? r1.data : [], nextCursor: siguienteCursor(r1) };
+        } catch {}
+        params.entrenadorId = entrenadorId;
+    }
+
+    try {
+        const r = await axios.get(`${API}/turnos`, { params });
+        return { data: Array.isArray(r.data) ? r.data : [], nextCursor: siguienteCursor(r) };
+    } catch {
+        return { data: [], nextCursor: null };
+    }
+}
+
+/* ============================================================
+   LISTAR TURNOS (todas las páginas, hasta MAX_PAGINAS)
+   Para vistas acotadas (p.ej. un mes del calendario); si
+   quedó cortado devuelve truncado = true
+============================================================ */
+export async function listarTurnos(entrenadorId, filtros = {}) {
+    const params = filtrosTurnos(filtros);
+
+    if (entrenadorId != null) {
+        try {
+            const r1 = await getTodasLasPaginas(`${API}/turnos/entrenador/${entrenadorId}`, params);
             if (ok(r1)) return r1;
         } catch {}
         params.entrenadorId = entrenadorId;
     }
 
     try {
-        return await axios.get(`${API}/turnos`, { params });
+        return await getTodasLasPaginas(`${API}/turnos`, params);
     } catch {
         return { data: [] };
     }
@@ -259,6 +316,7 @@ export function eliminarTurno(id, opts = {}) {
 ============================================================ */
 const turnosService = {
     listarTurnos,
+    listarTurnosPagina,
     obtenerTurno,
     alumnosDeTurno,
     obtenerAlumnosTurno,